@@ -0,0 +1,134 @@
+package ar.edu.utn.frc.backend.tpi.api_gateway.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Modo de confianza interna: el JWT se verifica una sola vez acá y hacia los servicios viaja
+ * una identidad compacta firmada con HMAC en lugar del token de Keycloak.
+ *
+ * Formato del encabezado {@code X-Identidad}: {@code base64url(claims JSON).base64url(HmacSHA256)},
+ * con sub, email, preferred_username, realm_access.roles, scope y exp (segundos epoch). El
+ * vencimiento es el menor entre el del token y {@code tpi.identidad-interna.ttl}. Los servicios
+ * comparten el secreto y validan firma y vencimiento sin volver a consultar las claves de Keycloak.
+ */
+@Component
+@ConditionalOnProperty(name = "tpi.identidad-interna.habilitada", havingValue = "true")
+public class IdentidadInternaFilter implements GlobalFilter, Ordered {
+
+    public static final String ENCABEZADO = "X-Identidad";
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int LONGITUD_MINIMA_SECRETO = 32;
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec clave;
+    private final Duration ttl;
+
+    public IdentidadInternaFilter(ObjectMapper objectMapper,
+            @Value("${tpi.identidad-interna.secreto:}") String secreto,
+            @Value("${tpi.identidad-interna.ttl:30s}") Duration ttl) {
+        byte[] bytes = secreto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < LONGITUD_MINIMA_SECRETO) {
+            throw new IllegalStateException("tpi.identidad-interna.secreto debe tener al menos "
+                    + LONGITUD_MINIMA_SECRETO + " bytes");
+        }
+        this.objectMapper = objectMapper;
+        this.clave = new SecretKeySpec(bytes, ALGORITMO);
+        this.ttl = ttl;
+    }
+
+    // Después de los filtros de ruta (incluido TokenRelay) y antes del ruteo Netty
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(autenticacion -> firmar(((JwtAuthenticationToken) autenticacion).getToken()))
+                .map(identidad -> exchange.mutate().request(request -> request.headers(headers -> {
+                    headers.remove(HttpHeaders.AUTHORIZATION);
+                    headers.set(ENCABEZADO, identidad);
+                })).build())
+                // Sin JWT (rutas públicas) no se reenvía ninguna identidad, ni siquiera una que venga del cliente
+                .switchIfEmpty(Mono.fromSupplier(() -> exchange.mutate()
+                        .request(request -> request.headers(headers -> headers.remove(ENCABEZADO)))
+                        .build()))
+                .flatMap(chain::filter);
+    }
+
+    String firmar(Jwt jwt) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", jwt.getSubject());
+        putSiExiste(claims, "email", jwt.getClaimAsString("email"));
+        putSiExiste(claims, "preferred_username", jwt.getClaimAsString("preferred_username"));
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        if (realmAccess != null && realmAccess.get("roles") instanceof List<?> roles) {
+            claims.put("realm_access", Map.of("roles", roles));
+        }
+        putSiExiste(claims, "scope", jwt.getClaimAsString("scope"));
+        Instant vencimiento = Instant.now().plus(ttl);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(vencimiento)) {
+            vencimiento = jwt.getExpiresAt();
+        }
+        claims.put("exp", vencimiento.getEpochSecond());
+
+        try {
+            String payload = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(claims));
+            return payload + "." + firma(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la identidad interna", e);
+        }
+    }
+
+    private String firma(String payload) {
+        try {
+            // Mac no es thread-safe: una instancia por firma
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar la identidad interna", e);
+        }
+    }
+
+    private static void putSiExiste(Map<String, Object> claims, String nombre, Object valor) {
+        if (valor != null) {
+            claims.put(nombre, valor);
+        }
+    }
+}
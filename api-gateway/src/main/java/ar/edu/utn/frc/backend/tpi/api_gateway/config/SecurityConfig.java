@@ -10,6 +10,7 @@ import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
@@ -26,8 +27,15 @@ import java.util.stream.Collectors;
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
+    // Tokens ya verificados y sus autoridades
+    private final TokenCache tokenCache;
+
+    public SecurityConfig(TokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ReactiveJwtDecoder jwtDecoder) {
         // Configuración reactiva para Spring Cloud Gateway.
         http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
@@ -57,7 +65,10 @@ public class SecurityConfig {
                         .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                        .jwt(jwt -> jwt
+                                // El decoder de Spring Boot verifica la firma solo si el token no está en la cache
+                                .jwtDecoder(token -> tokenCache.decodificar(token, jwtDecoder::decode))
+                                .jwtAuthenticationConverter(jwtAuthenticationConverter()))
                 );
         return http.build();
     }
@@ -66,7 +77,7 @@ public class SecurityConfig {
     public Converter<Jwt, Mono<AbstractAuthenticationToken>> jwtAuthenticationConverter() {
         // Convierte roles del JWT a GrantedAuthority para Spring Security (reactivo).
         JwtAuthenticationConverter delegate = new JwtAuthenticationConverter();
-        delegate.setJwtGrantedAuthoritiesConverter(this::extractAuthorities);
+        delegate.setJwtGrantedAuthoritiesConverter(jwt -> tokenCache.autoridades(jwt, this::extractAuthorities));
         return new ReactiveJwtAuthenticationConverterAdapter(delegate);
     }
 
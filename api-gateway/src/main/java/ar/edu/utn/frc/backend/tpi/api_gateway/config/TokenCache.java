@@ -0,0 +1,124 @@
+package ar.edu.utn.frc.backend.tpi.api_gateway.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tokens ya verificados por el gateway, con las autoridades calculadas en SecurityConfig.
+ * Clave: SHA-256 del token. Cada entrada vence con el exp del token o con ttl-maximo.
+ * Métricas: cache.gets, cache.size, cache.evictions y cache.hit.ratio con cache=tokens.
+ */
+@Component
+public class TokenCache {
+
+    public static final String NOMBRE_CACHE = "tokens";
+
+    private final Cache<String, Entrada> cache;
+    private final Duration ttlMaximo;
+
+    private static final class Entrada {
+        private final Jwt jwt;
+        private volatile Collection<GrantedAuthority> autoridades;
+
+        private Entrada(Jwt jwt) {
+            this.jwt = jwt;
+        }
+    }
+
+    public TokenCache(MeterRegistry meterRegistry,
+            @Value("${tpi.tokens.cache.tamanio-maximo:10000}") long tamanioMaximo,
+            @Value("${tpi.tokens.cache.ttl-maximo:10m}") Duration ttlMaximo) {
+        this.ttlMaximo = ttlMaximo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfter(new Expiry<String, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(String clave, Entrada entrada, long ahora) {
+                        return vigencia(entrada.jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String clave, Entrada entrada, long ahora, long restante) {
+                        return vigencia(entrada.jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String clave, Entrada entrada, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE_CACHE);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", NOMBRE_CACHE)
+                .description("Proporción de tokens resueltos sin verificar la firma")
+                .register(meterRegistry);
+    }
+
+    // Sin bloquear el event loop: en un fallo se decodifica y la entrada se guarda al verificarse
+    public Mono<Jwt> decodificar(String token, Function<String, Mono<Jwt>> decodificar) {
+        String clave = clave(token);
+        Entrada entrada = cache.getIfPresent(clave);
+        if (entrada != null) {
+            return Mono.just(entrada.jwt);
+        }
+        return decodificar.apply(token).doOnNext(jwt -> cache.put(clave, new Entrada(jwt)));
+    }
+
+    public Collection<GrantedAuthority> autoridades(Jwt jwt, Converter<Jwt, Collection<GrantedAuthority>> convertir) {
+        // asMap().get no cuenta en las estadísticas: el acierto ya se contó al decodificar
+        Entrada entrada = cache.asMap().get(clave(jwt.getTokenValue()));
+        if (entrada == null || entrada.jwt != jwt) {
+            return convertir.convert(jwt);
+        }
+        Collection<GrantedAuthority> autoridades = entrada.autoridades;
+        if (autoridades == null) {
+            autoridades = List.copyOf(convertir.convert(jwt));
+            entrada.autoridades = autoridades;
+        }
+        return autoridades;
+    }
+
+    private Duration vigencia(Jwt jwt) {
+        if (jwt.getExpiresAt() == null) {
+            return ttlMaximo;
+        }
+        Duration restante = Duration.between(Instant.now(), jwt.getExpiresAt());
+        if (restante.isNegative()) {
+            return Duration.ZERO;
+        }
+        return restante.compareTo(ttlMaximo) < 0 ? restante : ttlMaximo;
+    }
+
+    private static String clave(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ar.edu.utn.frc.backend.tpi.api_gateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifica que la identidad emitida por el gateway sea la que aceptan los servicios: mismo formato,
+ * HMAC con el secreto compartido, claims del token y vencimiento acotado por el ttl y el exp.
+ */
+class IdentidadInternaFilterTest {
+
+    private static final String SECRETO = "secreto-de-prueba-de-al-menos-32-bytes";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdentidadInternaFilter filtro = new IdentidadInternaFilter(objectMapper, SECRETO, Duration.ofSeconds(30));
+
+    @Test
+    void laIdentidadFirmadaSeVerificaComoEnLosServicios() throws Exception {
+        Jwt jwt = jwt(Instant.now().plusSeconds(300));
+
+        Map<String, Object> claims = verificar(filtro.firmar(jwt), SECRETO);
+
+        assertThat(claims).containsEntry("sub", "usuario-1")
+                .containsEntry("email", "cliente@tpi.com")
+                .containsEntry("preferred_username", "cliente")
+                .containsEntry("scope", "openid")
+                .containsEntry("realm_access", Map.of("roles", List.of("cliente")));
+        assertThat(((Number) claims.get("exp")).longValue())
+                .isBetween(Instant.now().getEpochSecond(), Instant.now().plusSeconds(30).getEpochSecond());
+    }
+
+    @Test
+    void elVencimientoNoSuperaElDelToken() throws Exception {
+        Instant expToken = Instant.now().plusSeconds(5);
+
+        Map<String, Object> claims = verificar(filtro.firmar(jwt(expToken)), SECRETO);
+
+        assertThat(((Number) claims.get("exp")).longValue()).isEqualTo(expToken.getEpochSecond());
+    }
+
+    @Test
+    void otroSecretoNoVerifica() {
+        String identidad = filtro.firmar(jwt(Instant.now().plusSeconds(300)));
+
+        assertThatThrownBy(() -> verificar(identidad, "otro-secreto-de-prueba-de-32-bytes-o-mas"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("firma inválida");
+    }
+
+    @Test
+    void reemplazaElTokenPorLaIdentidad() throws Exception {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/solicitudes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+        JwtAuthenticationToken autenticacion = new JwtAuthenticationToken(jwt(Instant.now().plusSeconds(300)));
+
+        HttpHeaders reenviados = filtrar(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(autenticacion))
+                .block();
+
+        assertThat(reenviados.containsKey(HttpHeaders.AUTHORIZATION)).isFalse();
+        assertThat(verificar(reenviados.getFirst(IdentidadInternaFilter.ENCABEZADO), SECRETO))
+                .containsEntry("sub", "usuario-1");
+    }
+
+    @Test
+    void sinJwtDescartaUnaIdentidadEnviadaPorElCliente() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health")
+                .header(IdentidadInternaFilter.ENCABEZADO, "falsa.identidad"));
+
+        HttpHeaders reenviados = filtrar(exchange).block();
+
+        assertThat(reenviados.containsKey(IdentidadInternaFilter.ENCABEZADO)).isFalse();
+    }
+
+    private Mono<HttpHeaders> filtrar(ServerWebExchange exchange) {
+        AtomicReference<HttpHeaders> reenviados = new AtomicReference<>();
+        return filtro.filter(exchange, mutado -> {
+            reenviados.set(mutado.getRequest().getHeaders());
+            return Mono.empty();
+        }).then(Mono.fromSupplier(reenviados::get));
+    }
+
+    private static Jwt jwt(Instant vencimiento) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("usuario-1")
+                .claim("email", "cliente@tpi.com")
+                .claim("preferred_username", "cliente")
+                .claim("realm_access", Map.of("roles", List.of("cliente")))
+                .claim("scope", "openid")
+                .issuedAt(vencimiento.minusSeconds(600))
+                .expiresAt(vencimiento)
+                .build();
+    }
+
+    // Misma verificación que IdentidadInternaFilter.verificar en solicitudes, flota y costos
+    private Map<String, Object> verificar(String identidad, String secreto) throws Exception {
+        int separador = identidad.indexOf('.');
+        if (separador <= 0 || separador != identidad.lastIndexOf('.')) {
+            throw new IllegalArgumentException("formato inválido");
+        }
+        String payload = identidad.substring(0, separador);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secreto.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] esperada = mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        if (!MessageDigest.isEqual(Base64.getUrlDecoder().decode(identidad.substring(separador + 1)), esperada)) {
+            throw new IllegalArgumentException("firma inválida");
+        }
+        return objectMapper.readValue(Base64.getUrlDecoder().decode(payload),
+                new TypeReference<Map<String, Object>>() { });
+    }
+}
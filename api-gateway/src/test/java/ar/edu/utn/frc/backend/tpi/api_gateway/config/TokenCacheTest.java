@@ -0,0 +1,115 @@
+package ar.edu.utn.frc.backend.tpi.api_gateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifica que un token repetido se verifique y convierta una sola vez, que un token rechazado
+ * (Mono.error) no quede guardado y que la entrada no sobreviva al exp del token.
+ */
+class TokenCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenCache tokenCache = new TokenCache(meterRegistry, 100, Duration.ofMinutes(10));
+    private final AtomicInteger decodificaciones = new AtomicInteger();
+    private final AtomicInteger conversiones = new AtomicInteger();
+
+    @Test
+    void reutilizaElJwtYLasAutoridadesDeUnTokenRepetido() {
+        Function<String, Mono<Jwt>> decoder = decoder(Instant.now().plusSeconds(300));
+
+        Jwt primero = tokenCache.decodificar("token-1", decoder).block();
+        for (int i = 0; i < 4; i++) {
+            Jwt jwt = tokenCache.decodificar("token-1", decoder).block();
+            assertThat(jwt).isSameAs(primero);
+            assertThat(tokenCache.autoridades(jwt, convertidor())).extracting(GrantedAuthority::getAuthority)
+                    .containsExactly("ROLE_TRANSPORTISTA");
+        }
+
+        assertThat(decodificaciones).hasValue(1);
+        assertThat(conversiones).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", TokenCache.NOMBRE_CACHE).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void laDecodificacionEsPerezosa() {
+        Mono<Jwt> pendiente = tokenCache.decodificar("token-2", decoder(Instant.now().plusSeconds(300)));
+
+        assertThat(decodificaciones).hasValue(0);
+        pendiente.block();
+        assertThat(decodificaciones).hasValue(1);
+    }
+
+    @Test
+    void noGuardaUnTokenRechazado() {
+        Function<String, Mono<Jwt>> rechazo = token -> Mono.defer(() -> {
+            decodificaciones.incrementAndGet();
+            return Mono.error(new BadJwtException("firma inválida"));
+        });
+
+        assertThatThrownBy(() -> tokenCache.decodificar("token-3", rechazo).block())
+                .isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> tokenCache.decodificar("token-3", rechazo).block())
+                .isInstanceOf(BadJwtException.class);
+
+        assertThat(decodificaciones).hasValue(2);
+    }
+
+    @Test
+    void unTokenVencidoSeVuelveADecodificar() {
+        Function<String, Mono<Jwt>> decoder = decoder(Instant.now().minusSeconds(1));
+
+        tokenCache.decodificar("token-4", decoder).block();
+        tokenCache.decodificar("token-4", decoder).block();
+
+        assertThat(decodificaciones).hasValue(2);
+    }
+
+    @Test
+    void unJwtQueNoSalioDelDecoderNoReutilizaAutoridades() {
+        Jwt jwt = tokenCache.decodificar("token-5", decoder(Instant.now().plusSeconds(300))).block();
+        Jwt otro = Jwt.withTokenValue("token-5").header("alg", "none").claims(c -> c.putAll(jwt.getClaims())).build();
+
+        tokenCache.autoridades(otro, convertidor());
+        tokenCache.autoridades(otro, convertidor());
+
+        assertThat(conversiones).hasValue(2);
+    }
+
+    private Function<String, Mono<Jwt>> decoder(Instant vencimiento) {
+        return token -> Mono.fromSupplier(() -> {
+            decodificaciones.incrementAndGet();
+            return Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .subject("transportista-1")
+                    .issuedAt(vencimiento.minusSeconds(600))
+                    .expiresAt(vencimiento)
+                    .build();
+        });
+    }
+
+    private Converter<Jwt, Collection<GrantedAuthority>> convertidor() {
+        return jwt -> {
+            conversiones.incrementAndGet();
+            return List.of(new SimpleGrantedAuthority("ROLE_TRANSPORTISTA"));
+        };
+    }
+}
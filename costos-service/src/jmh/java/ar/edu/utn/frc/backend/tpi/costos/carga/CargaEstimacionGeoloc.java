@@ -0,0 +1,198 @@
+package ar.edu.utn.frc.backend.tpi.costos.carga;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Prueba de carga de POST /api/tarifas/estimacion/geoloc sobre un costos-service ya levantado.
+ *
+ * Levanta además un stub de la Distance Matrix API que responde después de una latencia fija, para
+ * que cada request del servicio quede bloqueado en I/O HTTP como con Google. Cada cliente virtual
+ * envía requests en lazo cerrado con coordenadas aleatorias (para no acertar en el cache de
+ * distancias) y al final se informan throughput y percentiles de latencia.
+ *
+ * Para comparar hilos de plataforma contra virtuales se corre dos veces, con el servicio iniciado
+ * con HILOS_VIRTUALES=false y =true (ver README, sección Prueba de carga).
+ *
+ * Argumentos (--clave=valor): url, token (o variable CARGA_TOKEN), concurrencia, segundos,
+ * calentamiento, latencia-google-ms, puerto-google.
+ */
+public final class CargaEstimacionGeoloc {
+
+    private CargaEstimacionGeoloc() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = opciones(args);
+        String url = opciones.getOrDefault("url", "http://localhost:8083") + "/api/tarifas/estimacion/geoloc";
+        String token = opciones.getOrDefault("token", System.getenv("CARGA_TOKEN"));
+        int concurrencia = Integer.parseInt(opciones.getOrDefault("concurrencia", "200"));
+        int segundos = Integer.parseInt(opciones.getOrDefault("segundos", "30"));
+        int calentamiento = Integer.parseInt(opciones.getOrDefault("calentamiento", "5"));
+        int latenciaGoogleMs = Integer.parseInt(opciones.getOrDefault("latencia-google-ms", "200"));
+        int puertoGoogle = Integer.parseInt(opciones.getOrDefault("puerto-google", "9099"));
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Falta el token: --token=... o variable CARGA_TOKEN");
+        }
+
+        HttpServer stub = iniciarStubGoogle(puertoGoogle, latenciaGoogleMs);
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            System.out.printf("Calentamiento: %d s con %d clientes%n", calentamiento, concurrencia);
+            correr(cliente, url, token, concurrencia, calentamiento);
+
+            System.out.printf("Medición: %d s con %d clientes, latencia de Google %d ms%n",
+                    segundos, concurrencia, latenciaGoogleMs);
+            Resultado resultado = correr(cliente, url, token, concurrencia, segundos);
+            resultado.imprimir(segundos);
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private static Resultado correr(HttpClient cliente, String url, String token, int concurrencia, int segundos)
+            throws InterruptedException {
+        long fin = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+        AtomicLong errores = new AtomicLong();
+        List<List<Long>> latenciasPorCliente = new ArrayList<>(concurrencia);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrencia; i++) {
+                List<Long> latencias = new ArrayList<>();
+                latenciasPorCliente.add(latencias);
+                executor.submit(() -> {
+                    while (System.nanoTime() < fin) {
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = cliente.send(request(url, token),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() == 200) {
+                                latencias.add(System.nanoTime() - inicio);
+                            } else {
+                                errores.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errores.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+
+        long[] todas = latenciasPorCliente.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        Arrays.sort(todas);
+        return new Resultado(todas, errores.get());
+    }
+
+    private static HttpRequest request(String url, String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Coordenadas dentro de Argentina; el cache agrupa por 3 decimales, así casi todas son nuevas
+        String cuerpo = String.format(Locale.ROOT,
+                "{\"origenLat\":%.5f,\"origenLng\":%.5f,\"destinoLat\":%.5f,\"destinoLng\":%.5f,"
+                        + "\"costoBaseKmCamion\":1.0,\"consumoCamionLitrosKm\":0.3,"
+                        + "\"diasEstadia\":0,\"costoEstadiaDiaria\":0,\"proveedor\":\"google\"}",
+                random.nextDouble(-35, -24), random.nextDouble(-68, -58),
+                random.nextDouble(-35, -24), random.nextDouble(-68, -58));
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    // Responde una matriz con todos los elementos OK después de la latencia configurada
+    private static HttpServer iniciarStubGoogle(int puerto, int latenciaMs) throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress(puerto), 1024);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.createContext("/maps/api/distancematrix/json", intercambio -> {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            responderMatriz(intercambio);
+        });
+        servidor.start();
+        System.out.printf("Stub de Distance Matrix en http://localhost:%d (GOOGLE_MAPS_BASE_URL)%n", puerto);
+        return servidor;
+    }
+
+    private static void responderMatriz(HttpExchange intercambio) throws IOException {
+        Map<String, String> parametros = new HashMap<>();
+        for (String parametro : intercambio.getRequestURI().getRawQuery().split("&")) {
+            int igual = parametro.indexOf('=');
+            parametros.put(parametro.substring(0, igual), parametro.substring(igual + 1));
+        }
+        int origenes = parametros.getOrDefault("origins", "").split("\\|").length;
+        int destinos = parametros.getOrDefault("destinations", "").split("\\|").length;
+
+        String elemento = "{\"status\":\"OK\",\"distance\":{\"value\":250000},\"duration\":{\"value\":10800}}";
+        String fila = "{\"elements\":[" + String.join(",", Collections.nCopies(destinos, elemento)) + "]}";
+        byte[] cuerpo = ("{\"status\":\"OK\",\"rows\":["
+                + String.join(",", Collections.nCopies(origenes, fila)) + "]}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    private static Map<String, String> opciones(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (se espera --clave=valor): " + arg);
+            }
+            int igual = arg.indexOf('=');
+            opciones.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+        return opciones;
+    }
+
+    private record Resultado(long[] latenciasNanos, long errores) {
+
+        void imprimir(int segundos) {
+            System.out.printf("Requests OK: %d, errores: %d%n", latenciasNanos.length, errores);
+            System.out.printf("Throughput: %.1f req/s%n", latenciasNanos.length / (double) segundos);
+            if (latenciasNanos.length > 0) {
+                System.out.printf("Latencia p50: %.1f ms, p90: %.1f ms, p99: %.1f ms, máx: %.1f ms%n",
+                        percentil(0.50), percentil(0.90), percentil(0.99),
+                        latenciasNanos[latenciasNanos.length - 1] / 1e6);
+            }
+        }
+
+        private double percentil(double p) {
+            int indice = (int) Math.ceil(p * latenciasNanos.length) - 1;
+            return latenciasNanos[Math.max(0, indice)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoRequest;
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoResponse;
+import ar.edu.utn.frc.backend.tpi.costos.model.Tarifa;
+import ar.edu.utn.frc.backend.tpi.costos.repository.TarifaRepository;
+
+/**
+ * Estimación individual (TarifaService.estimar → calcularEstimacion) y estimación en lote,
+ * con las tarifas ya cargadas en el snapshot en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class EstimacionBenchmark {
+
+    private static final int TAMANIO_LOTE = 10_000;
+
+    private TarifaService tarifaService;
+    private EstimacionLoteService estimacionLoteService;
+    private EstimacionCostoRequest request;
+    private byte[] lote;
+
+    @Setup
+    public void setUp() throws IOException {
+        Tarifa tarifa = Tarifa.builder()
+                .id(1L).nombre("Estandar").costoBaseKm(120.0).valorCombustibleLitro(1100.0)
+                .costoEstadiaDiaria(5000.0).velocidadPromedioKmH(70.0).costoGestionFijo(15000.0)
+                .build();
+        TarifaRepository tarifaRepository = mock(TarifaRepository.class);
+        when(tarifaRepository.findAll(any(Sort.class))).thenReturn(List.of(tarifa));
+        TarifaCache tarifaCache = new TarifaCache(tarifaRepository);
+        tarifaCache.cargarAlIniciar();
+
+        tarifaService = new TarifaService(tarifaRepository, null, tarifaCache, null);
+        ObjectMapper objectMapper = new ObjectMapper();
+        estimacionLoteService = new EstimacionLoteService(tarifaService, objectMapper);
+        ReflectionTestUtils.setField(estimacionLoteService, "tamanioBloque", 4096);
+
+        request = new EstimacionCostoRequest();
+        request.setDistanciaKm(850.0);
+        request.setCostoBaseKmCamion(95.0);
+        request.setConsumoCamionLitrosKm(0.35);
+        request.setDiasEstadia(2.0);
+        request.setCostoEstadiaDiaria(5000.0);
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < TAMANIO_LOTE; i++) {
+            request.setDistanciaKm(100.0 + i % 1500);
+            ndjson.append(objectMapper.writeValueAsString(request)).append('\n');
+        }
+        request.setDistanciaKm(850.0);
+        lote = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public EstimacionCostoResponse estimar() {
+        return tarifaService.estimar(request);
+    }
+
+    // Resultado expresado en estimaciones por milisegundo
+    @Benchmark
+    @OperationsPerInvocation(TAMANIO_LOTE)
+    public void estimarLote() throws IOException {
+        estimacionLoteService.estimarLote(new ByteArrayInputStream(lote), OutputStream.nullOutputStream());
+    }
+}
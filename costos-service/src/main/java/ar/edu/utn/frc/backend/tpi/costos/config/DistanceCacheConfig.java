@@ -0,0 +1,38 @@
+package ar.edu.utn.frc.backend.tpi.costos.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ar.edu.utn.frc.backend.tpi.costos.service.ClaveDistancia;
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Cache en memoria de distancias (W-TinyLFU acotado por tamaño + TTL).
+// Las métricas quedan en /actuator/metrics/cache.gets, cache.puts, cache.evictions y cache.size (cache=distancias).
+@Configuration
+public class DistanceCacheConfig {
+
+    public static final String NOMBRE_CACHE = "distancias";
+
+    @Bean
+    public Cache<ClaveDistancia, DistanceResult> distanciasCache(
+            @Value("${costos.distancias.cache.tamanio-maximo:10000}") long tamanioMaximo,
+            @Value("${costos.distancias.cache.ttl:24h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        Cache<ClaveDistancia, DistanceResult> cache = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE_CACHE);
+        return cache;
+    }
+}
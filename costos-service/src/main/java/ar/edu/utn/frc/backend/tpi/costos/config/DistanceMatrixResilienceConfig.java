@@ -0,0 +1,63 @@
+package ar.edu.utn.frc.backend.tpi.costos.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Protección de las llamadas a la Distance Matrix API: el bulkhead limita las llamadas en vuelo
+// y el circuit breaker corta (y deriva al estimador offline) cuando Google falla o responde lento.
+// Métricas en resilience4j.circuitbreaker.* y resilience4j.bulkhead.* (name=distance-matrix).
+@Configuration
+public class DistanceMatrixResilienceConfig {
+
+    public static final String NOMBRE = "distance-matrix";
+
+    @Bean
+    public CircuitBreaker distanceMatrixCircuitBreaker(
+            @Value("${costos.distancias.google.circuit-breaker.umbral-fallas:50}") float umbralFallas,
+            @Value("${costos.distancias.google.circuit-breaker.umbral-llamada-lenta:3s}") Duration umbralLlamadaLenta,
+            @Value("${costos.distancias.google.circuit-breaker.ventana:20}") int ventana,
+            @Value("${costos.distancias.google.circuit-breaker.minimo-llamadas:10}") int minimoLlamadas,
+            @Value("${costos.distancias.google.circuit-breaker.espera-abierto:30s}") Duration esperaAbierto,
+            MeterRegistry meterRegistry) {
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(ventana)
+                .minimumNumberOfCalls(minimoLlamadas)
+                .failureRateThreshold(umbralFallas)
+                .slowCallDurationThreshold(umbralLlamadaLenta)
+                .slowCallRateThreshold(umbralFallas)
+                .waitDurationInOpenState(esperaAbierto)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(NOMBRE);
+    }
+
+    @Bean
+    public Bulkhead distanceMatrixBulkhead(
+            @Value("${costos.distancias.google.bulkhead.max-concurrentes:10}") int maxConcurrentes,
+            @Value("${costos.distancias.google.bulkhead.espera-maxima:0ms}") Duration esperaMaxima,
+            MeterRegistry meterRegistry) {
+
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentes)
+                .maxWaitDuration(esperaMaxima)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(NOMBRE);
+    }
+}
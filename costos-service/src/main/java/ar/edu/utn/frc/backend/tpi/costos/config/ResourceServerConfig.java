@@ -3,26 +3,48 @@ package ar.edu.utn.frc.backend.tpi.costos.config;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 // Config de seguridad para actuar como Resource Server con JWT emitidos por Keycloak.
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class ResourceServerConfig {
 
+    // Identidad firmada por el api-gateway en lugar del JWT (ver IdentidadInternaFilter)
+    @Value("${tpi.identidad-interna.habilitada:false}")
+    private boolean identidadInternaHabilitada;
+
+    @Value("${tpi.identidad-interna.secreto:}")
+    private String identidadInternaSecreto;
+
+    // Tokens ya verificados y sus autoridades (ver TokenCache)
+    private final TokenCache tokenCache;
+
+    public ResourceServerConfig(TokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
     // Cadena de filtros HTTP: deshabilita CSRF, expone health/info sin auth y exige JWT al resto.
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectMapper objectMapper, JwtDecoder jwtDecoder)
+            throws Exception {
         http
             // API stateless: sin CSRF y todo autenticado salvo health/info.
             .csrf(csrf -> csrf.disable())
@@ -30,8 +52,15 @@ public class ResourceServerConfig {
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                 .anyRequest().authenticated())
             .oauth2ResourceServer(oauth2 -> oauth2
-                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                .jwt(jwt -> jwt
+                    // El decoder que arma Spring Boot solo se usa para tokens que no están en la cache
+                    .decoder(token -> tokenCache.decodificar(token, jwtDecoder::decode))
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter())));
 
+        if (identidadInternaHabilitada) {
+            http.addFilterBefore(new IdentidadInternaFilter(identidadInternaSecreto, objectMapper,
+                    jwtAuthenticationConverter()), BearerTokenAuthenticationFilter.class);
+        }
         return http.build();
     }
 
@@ -43,7 +72,7 @@ public class ResourceServerConfig {
         JwtGrantedAuthoritiesConverter scopesConverter = new JwtGrantedAuthoritiesConverter();
 
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+        Converter<Jwt, Collection<GrantedAuthority>> autoridades = jwt -> {
             // Incluye scopes y roles del realm en el JWT emitido por Keycloak.
             Collection<GrantedAuthority> authorities = new ArrayList<>(scopesConverter.convert(jwt));
 
@@ -59,7 +88,8 @@ public class ResourceServerConfig {
                 }
             }
             return authorities;
-        });
+        };
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> tokenCache.autoridades(jwt, autoridades));
         return converter;
     }
 }
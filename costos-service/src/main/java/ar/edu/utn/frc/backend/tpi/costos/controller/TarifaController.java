@@ -1,8 +1,10 @@
 package ar.edu.utn.frc.backend.tpi.costos.controller;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,10 +15,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoGeoLoteRequest;
 import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoRequest;
 import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoResponse;
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionRutaResponse;
 import ar.edu.utn.frc.backend.tpi.costos.dto.TarifaDto;
+import ar.edu.utn.frc.backend.tpi.costos.service.EstimacionLoteService;
 import ar.edu.utn.frc.backend.tpi.costos.service.TarifaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,6 +36,7 @@ import lombok.RequiredArgsConstructor;
 public class TarifaController {
 
     private final TarifaService tarifaService;
+    private final EstimacionLoteService estimacionLoteService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -39,7 +46,7 @@ public class TarifaController {
     }
 
     @GetMapping
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SERVICIO')")
     @Operation(summary = "Listar tarifas", description = "Obtiene la lista de todas las tarifas")
     public ResponseEntity<List<TarifaDto>> listar() {
         return ResponseEntity.ok(tarifaService.listar());
@@ -74,6 +81,18 @@ public class TarifaController {
         return ResponseEntity.ok(tarifaService.estimar(request));
     }
 
+    @PostMapping(value = "/estimacion/lote",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE },
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('CLIENTE', 'ADMIN')")
+    @Operation(summary = "Estimar costos en lote", description = "Recibe un arreglo JSON o NDJSON de estimaciones, las calcula en paralelo y transmite los resultados en NDJSON en el mismo orden. Una estimación inválida produce una línea con su índice y el error, sin cortar el lote")
+    public ResponseEntity<StreamingResponseBody> estimarLote(InputStream entrada) {
+        StreamingResponseBody body = salida -> estimacionLoteService.estimarLote(entrada, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PostMapping("/estimacion/geoloc")
     @PreAuthorize("hasAnyRole('CLIENTE', 'ADMIN')")
     @Operation(summary = "Estimar con geolocalizacion", description = "Calcula costo y tiempo usando distancia desde coordenadas (Google Maps)")
@@ -81,4 +100,12 @@ public class TarifaController {
             @Valid @RequestBody ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoGeoRequest request) {
         return ResponseEntity.ok(tarifaService.estimarConGeolocalizacion(request));
     }
+
+    @PostMapping("/estimacion/geoloc/lote")
+    @PreAuthorize("hasAnyRole('CLIENTE', 'ADMIN')")
+    @Operation(summary = "Estimar ruta con geolocalizacion", description = "Calcula costo y tiempo de todos los tramos de una ruta resolviendo las distancias en lote (Google Maps)")
+    public ResponseEntity<EstimacionRutaResponse> estimarRutaConGeoloc(
+            @Valid @RequestBody EstimacionCostoGeoLoteRequest request) {
+        return ResponseEntity.ok(tarifaService.estimarRutaConGeolocalizacion(request));
+    }
 }
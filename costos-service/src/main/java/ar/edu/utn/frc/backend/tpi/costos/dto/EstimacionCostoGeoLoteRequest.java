@@ -0,0 +1,36 @@
+package ar.edu.utn.frc.backend.tpi.costos.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+// Estimación de una ruta completa: los tramos se resuelven juntos contra el proveedor de mapas.
+@Data
+public class EstimacionCostoGeoLoteRequest {
+
+    @NotEmpty
+    @Valid
+    private List<TramoGeoRequest> tramos;
+
+    @NotNull
+    private Double costoBaseKmCamion;
+
+    @NotNull
+    private Double consumoCamionLitrosKm;
+
+    // Estadía total de la ruta en depósitos
+    @NotNull
+    private Double diasEstadia;
+
+    @NotNull
+    private Double costoEstadiaDiaria;
+
+    // Opcional: id de la tarifa a aplicar; si es nulo se usa la tarifa por defecto (costos.tarifas.default-id).
+    private Long tarifaId;
+
+    // Opcional: proveedor de distancias ("google", "haversine"); si es nulo se usa el configurado.
+    private String proveedor;
+}
@@ -27,6 +27,9 @@ public class EstimacionCostoGeoRequest {
     @NotNull
     private Double costoEstadiaDiaria;
 
-    // Opcional: id de la tarifa a aplicar; si es nulo se usa la primera disponible.
+    // Opcional: id de la tarifa a aplicar; si es nulo se usa la tarifa por defecto (costos.tarifas.default-id).
     private Long tarifaId;
+
+    // Opcional: proveedor de distancias ("google", "haversine"); si es nulo se usa el configurado.
+    private String proveedor;
 }
@@ -1,26 +1,36 @@
 package ar.edu.utn.frc.backend.tpi.costos.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
 @Data
 public class EstimacionCostoRequest {
 
+    // Restricciones que solo aplica la estimación en lote; la individual (@Valid) valida el grupo Default
+    public interface Lote {
+    }
+
     @NotNull
+    @PositiveOrZero(groups = Lote.class)
     private Double distanciaKm;
 
     @NotNull
+    @PositiveOrZero(groups = Lote.class)
     private Double costoBaseKmCamion;
 
     @NotNull
+    @PositiveOrZero(groups = Lote.class)
     private Double consumoCamionLitrosKm;
 
     @NotNull
+    @PositiveOrZero(groups = Lote.class)
     private Double diasEstadia;
 
     @NotNull
+    @PositiveOrZero(groups = Lote.class)
     private Double costoEstadiaDiaria;
 
-    // Opcional: id de la tarifa a aplicar; si es nulo se usa la primera disponible.
+    // Opcional: id de la tarifa a aplicar; si es nulo se usa la tarifa por defecto (costos.tarifas.default-id).
     private Long tarifaId;
 }
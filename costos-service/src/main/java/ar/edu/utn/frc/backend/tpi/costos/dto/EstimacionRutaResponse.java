@@ -0,0 +1,17 @@
+package ar.edu.utn.frc.backend.tpi.costos.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EstimacionRutaResponse {
+
+    // Costo por tramo (kilometraje y combustible; sin estadía ni cargo de gestión)
+    private List<EstimacionCostoResponse> tramos;
+
+    // Estimación de la ruta completa, con estadía y cargo de gestión aplicados una sola vez
+    private EstimacionCostoResponse total;
+}
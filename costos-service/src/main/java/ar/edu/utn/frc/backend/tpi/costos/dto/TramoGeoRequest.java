@@ -0,0 +1,17 @@
+package ar.edu.utn.frc.backend.tpi.costos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TramoGeoRequest {
+
+    @NotNull
+    private Double origenLat;
+    @NotNull
+    private Double origenLng;
+    @NotNull
+    private Double destinoLat;
+    @NotNull
+    private Double destinoLng;
+}
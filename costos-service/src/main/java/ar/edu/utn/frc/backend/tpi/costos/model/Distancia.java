@@ -0,0 +1,60 @@
+package ar.edu.utn.frc.backend.tpi.costos.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Distancia obtenida del proveedor de mapas, persistida como segundo nivel de cache.
+// Las coordenadas se guardan como celdas de la grilla (coordenada * 10^precision, redondeada).
+@Entity
+@Table(name = "distancias", uniqueConstraints = @UniqueConstraint(name = "uk_distancias_celdas", columnNames = {
+        "precision_decimales", "origen_lat_celda", "origen_lng_celda", "destino_lat_celda", "destino_lng_celda" }))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Distancia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "precision_decimales", nullable = false)
+    private Integer precisionDecimales;
+
+    @Column(name = "origen_lat_celda", nullable = false)
+    private Long origenLatCelda;
+
+    @Column(name = "origen_lng_celda", nullable = false)
+    private Long origenLngCelda;
+
+    @Column(name = "destino_lat_celda", nullable = false)
+    private Long destinoLatCelda;
+
+    @Column(name = "destino_lng_celda", nullable = false)
+    private Long destinoLngCelda;
+
+    @Column(nullable = false)
+    private Double distanciaKm;
+
+    @Column(nullable = false)
+    private Double duracionHoras;
+
+    // Momento en que se consultó al proveedor
+    @Column(nullable = false)
+    private LocalDateTime fechaObtencion;
+
+    // Veces que se resolvió desde la tabla (usado para precargar los pares más consultados)
+    @Column(nullable = false)
+    private Long cantidadConsultas;
+}
@@ -0,0 +1,38 @@
+package ar.edu.utn.frc.backend.tpi.costos.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import ar.edu.utn.frc.backend.tpi.costos.model.Distancia;
+
+public interface DistanciaRepository extends JpaRepository<Distancia, Long> {
+
+    @Query("select d from Distancia d where d.precisionDecimales = :precision"
+            + " and d.origenLatCelda = :origenLat and d.origenLngCelda = :origenLng"
+            + " and d.destinoLatCelda = :destinoLat and d.destinoLngCelda = :destinoLng")
+    Optional<Distancia> buscarPorCeldas(@Param("precision") int precision,
+            @Param("origenLat") long origenLat, @Param("origenLng") long origenLng,
+            @Param("destinoLat") long destinoLat, @Param("destinoLng") long destinoLng);
+
+    @Transactional
+    @Modifying
+    @Query("update Distancia d set d.cantidadConsultas = d.cantidadConsultas + :cantidad"
+            + " where d.precisionDecimales = :precision"
+            + " and d.origenLatCelda = :origenLat and d.origenLngCelda = :origenLng"
+            + " and d.destinoLatCelda = :destinoLat and d.destinoLngCelda = :destinoLng")
+    int sumarConsultas(@Param("precision") int precision,
+            @Param("origenLat") long origenLat, @Param("origenLng") long origenLng,
+            @Param("destinoLat") long destinoLat, @Param("destinoLng") long destinoLng,
+            @Param("cantidad") long cantidad);
+
+    List<Distancia> findByPrecisionDecimalesAndFechaObtencionAfterOrderByCantidadConsultasDesc(
+            Integer precisionDecimales, LocalDateTime desde, Limit limit);
+}
@@ -0,0 +1,25 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+// Fórmulas de costo y tiempo sobre primitivos, compartidas por la estimación individual y la de lote.
+public final class CalculadoraCosto {
+
+    private CalculadoraCosto() {
+    }
+
+    public static double costoKilometraje(double distanciaKm, double costoBaseKmTarifa, double costoBaseKmCamion) {
+        return distanciaKm * (costoBaseKmTarifa + costoBaseKmCamion);
+    }
+
+    public static double costoCombustible(double distanciaKm, double consumoCamionLitrosKm, double valorCombustibleLitro) {
+        return distanciaKm * consumoCamionLitrosKm * valorCombustibleLitro;
+    }
+
+    public static double costoEstadia(double diasEstadia, double costoEstadiaDiaria) {
+        return diasEstadia * costoEstadiaDiaria;
+    }
+
+    // Sin velocidad configurada no se estima tiempo
+    public static double tiempoEstimadoHoras(double distanciaKm, double velocidadPromedioKmH) {
+        return velocidadPromedioKmH > 0 ? distanciaKm / velocidadPromedioKmH : 0.0;
+    }
+}
@@ -0,0 +1,16 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+// Clave de cache de distancias: coordenadas redondeadas a una grilla para que puntos
+// muy cercanos (ej. el mismo depósito geocodificado con distinta precisión) compartan entrada.
+public record ClaveDistancia(long origenLat, long origenLng, long destinoLat, long destinoLng) {
+
+    public static ClaveDistancia de(double origenLat, double origenLng, double destinoLat, double destinoLng,
+            int precisionDecimales) {
+        double factor = Math.pow(10, precisionDecimales);
+        return new ClaveDistancia(
+                Math.round(origenLat * factor),
+                Math.round(origenLng * factor),
+                Math.round(destinoLat * factor),
+                Math.round(destinoLng * factor));
+    }
+}
@@ -0,0 +1,23 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import java.util.List;
+
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+
+// Fuente de distancias y duraciones entre coordenadas. DistanceService elige el proveedor
+// por configuración (costos.distancias.proveedor) o por request, y aplica cache y fallback.
+public interface DistanceProvider {
+
+    // Nombre con el que se selecciona el proveedor (ej. "google", "haversine")
+    String getNombre();
+
+    // Devuelve un resultado por par, en el mismo orden. La velocidad promedio la usan los
+    // proveedores que no informan duración propia.
+    List<DistanceResult> calcular(List<ParCoordenadas> pares, double velocidadPromedioKmH);
+
+    // Solo se cachean (en memoria y en la tabla distancias) resultados de proveedores externos;
+    // las aproximaciones locales son más baratas de recalcular que de guardar.
+    default boolean isCacheable() {
+        return true;
+    }
+}
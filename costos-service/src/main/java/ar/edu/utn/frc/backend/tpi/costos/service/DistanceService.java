@@ -1,55 +1,215 @@
 package ar.edu.utn.frc.backend.tpi.costos.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
 
-import lombok.RequiredArgsConstructor;
+import ar.edu.utn.frc.backend.tpi.costos.model.Distancia;
 import lombok.extern.slf4j.Slf4j;
 
+// Punto de entrada para distancias: aplica cache en memoria, tabla persistente,
+// selección de proveedor y fallback al estimador local si el proveedor principal falla.
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DistanceService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, DistanceProvider> proveedores;
+    private final Cache<ClaveDistancia, DistanceResult> distanciasCache;
+    private final DistanciaPersistenteService distanciaPersistenteService;
+
+    @Value("${costos.distancias.cache.precision-decimales:3}")
+    private int precisionDecimales;
+
+    @Value("${costos.distancias.precarga.cantidad:1000}")
+    private int cantidadPrecarga;
 
-    @Value("${google.maps.api-key:}")
-    private String apiKey;
+    @Value("${costos.distancias.proveedor:" + GoogleMapsDistanceProvider.NOMBRE + "}")
+    private String proveedorPorDefecto;
+
+    // Proveedor usado si el principal falla; vacío desactiva el fallback
+    @Value("${costos.distancias.fallback:" + HaversineDistanceProvider.NOMBRE + "}")
+    private String proveedorFallback;
+
+    public DistanceService(List<DistanceProvider> proveedores,
+            Cache<ClaveDistancia, DistanceResult> distanciasCache,
+            DistanciaPersistenteService distanciaPersistenteService) {
+        this.proveedores = proveedores.stream()
+                .collect(Collectors.toMap(DistanceProvider::getNombre, Function.identity()));
+        this.distanciasCache = distanciasCache;
+        this.distanciaPersistenteService = distanciaPersistenteService;
+    }
 
     public DistanceResult calcularDistancia(Double origenLat, Double origenLng, Double destinoLat, Double destinoLng) {
-        if (apiKey == null || apiKey.isBlank()) {
-            throw new IllegalStateException("API key de Google Maps no configurada");
+        return calcularDistancia(origenLat, origenLng, destinoLat, destinoLng, null, 0.0);
+    }
+
+    // proveedor: nombre del proveedor a usar (null = configurado); velocidadPromedioKmH: la de la tarifa
+    public DistanceResult calcularDistancia(Double origenLat, Double origenLng, Double destinoLat, Double destinoLng,
+            String proveedor, double velocidadPromedioKmH) {
+        ParCoordenadas par = new ParCoordenadas(origenLat, origenLng, destinoLat, destinoLng);
+        DistanceProvider principal = resolverProveedor(proveedor);
+        try {
+            if (!principal.isCacheable()) {
+                return principal.calcular(List.of(par), velocidadPromedioKmH).get(0);
+            }
+            ClaveDistancia clave = ClaveDistancia.de(origenLat, origenLng, destinoLat, destinoLng, precisionDecimales);
+            distanciaPersistenteService.registrarConsulta(clave);
+            // Si la consulta falla no se guarda nada y la excepción llega al llamador
+            return distanciasCache.get(clave,
+                    k -> buscarPersistida(k).orElseGet(() -> {
+                        DistanceResult resultado = principal.calcular(List.of(par), velocidadPromedioKmH).get(0);
+                        persistir(k, resultado);
+                        return resultado;
+                    }));
+        } catch (RuntimeException e) {
+            return usarFallback(principal, e).calcular(List.of(par), velocidadPromedioKmH).get(0);
         }
-        String url = String.format(
-                "https://maps.googleapis.com/maps/api/distancematrix/json?origins=%f,%f&destinations=%f,%f&key=%s",
-                origenLat, origenLng, destinoLat, destinoLng, apiKey);
+    }
 
-        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-            throw new IllegalStateException("No se pudo obtener distancia de Google Maps");
+    public List<DistanceResult> calcularDistancias(List<ParCoordenadas> pares) {
+        return calcularDistancias(pares, null, 0.0);
+    }
+
+    // Calcula varias distancias resolviendo primero desde cache y enviando al proveedor solo
+    // los pares faltantes, en una sola invocación. Los resultados se devuelven en el mismo orden.
+    public List<DistanceResult> calcularDistancias(List<ParCoordenadas> pares, String proveedor,
+            double velocidadPromedioKmH) {
+        DistanceProvider principal = resolverProveedor(proveedor);
+        if (!principal.isCacheable()) {
+            return calcularConFallback(principal, pares, velocidadPromedioKmH);
         }
 
-        try {
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode row = root.path("rows").get(0);
-            JsonNode element = row.path("elements").get(0);
-            if (!"OK".equals(element.path("status").asText())) {
-                throw new IllegalStateException("Respuesta de Google Maps no OK: " + element.path("status").asText());
+        List<ClaveDistancia> claves = new ArrayList<>(pares.size());
+        Map<ClaveDistancia, DistanceResult> resueltos = new HashMap<>();
+        Map<ClaveDistancia, ParCoordenadas> pendientes = new LinkedHashMap<>();
+
+        for (ParCoordenadas par : pares) {
+            ClaveDistancia clave = ClaveDistancia.de(par.origenLat(), par.origenLng(),
+                    par.destinoLat(), par.destinoLng(), precisionDecimales);
+            claves.add(clave);
+            distanciaPersistenteService.registrarConsulta(clave);
+            if (resueltos.containsKey(clave) || pendientes.containsKey(clave)) {
+                continue;
+            }
+            DistanceResult resultado = distanciasCache.getIfPresent(clave);
+            if (resultado == null) {
+                resultado = buscarPersistida(clave).orElse(null);
+                if (resultado != null) {
+                    distanciasCache.put(clave, resultado);
+                }
             }
+            if (resultado != null) {
+                resueltos.put(clave, resultado);
+            } else {
+                pendientes.put(clave, par);
+            }
+        }
+
+        if (!pendientes.isEmpty()) {
+            List<ParCoordenadas> paresPendientes = new ArrayList<>(pendientes.values());
+            Iterator<ClaveDistancia> clavesPendientes = pendientes.keySet().iterator();
+            try {
+                for (DistanceResult resultado : principal.calcular(paresPendientes, velocidadPromedioKmH)) {
+                    ClaveDistancia clave = clavesPendientes.next();
+                    distanciasCache.put(clave, resultado);
+                    persistir(clave, resultado);
+                    resueltos.put(clave, resultado);
+                }
+            } catch (RuntimeException e) {
+                // Solo los pares faltantes van al fallback: los ya resueltos desde cache conservan la
+                // distancia real. Las aproximaciones del fallback no se cachean.
+                List<DistanceResult> aproximados = calcularConFallback(usarFallback(principal, e), paresPendientes,
+                        velocidadPromedioKmH);
+                clavesPendientes = pendientes.keySet().iterator();
+                for (DistanceResult resultado : aproximados) {
+                    resueltos.put(clavesPendientes.next(), resultado);
+                }
+            }
+        }
 
-            double distanciaMetros = element.path("distance").path("value").asDouble();
-            double duracionSegundos = element.path("duration").path("value").asDouble();
+        return claves.stream().map(resueltos::get).toList();
+    }
+
+    // Precarga en memoria los pares más consultados para no arrancar con la cache fría
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargarCache() {
+        if (cantidadPrecarga <= 0) {
+            return;
+        }
+        try {
+            List<Distancia> distancias = distanciaPersistenteService.obtenerMasConsultadas(cantidadPrecarga);
+            distancias.forEach(d -> distanciasCache.put(
+                    new ClaveDistancia(d.getOrigenLatCelda(), d.getOrigenLngCelda(),
+                            d.getDestinoLatCelda(), d.getDestinoLngCelda()),
+                    new DistanceResult(d.getDistanciaKm(), d.getDuracionHoras())));
+            log.info("Cache de distancias precargada con {} pares", distancias.size());
+        } catch (DataAccessException e) {
+            log.warn("No se pudo precargar la cache de distancias", e);
+        }
+    }
 
-            return new DistanceResult(distanciaMetros / 1000.0, duracionSegundos / 3600.0);
-        } catch (Exception e) {
-            log.error("Error parseando respuesta de Google Maps", e);
-            throw new IllegalStateException("Error parseando respuesta de Google Maps", e);
+    private DistanceProvider resolverProveedor(String nombre) {
+        String buscado = nombre == null || nombre.isBlank() ? proveedorPorDefecto : nombre.toLowerCase();
+        DistanceProvider proveedor = proveedores.get(buscado);
+        if (proveedor == null) {
+            throw new IllegalArgumentException("Proveedor de distancias desconocido: " + buscado
+                    + ". Disponibles: " + proveedores.keySet());
+        }
+        return proveedor;
+    }
+
+    private List<DistanceResult> calcularConFallback(DistanceProvider proveedor, List<ParCoordenadas> pares,
+            double velocidadPromedioKmH) {
+        try {
+            return proveedor.calcular(pares, velocidadPromedioKmH);
+        } catch (RuntimeException e) {
+            return usarFallback(proveedor, e).calcular(pares, velocidadPromedioKmH);
+        }
+    }
+
+    // Devuelve el proveedor de fallback o relanza el error si no hay uno distinto configurado
+    private DistanceProvider usarFallback(DistanceProvider fallido, RuntimeException error) {
+        DistanceProvider fallback = proveedorFallback == null || proveedorFallback.isBlank()
+                ? null
+                : proveedores.get(proveedorFallback);
+        if (fallback == null || fallback == fallido) {
+            throw error;
+        }
+        log.warn("Proveedor de distancias {} no disponible ({}), usando {}",
+                fallido.getNombre(), error.getMessage(), fallback.getNombre());
+        return fallback;
+    }
+
+    // La tabla es solo una optimización: si la base falla se sigue con el proveedor
+    private Optional<DistanceResult> buscarPersistida(ClaveDistancia clave) {
+        try {
+            return distanciaPersistenteService.buscar(clave);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo leer la distancia persistida", e);
+            return Optional.empty();
+        }
+    }
+
+    private void persistir(ClaveDistancia clave, DistanceResult resultado) {
+        try {
+            distanciaPersistenteService.guardar(clave, resultado);
+        } catch (DataAccessException e) {
+            // Incluye el caso de otra réplica que guardó el mismo par en paralelo
+            log.debug("No se pudo persistir la distancia: {}", e.getMessage());
         }
     }
 
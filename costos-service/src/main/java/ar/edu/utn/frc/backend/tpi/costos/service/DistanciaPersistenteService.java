@@ -0,0 +1,151 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ar.edu.utn.frc.backend.tpi.costos.model.Distancia;
+import ar.edu.utn.frc.backend.tpi.costos.repository.DistanciaRepository;
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Segundo nivel de cache de distancias: tabla "distancias" en costos_db.
+// Sobrevive reinicios y es compartida por todas las réplicas del servicio.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DistanciaPersistenteService {
+
+    private final DistanciaRepository distanciaRepository;
+
+    @Value("${costos.distancias.cache.precision-decimales:3}")
+    private int precisionDecimales;
+
+    // Pasado este tiempo la distancia guardada se ignora y se vuelve a consultar al proveedor
+    @Value("${costos.distancias.persistencia.ttl:30d}")
+    private Duration ttl;
+
+    // Consultas por par todavía no volcadas a la tabla. merge y remove son atómicos por clave,
+    // así que una consulta registrada durante el volcado queda para el siguiente.
+    private final Map<ClaveDistancia, Long> consultasPendientes = new ConcurrentHashMap<>();
+
+    // Tope de pares pendientes al reponer los que aún no tienen fila, para no crecer sin límite
+    static final int MAX_PENDIENTES = 10_000;
+
+    @Transactional(readOnly = true)
+    public Optional<DistanceResult> buscar(ClaveDistancia clave) {
+        return buscarEntidad(clave)
+                .filter(d -> d.getFechaObtencion().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(d -> new DistanceResult(d.getDistanciaKm(), d.getDuracionHoras()));
+    }
+
+    // Cuenta una consulta del par, la resuelva la cache en memoria, la tabla o el proveedor.
+    // Solo suma en memoria: el ranking de la precarga se actualiza en volcarConsultas.
+    public void registrarConsulta(ClaveDistancia clave) {
+        consultasPendientes.merge(clave, 1L, Long::sum);
+    }
+
+    // Un UPDATE por par consultado desde el último volcado, en lugar de uno por lectura.
+    // Si la transacción no confirma, las cantidades tomadas vuelven a pendientes para el próximo volcado.
+    @Scheduled(fixedDelayString = "${costos.distancias.persistencia.volcado-consultas:1m}",
+            initialDelayString = "${costos.distancias.persistencia.volcado-consultas:1m}")
+    @Transactional
+    public void volcarConsultas() {
+        Map<ClaveDistancia, Long> tomadas = new HashMap<>();
+        boolean enTransaccion = TransactionSynchronizationManager.isSynchronizationActive();
+        if (enTransaccion) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    if (estado != STATUS_COMMITTED) {
+                        tomadas.forEach(DistanciaPersistenteService.this::reponer);
+                    }
+                }
+            });
+        }
+        try {
+            for (ClaveDistancia clave : List.copyOf(consultasPendientes.keySet())) {
+                Long cantidad = consultasPendientes.remove(clave);
+                if (cantidad == null) {
+                    continue;
+                }
+                tomadas.put(clave, cantidad);
+                int filas = distanciaRepository.sumarConsultas(precisionDecimales,
+                        clave.origenLat(), clave.origenLng(), clave.destinoLat(), clave.destinoLng(), cantidad);
+                if (filas == 0 || !enTransaccion) {
+                    // Sin transacción el UPDATE ya confirmó por su cuenta y no hay nada que reponer
+                    tomadas.remove(clave);
+                }
+                if (filas == 0 && consultasPendientes.size() < MAX_PENDIENTES) {
+                    // El par todavía no está en la tabla (p. ej. su guardar aún no confirmó): se reintenta
+                    reponer(clave, cantidad);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Sin transacción solo queda tomado el par cuyo UPDATE falló
+            if (!enTransaccion) {
+                tomadas.forEach(this::reponer);
+            }
+            throw e;
+        }
+    }
+
+    private void reponer(ClaveDistancia clave, Long cantidad) {
+        consultasPendientes.merge(clave, cantidad, Long::sum);
+    }
+
+    // Al apagar se vuelcan las consultas pendientes para no perder el ranking del último intervalo
+    @PreDestroy
+    public void volcarAlDetener() {
+        try {
+            volcarConsultas();
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron volcar las consultas de distancias pendientes", e);
+        }
+    }
+
+    // Inserta o refresca la distancia. Si otra réplica la insertó en paralelo, la restricción
+    // única hace fallar el insert (DataIntegrityViolationException) y el llamador puede ignorarlo.
+    @Transactional
+    public void guardar(ClaveDistancia clave, DistanceResult resultado) {
+        Distancia distancia = buscarEntidad(clave)
+                .orElseGet(() -> Distancia.builder()
+                        .precisionDecimales(precisionDecimales)
+                        .origenLatCelda(clave.origenLat())
+                        .origenLngCelda(clave.origenLng())
+                        .destinoLatCelda(clave.destinoLat())
+                        .destinoLngCelda(clave.destinoLng())
+                        .cantidadConsultas(0L)
+                        .build());
+        distancia.setDistanciaKm(resultado.distanciaKm());
+        distancia.setDuracionHoras(resultado.duracionHoras());
+        distancia.setFechaObtencion(LocalDateTime.now());
+        distanciaRepository.save(distancia);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Distancia> obtenerMasConsultadas(int cantidad) {
+        return distanciaRepository.findByPrecisionDecimalesAndFechaObtencionAfterOrderByCantidadConsultasDesc(
+                precisionDecimales, LocalDateTime.now().minus(ttl), Limit.of(cantidad));
+    }
+
+    private Optional<Distancia> buscarEntidad(ClaveDistancia clave) {
+        return distanciaRepository.buscarPorCeldas(precisionDecimales,
+                clave.origenLat(), clave.origenLng(), clave.destinoLat(), clave.destinoLng());
+    }
+}
@@ -0,0 +1,213 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoRequest;
+import ar.edu.utn.frc.backend.tpi.costos.model.Tarifa;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Estimación masiva para escenarios de precios: lee las solicitudes de a bloques desde un arreglo JSON
+// o NDJSON, resuelve cada tarifa una sola vez, evalúa el bloque en paralelo sobre arreglos de primitivos
+// y escribe los resultados en NDJSON en el mismo orden de entrada. Como la respuesta ya empezó a
+// transmitirse, una estimación inválida no corta el lote: su línea lleva el índice y el error.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EstimacionLoteService {
+
+    private final TarifaService tarifaService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${costos.estimacion.lote.tamanio-bloque:4096}")
+    private int tamanioBloque;
+
+    public void estimarLote(InputStream entrada, OutputStream salida) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(EstimacionCostoRequest.class);
+        Bloque bloque = new Bloque(Math.max(tamanioBloque, 1));
+        // Tarifas del lote por id (null = tarifa por defecto)
+        Map<Long, Tarifa> tarifas = new HashMap<>();
+        long procesadas = 0;
+
+        // readValues acepta tanto un arreglo JSON como valores sueltos separados por línea (NDJSON)
+        try (MappingIterator<EstimacionCostoRequest> solicitudes = reader.readValues(entrada);
+                JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            while (true) {
+                EstimacionCostoRequest solicitud;
+                try {
+                    if (!solicitudes.hasNextValue()) {
+                        break;
+                    }
+                    solicitud = solicitudes.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Tras un error de formato no se puede ubicar con certeza la estimación siguiente: se corta acá
+                    bloque.agregarError("Formato inválido: " + e.getOriginalMessage());
+                    procesadas += procesar(bloque, generador);
+                    break;
+                }
+
+                String error = validar(solicitud);
+                if (error == null) {
+                    try {
+                        bloque.agregar(solicitud,
+                                tarifas.computeIfAbsent(solicitud.getTarifaId(), tarifaService::obtenerTarifa));
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        // Tarifa inexistente o ninguna configurada: solo falla esta línea
+                        error = e.getMessage();
+                    }
+                }
+                if (error != null) {
+                    bloque.agregarError(error);
+                }
+
+                if (bloque.cantidad == bloque.capacidad) {
+                    procesadas += procesar(bloque, generador);
+                }
+            }
+            procesadas += procesar(bloque, generador);
+        }
+        log.info("Estimación en lote finalizada: {} estimaciones, {} tarifas", procesadas, tarifas.size());
+    }
+
+    private int procesar(Bloque bloque, JsonGenerator generador) throws IOException {
+        int cantidad = bloque.cantidad;
+        if (cantidad == 0) {
+            return 0;
+        }
+        IntStream.range(0, cantidad).parallel().forEach(bloque::evaluar);
+        for (int i = 0; i < cantidad; i++) {
+            escribir(bloque, i, generador);
+        }
+        generador.flush();
+        bloque.inicio += cantidad;
+        bloque.cantidad = 0;
+        return cantidad;
+    }
+
+    private void escribir(Bloque bloque, int i, JsonGenerator generador) throws IOException {
+        generador.writeStartObject();
+        if (bloque.errores[i] != null) {
+            generador.writeNumberField("indice", bloque.inicio + i);
+            generador.writeStringField("error", bloque.errores[i]);
+            generador.writeEndObject();
+            generador.writeRaw('\n');
+            return;
+        }
+        generador.writeNumberField("distanciaKm", bloque.distanciaKm[i]);
+        generador.writeNumberField("costoKilometraje", bloque.costoKilometraje[i]);
+        generador.writeNumberField("costoCombustible", bloque.costoCombustible[i]);
+        generador.writeNumberField("costoEstadia", bloque.costoEstadia[i]);
+        generador.writeNumberField("costoTotal", bloque.costoTotal[i]);
+        generador.writeNumberField("tiempoEstimadoHoras", bloque.tiempoEstimadoHoras[i]);
+        generador.writeEndObject();
+        generador.writeRaw('\n');
+    }
+
+    // Restricciones de la estimación individual (@Valid en TarifaController) más las del grupo Lote
+    private String validar(EstimacionCostoRequest solicitud) {
+        if (solicitud == null) {
+            return "Estimación vacía";
+        }
+        Set<ConstraintViolation<EstimacionCostoRequest>> violaciones = validator.validate(solicitud, Default.class,
+                EstimacionCostoRequest.Lote.class);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Entradas y resultados de un bloque en arreglos paralelos; se reutiliza durante todo el lote
+    private static final class Bloque {
+
+        private final int capacidad;
+        private int cantidad;
+        private long inicio; // índice en el lote de la primera estimación del bloque
+
+        private final double[] distanciaKm;
+        private final double[] costoBaseKmCamion;
+        private final double[] consumoCamionLitrosKm;
+        private final double[] diasEstadia;
+        private final double[] costoEstadiaDiaria;
+        private final Tarifa[] tarifas;
+        private final String[] errores; // null si la estimación es válida
+
+        private final double[] costoKilometraje;
+        private final double[] costoCombustible;
+        private final double[] costoEstadia;
+        private final double[] costoTotal;
+        private final double[] tiempoEstimadoHoras;
+
+        private Bloque(int capacidad) {
+            this.capacidad = capacidad;
+            this.distanciaKm = new double[capacidad];
+            this.costoBaseKmCamion = new double[capacidad];
+            this.consumoCamionLitrosKm = new double[capacidad];
+            this.diasEstadia = new double[capacidad];
+            this.costoEstadiaDiaria = new double[capacidad];
+            this.tarifas = new Tarifa[capacidad];
+            this.errores = new String[capacidad];
+            this.costoKilometraje = new double[capacidad];
+            this.costoCombustible = new double[capacidad];
+            this.costoEstadia = new double[capacidad];
+            this.costoTotal = new double[capacidad];
+            this.tiempoEstimadoHoras = new double[capacidad];
+        }
+
+        private void agregar(EstimacionCostoRequest solicitud, Tarifa tarifa) {
+            distanciaKm[cantidad] = solicitud.getDistanciaKm();
+            costoBaseKmCamion[cantidad] = solicitud.getCostoBaseKmCamion();
+            consumoCamionLitrosKm[cantidad] = solicitud.getConsumoCamionLitrosKm();
+            diasEstadia[cantidad] = solicitud.getDiasEstadia();
+            costoEstadiaDiaria[cantidad] = solicitud.getCostoEstadiaDiaria();
+            tarifas[cantidad] = tarifa;
+            errores[cantidad] = null;
+            cantidad++;
+        }
+
+        private void agregarError(String error) {
+            tarifas[cantidad] = null;
+            errores[cantidad] = error;
+            cantidad++;
+        }
+
+        // Cada índice escribe solo su posición, por lo que los hilos no comparten estado mutable
+        private void evaluar(int i) {
+            if (errores[i] != null) {
+                return;
+            }
+            Tarifa tarifa = tarifas[i];
+            double distancia = distanciaKm[i];
+            costoKilometraje[i] = CalculadoraCosto.costoKilometraje(distancia, tarifa.getCostoBaseKm(),
+                    costoBaseKmCamion[i]);
+            costoCombustible[i] = CalculadoraCosto.costoCombustible(distancia, consumoCamionLitrosKm[i],
+                    tarifa.getValorCombustibleLitro());
+            costoEstadia[i] = CalculadoraCosto.costoEstadia(diasEstadia[i], costoEstadiaDiaria[i]);
+            costoTotal[i] = costoKilometraje[i] + costoCombustible[i] + costoEstadia[i] + tarifa.getCostoGestionFijo();
+            tiempoEstimadoHoras[i] = CalculadoraCosto.tiempoEstimadoHoras(distancia,
+                    TarifaService.velocidadPromedio(tarifa));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Distancias por ruta real usando la Distance Matrix API de Google Maps.
+// Cada llamada pasa por el bulkhead y el circuit breaker; si rechazan o la llamada falla, la
+// excepción llega a DistanceService, que deriva al proveedor de fallback.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GoogleMapsDistanceProvider implements DistanceProvider {
+
+    public static final String NOMBRE = "google";
+
+    // Límites de la Distance Matrix API por request
+    private static final int MAX_ORIGENES_POR_REQUEST = 25;
+    private static final int MAX_DESTINOS_POR_REQUEST = 25;
+    private static final int MAX_ELEMENTOS_POR_REQUEST = 100;
+
+    // Google factura cada elemento de la matriz (origenes x destinos), no solo los pares pedidos.
+    // Un lote admite un par nuevo mientras los elementos no superen este múltiplo de sus pares:
+    // los pares con origen o destino común llenan filas o columnas sin desperdicio, y una ruta
+    // encadenada (destino de un tramo = origen del siguiente) no crece como N x N.
+    static final int MAX_ELEMENTOS_POR_PAR = 2;
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker distanceMatrixCircuitBreaker;
+    private final Bulkhead distanceMatrixBulkhead;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${google.maps.api-key:}")
+    private String apiKey;
+
+    @Value("${google.maps.base-url:https://maps.googleapis.com}")
+    private String baseUrl;
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    // Agrupa los pares en pocas llamadas dentro de los límites de la API y de elementos facturados
+    @Override
+    public List<DistanceResult> calcular(List<ParCoordenadas> pares, double velocidadPromedioKmH) {
+        List<DistanceResult> resultados = new ArrayList<>(pares.size());
+        for (LoteMatriz lote : agruparEnLotes(pares)) {
+            resultados.addAll(Bulkhead.decorateSupplier(distanceMatrixBulkhead,
+                    CircuitBreaker.decorateSupplier(distanceMatrixCircuitBreaker, () -> consultarMatriz(lote)))
+                    .get());
+        }
+        return resultados;
+    }
+
+    // Resuelve el lote con una sola llamada; devuelve los resultados en el orden de lote.pares
+    private List<DistanceResult> consultarMatriz(LoteMatriz lote) {
+        log.debug("Consultando Google Maps: {} pares ({} origenes x {} destinos)",
+                lote.pares.size(), lote.origenes.size(), lote.destinos.size());
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("API key de Google Maps no configurada");
+        }
+        String url = baseUrl + "/maps/api/distancematrix/json?origins="
+                + String.join("|", lote.origenes.keySet())
+                + "&destinations=" + String.join("|", lote.destinos.keySet())
+                + "&key=" + apiKey;
+
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new IllegalStateException("No se pudo obtener distancia de Google Maps");
+        }
+
+        JsonNode rows;
+        try {
+            rows = objectMapper.readTree(response.getBody()).path("rows");
+        } catch (Exception e) {
+            log.error("Error parseando respuesta de Google Maps", e);
+            throw new IllegalStateException("Error parseando respuesta de Google Maps", e);
+        }
+
+        List<DistanceResult> resultados = new ArrayList<>(lote.pares.size());
+        for (ParCoordenadas par : lote.pares) {
+            int fila = lote.origenes.get(coordenada(par.origenLat(), par.origenLng()));
+            int columna = lote.destinos.get(coordenada(par.destinoLat(), par.destinoLng()));
+            JsonNode element = rows.path(fila).path("elements").path(columna);
+            if (!"OK".equals(element.path("status").asText())) {
+                throw new IllegalStateException("Respuesta de Google Maps no OK: " + element.path("status").asText());
+            }
+
+            double distanciaMetros = element.path("distance").path("value").asDouble();
+            double duracionSegundos = element.path("duration").path("value").asDouble();
+            resultados.add(new DistanceResult(distanciaMetros / 1000.0, duracionSegundos / 3600.0));
+        }
+        return resultados;
+    }
+
+    // Agrupa pares consecutivos en lotes que respetan los límites de la API y acotan los elementos
+    // facturados; como cada lote es un tramo contiguo de la entrada, el orden se conserva
+    List<LoteMatriz> agruparEnLotes(Collection<ParCoordenadas> pares) {
+        List<LoteMatriz> lotes = new ArrayList<>();
+        LoteMatriz actual = new LoteMatriz();
+        for (ParCoordenadas par : pares) {
+            if (!actual.admite(par)) {
+                lotes.add(actual);
+                actual = new LoteMatriz();
+            }
+            actual.agregar(par);
+        }
+        if (!actual.pares.isEmpty()) {
+            lotes.add(actual);
+        }
+        return lotes;
+    }
+
+    // Formato fijo con punto decimal, independiente del Locale del servidor
+    private static String coordenada(double lat, double lng) {
+        return String.format(Locale.ROOT, "%.6f,%.6f", lat, lng);
+    }
+
+    // Origenes y destinos distintos de un request a la Distance Matrix API, con su índice en la matriz
+    static final class LoteMatriz {
+        private final Map<String, Integer> origenes = new LinkedHashMap<>();
+        private final Map<String, Integer> destinos = new LinkedHashMap<>();
+        private final List<ParCoordenadas> pares = new ArrayList<>();
+
+        boolean admite(ParCoordenadas par) {
+            int cantidadOrigenes = origenes.size()
+                    + (origenes.containsKey(coordenada(par.origenLat(), par.origenLng())) ? 0 : 1);
+            int cantidadDestinos = destinos.size()
+                    + (destinos.containsKey(coordenada(par.destinoLat(), par.destinoLng())) ? 0 : 1);
+            int elementos = cantidadOrigenes * cantidadDestinos;
+            return cantidadOrigenes <= MAX_ORIGENES_POR_REQUEST
+                    && cantidadDestinos <= MAX_DESTINOS_POR_REQUEST
+                    && elementos <= MAX_ELEMENTOS_POR_REQUEST
+                    && elementos <= MAX_ELEMENTOS_POR_PAR * (pares.size() + 1);
+        }
+
+        // Elementos que factura la llamada de este lote
+        int elementos() {
+            return origenes.size() * destinos.size();
+        }
+
+        void agregar(ParCoordenadas par) {
+            origenes.putIfAbsent(coordenada(par.origenLat(), par.origenLng()), origenes.size());
+            destinos.putIfAbsent(coordenada(par.destinoLat(), par.destinoLng()), destinos.size());
+            pares.add(par);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+
+// Estimador local sin red: distancia de círculo máximo (haversine) multiplicada por un factor
+// de desvío por ruta, y duración según la velocidad promedio de la tarifa.
+// Se usa como fallback cuando el proveedor externo falla, o como principal en dev/test.
+@Component
+public class HaversineDistanceProvider implements DistanceProvider {
+
+    public static final String NOMBRE = "haversine";
+
+    private static final double RADIO_TIERRA_KM = 6371.0088;
+
+    // Relación típica entre distancia por ruta y distancia en línea recta
+    @Value("${costos.distancias.offline.factor-ruta:1.3}")
+    private double factorRuta;
+
+    // Se usa si la tarifa no tiene velocidad promedio válida
+    @Value("${costos.distancias.offline.velocidad-default-kmh:60}")
+    private double velocidadDefaultKmH;
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    @Override
+    public List<DistanceResult> calcular(List<ParCoordenadas> pares, double velocidadPromedioKmH) {
+        double velocidad = velocidadPromedioKmH > 0 ? velocidadPromedioKmH : velocidadDefaultKmH;
+        List<DistanceResult> resultados = new ArrayList<>(pares.size());
+        for (ParCoordenadas par : pares) {
+            double km = distanciaRutaKm(par.origenLat(), par.origenLng(), par.destinoLat(), par.destinoLng());
+            resultados.add(new DistanceResult(km, km / velocidad));
+        }
+        return resultados;
+    }
+
+    public double distanciaRutaKm(double origenLat, double origenLng, double destinoLat, double destinoLng) {
+        return distanciaKm(origenLat, origenLng, destinoLat, destinoLng) * factorRuta;
+    }
+
+    // Distancia en línea recta sobre la esfera terrestre; solo aritmética sobre primitivos
+    public static double distanciaKm(double origenLat, double origenLng, double destinoLat, double destinoLng) {
+        double lat1 = Math.toRadians(origenLat);
+        double lat2 = Math.toRadians(destinoLat);
+        double sinDLat = Math.sin((lat2 - lat1) / 2);
+        double sinDLng = Math.sin(Math.toRadians(destinoLng - origenLng) / 2);
+        double a = sinDLat * sinDLat + Math.cos(lat1) * Math.cos(lat2) * sinDLng * sinDLng;
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,5 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+// Par origen/destino para calcular distancias en lote
+public record ParCoordenadas(double origenLat, double origenLng, double destinoLat, double destinoLng) {
+}
@@ -0,0 +1,142 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.utn.frc.backend.tpi.costos.model.Tarifa;
+import ar.edu.utn.frc.backend.tpi.costos.repository.TarifaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Copia inmutable de todas las tarifas en memoria. Las estimaciones leen el snapshot vigente sin tocar
+// la base; cada alta, modificación o baja arma uno nuevo y lo reemplaza de forma atómica.
+// El refresco periódico recoge los cambios hechos por otras réplicas.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TarifaCache {
+
+    private final TarifaRepository tarifaRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    // Tarifa aplicada cuando la estimación no indica una; vacío = la de menor id
+    @Value("${costos.tarifas.default-id:}")
+    private Long tarifaDefaultId;
+
+    // Evento publicado por TarifaService; el snapshot se recarga recién cuando la transacción confirma
+    public record TarifasModificadasEvent() {
+    }
+
+    // Ids consultados que no existen; tope para que ids arbitrarios no hagan crecer el snapshot sin límite
+    static final int MAX_INEXISTENTES = 10_000;
+
+    // inexistentes: ids ya confirmados como ausentes en la base; se descartan con el snapshot en la
+    // próxima recarga, así una tarifa creada por otra réplica aparece a más tardar en el refresco
+    private record Snapshot(Map<Long, Tarifa> porId, Tarifa porDefecto, Set<Long> inexistentes) {
+    }
+
+    public Tarifa obtener(Long tarifaId) {
+        Snapshot actual = snapshotActual();
+        if (tarifaId == null) {
+            if (actual.porDefecto() == null) {
+                throw new IllegalStateException("No hay tarifas configuradas");
+            }
+            return actual.porDefecto();
+        }
+        Tarifa tarifa = actual.porId().get(tarifaId);
+        if (tarifa != null) {
+            return tarifa;
+        }
+        // Puede haberla creado otra réplica después del último refresco
+        if (!actual.inexistentes().contains(tarifaId)) {
+            if (tarifaRepository.existsById(tarifaId)) {
+                tarifa = recargar().porId().get(tarifaId);
+            } else if (actual.inexistentes().size() < MAX_INEXISTENTES) {
+                actual.inexistentes().add(tarifaId);
+            }
+        }
+        return Optional.ofNullable(tarifa)
+                .orElseThrow(() -> new IllegalArgumentException("Tarifa no encontrada con id " + tarifaId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            recargar();
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron cargar las tarifas al iniciar; se reintentará en la primera estimación", e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTarifasModificadas(TarifasModificadasEvent evento) {
+        recargar();
+    }
+
+    @Scheduled(fixedDelayString = "${costos.tarifas.refresco:5m}", initialDelayString = "${costos.tarifas.refresco:5m}")
+    public void refrescar() {
+        try {
+            recargar();
+        } catch (DataAccessException e) {
+            log.warn("No se pudo refrescar el snapshot de tarifas; se mantiene el anterior", e);
+        }
+    }
+
+    private Snapshot snapshotActual() {
+        Snapshot actual = snapshot.get();
+        return actual != null ? actual : recargar();
+    }
+
+    // Sincronizado: la lectura y la publicación van juntas, así un refresco programado que leyó antes
+    // de un commit no puede pisar el snapshot que armó la recarga posterior a ese commit
+    private synchronized Snapshot recargar() {
+        List<Tarifa> tarifas = tarifaRepository.findAll(Sort.by("id"));
+        Map<Long, Tarifa> porId = new LinkedHashMap<>();
+        // Copias desacopladas del contexto de persistencia
+        tarifas.forEach(t -> porId.put(t.getId(), copiar(t)));
+
+        Tarifa porDefecto = null;
+        if (tarifaDefaultId != null) {
+            porDefecto = porId.get(tarifaDefaultId);
+            if (porDefecto == null) {
+                log.warn("La tarifa por defecto {} no existe; se usa la de menor id", tarifaDefaultId);
+            }
+        }
+        if (porDefecto == null && !porId.isEmpty()) {
+            porDefecto = porId.values().iterator().next();
+        }
+
+        Snapshot nuevo = new Snapshot(Map.copyOf(porId), porDefecto, ConcurrentHashMap.newKeySet());
+        snapshot.set(nuevo);
+        log.debug("Snapshot de tarifas recargado: {} tarifas, por defecto {}", porId.size(),
+                porDefecto != null ? porDefecto.getId() : null);
+        return nuevo;
+    }
+
+    private static Tarifa copiar(Tarifa tarifa) {
+        return Tarifa.builder()
+                .id(tarifa.getId())
+                .nombre(tarifa.getNombre())
+                .costoBaseKm(tarifa.getCostoBaseKm())
+                .valorCombustibleLitro(tarifa.getValorCombustibleLitro())
+                .costoEstadiaDiaria(tarifa.getCostoEstadiaDiaria())
+                .velocidadPromedioKmH(tarifa.getVelocidadPromedioKmH())
+                .costoGestionFijo(tarifa.getCostoGestionFijo())
+                .build();
+    }
+}
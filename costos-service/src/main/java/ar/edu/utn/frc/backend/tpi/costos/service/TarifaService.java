@@ -1,13 +1,17 @@
 package ar.edu.utn.frc.backend.tpi.costos.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoGeoLoteRequest;
 import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoGeoRequest;
 import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoRequest;
 import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoResponse;
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionRutaResponse;
 import ar.edu.utn.frc.backend.tpi.costos.dto.TarifaDto;
 import ar.edu.utn.frc.backend.tpi.costos.mapper.TarifaMapper;
 import ar.edu.utn.frc.backend.tpi.costos.model.Tarifa;
@@ -20,11 +24,15 @@ public class TarifaService {
 
     private final TarifaRepository tarifaRepository;
     private final DistanceService distanceService;
+    private final TarifaCache tarifaCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TarifaDto crear(TarifaDto dto) {
         Tarifa tarifa = TarifaMapper.toEntity(dto);
-        return TarifaMapper.toDto(tarifaRepository.save(tarifa));
+        TarifaDto creada = TarifaMapper.toDto(tarifaRepository.save(tarifa));
+        eventPublisher.publishEvent(new TarifaCache.TarifasModificadasEvent());
+        return creada;
     }
 
     @Transactional(readOnly = true)
@@ -52,55 +60,98 @@ public class TarifaService {
         tarifa.setCostoEstadiaDiaria(dto.getCostoEstadiaDiaria());
         tarifa.setVelocidadPromedioKmH(dto.getVelocidadPromedioKmH());
 
-        return TarifaMapper.toDto(tarifaRepository.save(tarifa));
+        TarifaDto actualizada = TarifaMapper.toDto(tarifaRepository.save(tarifa));
+        eventPublisher.publishEvent(new TarifaCache.TarifasModificadasEvent());
+        return actualizada;
     }
 
     @Transactional
     public void eliminar(Long id) {
         tarifaRepository.deleteById(id);
+        eventPublisher.publishEvent(new TarifaCache.TarifasModificadasEvent());
     }
 
-    @Transactional(readOnly = true)
+    // Sin transacción: la tarifa sale del snapshot en memoria y no se consulta la base
     public EstimacionCostoResponse estimar(EstimacionCostoRequest request) {
         Tarifa tarifa = obtenerTarifa(request.getTarifaId());
         return calcularEstimacion(request.getDistanciaKm(), request.getCostoBaseKmCamion(),
                 request.getConsumoCamionLitrosKm(), request.getDiasEstadia(), request.getCostoEstadiaDiaria(), tarifa);
     }
 
-    @Transactional(readOnly = true)
+    // Sin transacción: no se retiene una conexión de la base mientras se espera al proveedor de mapas
     public EstimacionCostoResponse estimarConGeolocalizacion(EstimacionCostoGeoRequest request) {
         Tarifa tarifa = obtenerTarifa(request.getTarifaId());
         var distancia = distanceService.calcularDistancia(
-                request.getOrigenLat(), request.getOrigenLng(), request.getDestinoLat(), request.getDestinoLng());
+                request.getOrigenLat(), request.getOrigenLng(), request.getDestinoLat(), request.getDestinoLng(),
+                request.getProveedor(), velocidadPromedio(tarifa));
         return calcularEstimacion(distancia.distanciaKm(), request.getCostoBaseKmCamion(),
                 request.getConsumoCamionLitrosKm(), request.getDiasEstadia(), request.getCostoEstadiaDiaria(), tarifa,
                 distancia.duracionHoras());
     }
 
-    private Tarifa obtenerTarifa(Long tarifaId) {
-        if (tarifaId != null) {
-            return tarifaRepository.findById(tarifaId)
-                    .orElseThrow(() -> new IllegalArgumentException("Tarifa no encontrada con id " + tarifaId));
+    // Estima una ruta completa resolviendo las distancias de todos los tramos en lote
+    public EstimacionRutaResponse estimarRutaConGeolocalizacion(EstimacionCostoGeoLoteRequest request) {
+        Tarifa tarifa = obtenerTarifa(request.getTarifaId());
+        List<DistanceService.DistanceResult> distancias = distanceService.calcularDistancias(
+                request.getTramos().stream()
+                        .map(t -> new ParCoordenadas(t.getOrigenLat(), t.getOrigenLng(),
+                                t.getDestinoLat(), t.getDestinoLng()))
+                        .toList(),
+                request.getProveedor(), velocidadPromedio(tarifa));
+
+        List<EstimacionCostoResponse> tramos = new ArrayList<>(distancias.size());
+        double distanciaTotal = 0.0;
+        double horasTotal = 0.0;
+        for (DistanceService.DistanceResult distancia : distancias) {
+            double costoKilometraje = CalculadoraCosto.costoKilometraje(distancia.distanciaKm(),
+                    tarifa.getCostoBaseKm(), request.getCostoBaseKmCamion());
+            double costoCombustible = CalculadoraCosto.costoCombustible(distancia.distanciaKm(),
+                    request.getConsumoCamionLitrosKm(), tarifa.getValorCombustibleLitro());
+            tramos.add(EstimacionCostoResponse.builder()
+                    .distanciaKm(distancia.distanciaKm())
+                    .costoKilometraje(costoKilometraje)
+                    .costoCombustible(costoCombustible)
+                    .costoEstadia(0.0)
+                    .costoTotal(costoKilometraje + costoCombustible)
+                    .tiempoEstimadoHoras(distancia.duracionHoras())
+                    .build());
+            distanciaTotal += distancia.distanciaKm();
+            horasTotal += distancia.duracionHoras();
         }
-        return tarifaRepository.findAll().stream().findFirst()
-                .orElseThrow(() -> new IllegalStateException("No hay tarifas configuradas"));
+
+        EstimacionCostoResponse total = calcularEstimacion(distanciaTotal, request.getCostoBaseKmCamion(),
+                request.getConsumoCamionLitrosKm(), request.getDiasEstadia(), request.getCostoEstadiaDiaria(), tarifa,
+                horasTotal);
+        return EstimacionRutaResponse.builder()
+                .tramos(tramos)
+                .total(total)
+                .build();
+    }
+
+    // También la usa EstimacionLoteService para resolver cada tarifa una sola vez por lote
+    Tarifa obtenerTarifa(Long tarifaId) {
+        return tarifaCache.obtener(tarifaId);
+    }
+
+    // Velocidad que usan los proveedores sin duración propia; 0 deja que apliquen su default
+    static double velocidadPromedio(Tarifa tarifa) {
+        return tarifa.getVelocidadPromedioKmH() != null ? tarifa.getVelocidadPromedioKmH() : 0.0;
     }
 
     private EstimacionCostoResponse calcularEstimacion(Double distanciaKm, Double costoBaseKmCamion,
             Double consumoCamionLitrosKm, Double diasEstadia, Double costoEstadiaDiaria, Tarifa tarifa) {
         return calcularEstimacion(distanciaKm, costoBaseKmCamion, consumoCamionLitrosKm, diasEstadia,
-                costoEstadiaDiaria, tarifa, tarifa.getVelocidadPromedioKmH() > 0
-                        ? distanciaKm / tarifa.getVelocidadPromedioKmH()
-                        : 0.0);
+                costoEstadiaDiaria, tarifa, CalculadoraCosto.tiempoEstimadoHoras(distanciaKm, velocidadPromedio(tarifa)));
     }
 
     private EstimacionCostoResponse calcularEstimacion(Double distanciaKm, Double costoBaseKmCamion,
             Double consumoCamionLitrosKm, Double diasEstadia, Double costoEstadiaDiaria, Tarifa tarifa,
             Double tiempoEstimadoHoras) {
 
-        double costoKilometraje = distanciaKm * (tarifa.getCostoBaseKm() + costoBaseKmCamion);
-        double costoCombustible = distanciaKm * consumoCamionLitrosKm * tarifa.getValorCombustibleLitro();
-        double costoEstadia = diasEstadia * costoEstadiaDiaria;
+        double costoKilometraje = CalculadoraCosto.costoKilometraje(distanciaKm, tarifa.getCostoBaseKm(), costoBaseKmCamion);
+        double costoCombustible = CalculadoraCosto.costoCombustible(distanciaKm, consumoCamionLitrosKm,
+                tarifa.getValorCombustibleLitro());
+        double costoEstadia = CalculadoraCosto.costoEstadia(diasEstadia, costoEstadiaDiaria);
         double costoTotal = costoKilometraje + costoCombustible + costoEstadia + tarifa.getCostoGestionFijo();
 
         return EstimacionCostoResponse.builder()
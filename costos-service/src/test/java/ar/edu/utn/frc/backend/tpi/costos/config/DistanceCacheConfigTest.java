@@ -0,0 +1,70 @@
+package ar.edu.utn.frc.backend.tpi.costos.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import ar.edu.utn.frc.backend.tpi.costos.service.ClaveDistancia;
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica que la cache de distancias publique sus métricas con la etiqueta cache=distancias
+ * y que reflejen aciertos, fallos y el tope de tamaño.
+ */
+class DistanceCacheConfigTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Cache<ClaveDistancia, DistanceResult> cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DistanceCacheConfig().distanciasCache(2, Duration.ofHours(1), meterRegistry);
+    }
+
+    @Test
+    void registraLasMetricasDeLaCache() {
+        for (String nombre : new String[] { "cache.gets", "cache.puts", "cache.evictions", "cache.size" }) {
+            assertThat(meterRegistry.find(nombre).tag("cache", DistanceCacheConfig.NOMBRE_CACHE).meters())
+                    .as(nombre).isNotEmpty();
+        }
+    }
+
+    @Test
+    void lasMetricasReflejanAciertosYFallos() {
+        ClaveDistancia clave = new ClaveDistancia(1, 2, 3, 4);
+        cache.put(clave, new DistanceResult(10.0, 0.2));
+
+        cache.getIfPresent(clave);
+        cache.getIfPresent(clave);
+        cache.getIfPresent(new ClaveDistancia(5, 6, 7, 8));
+
+        assertThat(contador("hit")).isEqualTo(2.0);
+        assertThat(contador("miss")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.size").tag("cache", DistanceCacheConfig.NOMBRE_CACHE).gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void respetaElTamanioMaximo() {
+        for (int i = 0; i < 10; i++) {
+            cache.put(new ClaveDistancia(i, i, i, i), new DistanceResult(i, i));
+        }
+        cache.cleanUp();
+
+        assertThat(cache.estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", DistanceCacheConfig.NOMBRE_CACHE)
+                .functionCounter().count()).isGreaterThanOrEqualTo(8.0);
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("cache.gets").tags("cache", DistanceCacheConfig.NOMBRE_CACHE, "result", resultado)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,91 @@
+package ar.edu.utn.frc.backend.tpi.costos.config;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.costos.controller.TarifaController;
+import ar.edu.utn.frc.backend.tpi.costos.service.EstimacionLoteService;
+import ar.edu.utn.frc.backend.tpi.costos.service.TarifaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Con tpi.identidad-interna.habilitada=true la cadena de seguridad debe aceptar la identidad
+ * firmada por el gateway sin pasar por el decoder de JWT.
+ */
+@WebMvcTest(controllers = TarifaController.class, properties = {
+        "tpi.identidad-interna.habilitada=true",
+        "tpi.identidad-interna.secreto=" + IdentidadInternaRegistroTest.SECRETO
+})
+@Import({ ResourceServerConfig.class, TokenCache.class, SimpleMeterRegistry.class })
+class IdentidadInternaRegistroTest {
+
+    static final String SECRETO = "secreto-de-prueba-de-al-menos-32-bytes";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private TarifaService tarifaService;
+
+    @MockitoBean
+    private EstimacionLoteService estimacionLoteService;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void aceptaLaIdentidadDelGatewaySinDecodificarJwt() throws Exception {
+        mockMvc.perform(get("/api/tarifas").header(IdentidadInternaFilter.ENCABEZADO, identidad("admin")))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(jwtDecoder);
+    }
+
+    @Test
+    void aplicaLosRolesDeLaIdentidad() throws Exception {
+        mockMvc.perform(get("/api/tarifas").header(IdentidadInternaFilter.ENCABEZADO, identidad("transportista")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void sinIdentidadNiTokenDevuelve401() throws Exception {
+        mockMvc.perform(get("/api/tarifas"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // Mismo formato que emite el IdentidadInternaFilter del api-gateway
+    private String identidad(String rol) throws Exception {
+        Map<String, Object> claims = Map.of(
+                "sub", "usuario-1",
+                "realm_access", Map.of("roles", List.of(rol)),
+                "exp", Instant.now().plusSeconds(30).getEpochSecond());
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(claims));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRETO.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,47 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica el redondeo de coordenadas a la grilla de la cache: puntos de la misma celda comparten
+ * clave, los que cruzan el borde no, y el signo de las coordenadas no desplaza las celdas.
+ */
+class ClaveDistanciaTest {
+
+    @Test
+    void puntosDeLaMismaCeldaCompartenClave() {
+        ClaveDistancia clave = ClaveDistancia.de(-31.42011, -64.18849, -34.60372, -58.38159, 3);
+
+        assertThat(ClaveDistancia.de(-31.42049, -64.18801, -34.60351, -58.38249, 3)).isEqualTo(clave);
+        assertThat(clave).isEqualTo(new ClaveDistancia(-31420, -64188, -34604, -58382));
+    }
+
+    @Test
+    void puntosAAmbosLadosDelBordeDeCeldaNoCompartenClave() {
+        assertThat(ClaveDistancia.de(-31.4204, 0, 0, 0, 3).origenLat()).isEqualTo(-31420);
+        assertThat(ClaveDistancia.de(-31.4206, 0, 0, 0, 3).origenLat()).isEqualTo(-31421);
+        assertThat(ClaveDistancia.de(31.4204, 0, 0, 0, 3).origenLat()).isEqualTo(31420);
+        assertThat(ClaveDistancia.de(31.4206, 0, 0, 0, 3).origenLat()).isEqualTo(31421);
+    }
+
+    @Test
+    void elPuntoMedioExactoRedondeaHaciaArribaConCualquierSigno() {
+        // Math.round: x.5 sube hacia +infinito, también para negativos (-2.5 -> -2)
+        assertThat(ClaveDistancia.de(0.25, -0.25, 0.75, -0.75, 1))
+                .isEqualTo(new ClaveDistancia(3, -2, 8, -7));
+    }
+
+    @Test
+    void precisionCeroUsaGradosEnteros() {
+        assertThat(ClaveDistancia.de(-31.4, -64.6, 0.4, 180.0, 0))
+                .isEqualTo(new ClaveDistancia(-31, -65, 0, 180));
+    }
+
+    @Test
+    void elSentidoDelParFormaParteDeLaClave() {
+        assertThat(ClaveDistancia.de(-31.4, -64.2, -34.6, -58.4, 3))
+                .isNotEqualTo(ClaveDistancia.de(-34.6, -58.4, -31.4, -64.2, 3));
+    }
+}
@@ -0,0 +1,157 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import ar.edu.utn.frc.backend.tpi.costos.config.DistanceCacheConfig;
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica que el cálculo en lote resuelva primero desde la cache y la tabla, envíe al proveedor
+ * solo los pares faltantes y, si el proveedor falla, aproxime únicamente esos pares. Un acierto de
+ * cache no llega al proveedor; el proveedor puede elegirse por solicitud y sin API key se usa el fallback.
+ */
+class DistanceServiceTest {
+
+    private static final ParCoordenadas CACHEADO = new ParCoordenadas(-31.4, -64.2, -31.5, -64.1);
+    private static final ParCoordenadas PERSISTIDO = new ParCoordenadas(-31.5, -64.1, -32.9, -68.8);
+    private static final ParCoordenadas NUEVO = new ParCoordenadas(-32.9, -68.8, -34.6, -58.4);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DistanceProvider google;
+    private HaversineDistanceProvider haversine;
+    private DistanciaPersistenteService distanciaPersistenteService;
+    private Cache<ClaveDistancia, DistanceResult> cache;
+    private DistanceService service;
+
+    @BeforeEach
+    void setUp() {
+        google = mock(DistanceProvider.class);
+        when(google.getNombre()).thenReturn(GoogleMapsDistanceProvider.NOMBRE);
+        when(google.isCacheable()).thenReturn(true);
+        haversine = new HaversineDistanceProvider();
+        ReflectionTestUtils.setField(haversine, "factorRuta", 1.3);
+        ReflectionTestUtils.setField(haversine, "velocidadDefaultKmH", 60.0);
+        distanciaPersistenteService = mock(DistanciaPersistenteService.class);
+        when(distanciaPersistenteService.buscar(any())).thenReturn(Optional.empty());
+        cache = new DistanceCacheConfig().distanciasCache(100, Duration.ofHours(1), meterRegistry);
+
+        service = new DistanceService(List.of(google, haversine), cache, distanciaPersistenteService);
+        ReflectionTestUtils.setField(service, "precisionDecimales", 3);
+        ReflectionTestUtils.setField(service, "proveedorPorDefecto", GoogleMapsDistanceProvider.NOMBRE);
+        ReflectionTestUtils.setField(service, "proveedorFallback", HaversineDistanceProvider.NOMBRE);
+    }
+
+    @Test
+    void unAciertoDeCacheNoConsultaAlProveedor() {
+        when(google.calcular(List.of(NUEVO), 50.0)).thenReturn(List.of(new DistanceResult(1100.0, 12.0)));
+
+        DistanceResult primera = service.calcularDistancia(NUEVO.origenLat(), NUEVO.origenLng(),
+                NUEVO.destinoLat(), NUEVO.destinoLng(), null, 50.0);
+        // Coordenadas de la misma celda de la grilla
+        DistanceResult segunda = service.calcularDistancia(NUEVO.origenLat() + 0.0002, NUEVO.origenLng(),
+                NUEVO.destinoLat(), NUEVO.destinoLng() - 0.0002, null, 50.0);
+
+        assertThat(segunda).isEqualTo(primera);
+        verify(google, times(1)).calcular(anyList(), anyDouble());
+        verify(distanciaPersistenteService, times(1)).buscar(clave(NUEVO));
+        verify(distanciaPersistenteService, times(2)).registrarConsulta(clave(NUEVO));
+    }
+
+    @Test
+    void enviaAlProveedorSoloLosParesFaltantesYConservaElOrden() {
+        cache.put(clave(CACHEADO), new DistanceResult(15.0, 0.3));
+        when(distanciaPersistenteService.buscar(clave(PERSISTIDO))).thenReturn(Optional.of(new DistanceResult(800.0, 9.0)));
+        when(google.calcular(List.of(NUEVO), 50.0)).thenReturn(List.of(new DistanceResult(1100.0, 12.0)));
+
+        List<DistanceResult> resultados = service.calcularDistancias(
+                List.of(NUEVO, CACHEADO, PERSISTIDO, NUEVO), null, 50.0);
+
+        assertThat(resultados).extracting(DistanceResult::distanciaKm).containsExactly(1100.0, 15.0, 800.0, 1100.0);
+        verify(google, times(1)).calcular(anyList(), anyDouble());
+        verify(distanciaPersistenteService).guardar(clave(NUEVO), new DistanceResult(1100.0, 12.0));
+        assertThat(cache.getIfPresent(clave(NUEVO))).isEqualTo(new DistanceResult(1100.0, 12.0));
+        assertThat(cache.getIfPresent(clave(PERSISTIDO))).isEqualTo(new DistanceResult(800.0, 9.0));
+    }
+
+    @Test
+    void siElProveedorFallaSoloLosParesFaltantesUsanElFallback() {
+        cache.put(clave(CACHEADO), new DistanceResult(15.0, 0.3));
+        when(google.calcular(anyList(), anyDouble())).thenThrow(new IllegalStateException("sin cuota"));
+
+        List<DistanceResult> resultados = service.calcularDistancias(List.of(CACHEADO, NUEVO), null, 60.0);
+
+        DistanceResult aproximado = haversine.calcular(List.of(NUEVO), 60.0).get(0);
+        assertThat(resultados).containsExactly(new DistanceResult(15.0, 0.3), aproximado);
+        verify(google).calcular(eq(List.of(NUEVO)), anyDouble());
+        // La aproximación no se guarda en ningún nivel
+        assertThat(cache.getIfPresent(clave(NUEVO))).isNull();
+        verify(distanciaPersistenteService, times(0)).guardar(any(), any());
+    }
+
+    @Test
+    void elProveedorIndicadoEnLaSolicitudReemplazaAlConfigurado() {
+        List<DistanceResult> resultados = service.calcularDistancias(List.of(NUEVO), "Haversine", 60.0);
+
+        assertThat(resultados).containsExactlyElementsOf(haversine.calcular(List.of(NUEVO), 60.0));
+        verify(google, times(0)).calcular(anyList(), anyDouble());
+        // El proveedor local no se cachea
+        assertThat(cache.estimatedSize()).isZero();
+    }
+
+    @Test
+    void unProveedorDesconocidoSeRechaza() {
+        assertThatThrownBy(() -> service.calcularDistancias(List.of(NUEVO), "osrm", 60.0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Proveedor de distancias desconocido: osrm");
+    }
+
+    @Test
+    void sinApiKeyDeGoogleUsaElFallback() {
+        GoogleMapsDistanceProvider sinClave = new GoogleMapsDistanceProvider(mock(RestTemplate.class),
+                CircuitBreaker.ofDefaults("distance-matrix"), Bulkhead.ofDefaults("distance-matrix"));
+        ReflectionTestUtils.setField(sinClave, "apiKey", "");
+        service = new DistanceService(List.of(sinClave, haversine), cache, distanciaPersistenteService);
+        ReflectionTestUtils.setField(service, "precisionDecimales", 3);
+        ReflectionTestUtils.setField(service, "proveedorPorDefecto", GoogleMapsDistanceProvider.NOMBRE);
+        ReflectionTestUtils.setField(service, "proveedorFallback", HaversineDistanceProvider.NOMBRE);
+
+        DistanceResult resultado = service.calcularDistancia(NUEVO.origenLat(), NUEVO.origenLng(),
+                NUEVO.destinoLat(), NUEVO.destinoLng(), null, 60.0);
+
+        assertThat(resultado).isEqualTo(haversine.calcular(List.of(NUEVO), 60.0).get(0));
+        assertThat(cache.getIfPresent(clave(NUEVO))).isNull();
+
+        // Sin fallback configurado el error llega al llamador
+        ReflectionTestUtils.setField(service, "proveedorFallback", "");
+        assertThatThrownBy(() -> service.calcularDistancias(List.of(NUEVO), null, 60.0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("API key de Google Maps no configurada");
+    }
+
+    private static ClaveDistancia clave(ParCoordenadas par) {
+        return ClaveDistancia.de(par.origenLat(), par.origenLng(), par.destinoLat(), par.destinoLng(), 3);
+    }
+}
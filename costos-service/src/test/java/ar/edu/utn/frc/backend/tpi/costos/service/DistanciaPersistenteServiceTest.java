@@ -0,0 +1,135 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ar.edu.utn.frc.backend.tpi.costos.repository.DistanciaRepository;
+
+/**
+ * Verifica que las consultas se cuenten en memoria y se vuelquen a la tabla con un solo UPDATE
+ * por par, sin perderlas si la transacción no confirma o el par todavía no tiene fila.
+ */
+class DistanciaPersistenteServiceTest {
+
+    private DistanciaRepository distanciaRepository;
+    private DistanciaPersistenteService servicio;
+
+    @BeforeEach
+    void setUp() {
+        distanciaRepository = mock(DistanciaRepository.class);
+        servicio = new DistanciaPersistenteService(distanciaRepository);
+        ReflectionTestUtils.setField(servicio, "precisionDecimales", 3);
+    }
+
+    @Test
+    void registrarConsultaNoTocaLaBase() {
+        servicio.registrarConsulta(new ClaveDistancia(1, 2, 3, 4));
+
+        verifyNoMoreInteractions(distanciaRepository);
+    }
+
+    @Test
+    void vuelcaUnUpdatePorParConLaCantidadAcumulada() {
+        ClaveDistancia frecuente = new ClaveDistancia(1, 2, 3, 4);
+        ClaveDistancia ocasional = new ClaveDistancia(5, 6, 7, 8);
+        for (int i = 0; i < 3; i++) {
+            servicio.registrarConsulta(frecuente);
+        }
+        servicio.registrarConsulta(ocasional);
+        when(distanciaRepository.sumarConsultas(anyInt(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(1);
+
+        servicio.volcarConsultas();
+        servicio.volcarConsultas();
+
+        verify(distanciaRepository).sumarConsultas(3, 1, 2, 3, 4, 3L);
+        verify(distanciaRepository).sumarConsultas(3, 5, 6, 7, 8, 1L);
+        verifyNoMoreInteractions(distanciaRepository);
+    }
+
+    @Test
+    void lasConsultasDeUnParSinFilaSeReintentanEnElProximoVolcado() {
+        ClaveDistancia sinFila = new ClaveDistancia(1, 2, 3, 4);
+        when(distanciaRepository.sumarConsultas(3, 1, 2, 3, 4, 2L)).thenReturn(0);
+        when(distanciaRepository.sumarConsultas(3, 1, 2, 3, 4, 3L)).thenReturn(1);
+        servicio.registrarConsulta(sinFila);
+        servicio.registrarConsulta(sinFila);
+
+        servicio.volcarConsultas();
+        servicio.registrarConsulta(sinFila);
+        servicio.volcarConsultas();
+        servicio.volcarConsultas();
+
+        verify(distanciaRepository).sumarConsultas(3, 1, 2, 3, 4, 2L);
+        verify(distanciaRepository).sumarConsultas(3, 1, 2, 3, 4, 3L);
+        verifyNoMoreInteractions(distanciaRepository);
+    }
+
+    @Test
+    void unRollbackDevuelveLasCantidadesTomadas() {
+        ClaveDistancia primera = new ClaveDistancia(1, 2, 3, 4);
+        ClaveDistancia segunda = new ClaveDistancia(5, 6, 7, 8);
+        when(distanciaRepository.sumarConsultas(anyInt(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(1);
+        servicio.registrarConsulta(primera);
+        servicio.registrarConsulta(segunda);
+        servicio.registrarConsulta(segunda);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            servicio.volcarConsultas();
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        servicio.volcarConsultas();
+
+        verify(distanciaRepository, times(2)).sumarConsultas(3, 1, 2, 3, 4, 1L);
+        verify(distanciaRepository, times(2)).sumarConsultas(3, 5, 6, 7, 8, 2L);
+    }
+
+    @Test
+    void sinTransaccionUnErrorSoloDevuelveElParQueFallo() {
+        ClaveDistancia primera = new ClaveDistancia(1, 2, 3, 4);
+        ClaveDistancia segunda = new ClaveDistancia(5, 6, 7, 8);
+        when(distanciaRepository.sumarConsultas(3, 1, 2, 3, 4, 1L)).thenReturn(1);
+        when(distanciaRepository.sumarConsultas(3, 5, 6, 7, 8, 1L))
+                .thenThrow(new QueryTimeoutException("timeout")).thenReturn(1);
+        servicio.registrarConsulta(primera);
+        servicio.registrarConsulta(segunda);
+
+        assertThatThrownBy(servicio::volcarConsultas).isInstanceOf(QueryTimeoutException.class);
+        servicio.volcarConsultas();
+
+        // La primera ya confirmó con su propio UPDATE y no se vuelve a sumar
+        verify(distanciaRepository, times(1)).sumarConsultas(3, 1, 2, 3, 4, 1L);
+        verify(distanciaRepository, times(2)).sumarConsultas(3, 5, 6, 7, 8, 1L);
+    }
+
+    @Test
+    void unVolcadoSinConsultasNuevasNoActualiza() {
+        when(distanciaRepository.sumarConsultas(3, 1, 2, 3, 4, 1L)).thenReturn(1);
+        servicio.registrarConsulta(new ClaveDistancia(1, 2, 3, 4));
+        servicio.volcarConsultas();
+
+        servicio.volcarConsultas();
+
+        verify(distanciaRepository).sumarConsultas(anyInt(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verifyNoMoreInteractions(distanciaRepository);
+    }
+}
@@ -0,0 +1,181 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoRequest;
+import ar.edu.utn.frc.backend.tpi.costos.model.Tarifa;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+
+/**
+ * Verifica que la estimación en lote respete el orden de entrada entre bloques, resuelva cada
+ * tarifa una sola vez, acepte tanto un arreglo JSON como NDJSON y reporte las estimaciones
+ * inválidas en su línea sin cortar el lote.
+ */
+class EstimacionLoteServiceTest {
+
+    private static final Tarifa TARIFA_DEFAULT = Tarifa.builder()
+            .id(1L).nombre("Estandar").costoBaseKm(10.0).valorCombustibleLitro(2.0)
+            .costoEstadiaDiaria(0.0).velocidadPromedioKmH(50.0).costoGestionFijo(100.0)
+            .build();
+
+    private static final Tarifa TARIFA_PREMIUM = Tarifa.builder()
+            .id(2L).nombre("Premium").costoBaseKm(20.0).valorCombustibleLitro(3.0)
+            .costoEstadiaDiaria(0.0).velocidadPromedioKmH(0.0).costoGestionFijo(0.0)
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TarifaService tarifaService;
+    private EstimacionLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        tarifaService = mock(TarifaService.class);
+        when(tarifaService.obtenerTarifa(null)).thenReturn(TARIFA_DEFAULT);
+        when(tarifaService.obtenerTarifa(2L)).thenReturn(TARIFA_PREMIUM);
+        when(tarifaService.obtenerTarifa(99L)).thenThrow(new IllegalArgumentException("Tarifa no encontrada"));
+
+        service = new EstimacionLoteService(tarifaService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        // Bloques chicos para que el lote atraviese varios
+        ReflectionTestUtils.setField(service, "tamanioBloque", 3);
+    }
+
+    @Test
+    void arregloJsonMantieneElOrdenYResuelveCadaTarifaUnaVez() throws IOException {
+        StringBuilder entrada = new StringBuilder("[");
+        for (int i = 1; i <= 10; i++) {
+            if (i > 1) {
+                entrada.append(',');
+            }
+            entrada.append(solicitud(i, i % 2 == 0 ? 2L : null));
+        }
+        entrada.append(']');
+
+        List<JsonNode> resultados = estimar(entrada.toString());
+
+        assertThat(resultados).hasSize(10);
+        for (int i = 1; i <= 10; i++) {
+            JsonNode resultado = resultados.get(i - 1);
+            assertThat(resultado.get("distanciaKm").asDouble()).isEqualTo(i * 100.0);
+        }
+        // Tarifa default: 100 km * (10 + 1) + 100 * 0.5 * 2 + 2 dias * 50 + 100 fijo
+        JsonNode primero = resultados.get(0);
+        assertThat(primero.get("costoKilometraje").asDouble()).isEqualTo(1100.0);
+        assertThat(primero.get("costoCombustible").asDouble()).isEqualTo(100.0);
+        assertThat(primero.get("costoEstadia").asDouble()).isEqualTo(100.0);
+        assertThat(primero.get("costoTotal").asDouble()).isEqualTo(1400.0);
+        assertThat(primero.get("tiempoEstimadoHoras").asDouble()).isEqualTo(2.0);
+        // Tarifa premium sin velocidad: no estima tiempo
+        assertThat(resultados.get(1).get("tiempoEstimadoHoras").asDouble()).isZero();
+
+        verify(tarifaService, times(1)).obtenerTarifa(null);
+        verify(tarifaService, times(1)).obtenerTarifa(2L);
+    }
+
+    @Test
+    void aceptaNdjson() throws IOException {
+        String entrada = solicitud(1, null) + "\n" + solicitud(2, 2L) + "\n";
+
+        List<JsonNode> resultados = estimar(entrada);
+
+        assertThat(resultados).extracting(r -> r.get("distanciaKm").asDouble())
+                .containsExactly(100.0, 200.0);
+    }
+
+    @Test
+    void escribeUnaLineaDeErrorPorEstimacionInvalidaSinCortarElLote() throws IOException {
+        String entrada = "[" + solicitud(1, null) + ",{\"distanciaKm\":10}," + solicitud(3, null) + ","
+                + solicitud(4, null).replace("\"diasEstadia\":2.0", "\"diasEstadia\":-1.0") + ","
+                + solicitud(5, 99L) + "]";
+
+        List<JsonNode> resultados = estimar(entrada);
+
+        assertThat(resultados).hasSize(5);
+        assertThat(resultados.get(0).get("distanciaKm").asDouble()).isEqualTo(100.0);
+        assertThat(resultados.get(1).get("indice").asLong()).isEqualTo(1);
+        assertThat(resultados.get(1).get("error").asText())
+                .contains("costoBaseKmCamion").contains("consumoCamionLitrosKm").doesNotContain("distanciaKm");
+        assertThat(resultados.get(2).get("distanciaKm").asDouble()).isEqualTo(300.0);
+        assertThat(resultados.get(3).get("indice").asLong()).isEqualTo(3);
+        assertThat(resultados.get(3).get("error").asText()).startsWith("diasEstadia: ");
+        assertThat(resultados.get(4).get("error").asText()).isEqualTo("Tarifa no encontrada");
+    }
+
+    @Test
+    void sinTarifasConfiguradasCadaLineaLlevaElErrorSinCortarElLote() throws IOException {
+        when(tarifaService.obtenerTarifa(null)).thenThrow(new IllegalStateException("No hay tarifas configuradas"));
+        String entrada = solicitud(1, null) + "\n" + solicitud(2, 2L) + "\n" + solicitud(3, null) + "\n";
+
+        List<JsonNode> resultados = estimar(entrada);
+
+        assertThat(resultados).hasSize(3);
+        assertThat(resultados.get(0).get("error").asText()).isEqualTo("No hay tarifas configuradas");
+        assertThat(resultados.get(1).get("distanciaKm").asDouble()).isEqualTo(200.0);
+        assertThat(resultados.get(2).get("indice").asLong()).isEqualTo(2);
+    }
+
+    @Test
+    void losValoresNegativosSoloSeRechazanEnElLote() {
+        EstimacionCostoRequest request = new EstimacionCostoRequest();
+        request.setDistanciaKm(100.0);
+        request.setCostoBaseKmCamion(1.0);
+        request.setConsumoCamionLitrosKm(0.5);
+        request.setDiasEstadia(-1.0);
+        request.setCostoEstadiaDiaria(50.0);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        // La estimación individual (@Valid) sigue validando solo el grupo Default
+        assertThat(validator.validate(request)).isEmpty();
+        assertThat(validator.validate(request, Default.class, EstimacionCostoRequest.Lote.class)).hasSize(1);
+    }
+
+    @Test
+    void unErrorDeFormatoCortaElLoteConUnaLineaDeError() throws IOException {
+        String entrada = solicitud(1, null) + "\n{\"distanciaKm\": }\n" + solicitud(3, null) + "\n";
+
+        List<JsonNode> resultados = estimar(entrada);
+
+        assertThat(resultados).hasSize(2);
+        assertThat(resultados.get(1).get("indice").asLong()).isEqualTo(1);
+        assertThat(resultados.get(1).get("error").asText()).startsWith("Formato inválido");
+    }
+
+    private List<JsonNode> estimar(String entrada) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        service.estimarLote(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)), salida);
+
+        List<JsonNode> resultados = new ArrayList<>();
+        for (String linea : salida.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!linea.isBlank()) {
+                resultados.add(objectMapper.readTree(linea));
+            }
+        }
+        return resultados;
+    }
+
+    private static String solicitud(int i, Long tarifaId) {
+        return "{\"distanciaKm\":" + (i * 100.0) + ",\"costoBaseKmCamion\":1.0,\"consumoCamionLitrosKm\":0.5,"
+                + "\"diasEstadia\":2.0,\"costoEstadiaDiaria\":50.0"
+                + (tarifaId != null ? ",\"tarifaId\":" + tarifaId : "") + "}";
+    }
+}
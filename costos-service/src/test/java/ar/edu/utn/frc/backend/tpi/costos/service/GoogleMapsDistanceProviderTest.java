@@ -0,0 +1,218 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import ar.edu.utn.frc.backend.tpi.costos.config.DistanceMatrixResilienceConfig;
+import ar.edu.utn.frc.backend.tpi.costos.config.RestClientConfig;
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Ejercita timeouts, bulkhead y circuit breaker del cliente de Distance Matrix contra un
+ * servidor HTTP local que inyecta latencia y errores, y el armado de lotes: orden de los
+ * resultados y elementos facturados.
+ */
+class GoogleMapsDistanceProviderTest {
+
+    private static final String RESPUESTA_OK = """
+            {"rows":[{"elements":[{"status":"OK","distance":{"value":12500},"duration":{"value":900}}]}]}
+            """;
+
+    private static final List<ParCoordenadas> PARES = List.of(new ParCoordenadas(-31.4, -64.2, -31.5, -64.1));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger llamadasRecibidas = new AtomicInteger();
+
+    private HttpServer servidor;
+    private volatile int estadoRespuesta = 200;
+    private volatile long demoraMs = 0;
+    // Si es true, la respuesta se arma con la matriz pedida: km = -lat destino, horas = -lat origen
+    private volatile boolean matrizPedida = false;
+    private final AtomicInteger elementosFacturados = new AtomicInteger();
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private GoogleMapsDistanceProvider proveedor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/maps/api/distancematrix/json", this::responder);
+        servidor.start();
+
+        RestTemplate restTemplate = new RestClientConfig().restTemplate(new RestTemplateBuilder(),
+                Duration.ofMillis(500), Duration.ofMillis(300), Duration.ofMillis(500), 10, 10, meterRegistry);
+        DistanceMatrixResilienceConfig resilienceConfig = new DistanceMatrixResilienceConfig();
+        circuitBreaker = resilienceConfig.distanceMatrixCircuitBreaker(50, Duration.ofSeconds(2), 4, 4,
+                Duration.ofMinutes(1), meterRegistry);
+        bulkhead = resilienceConfig.distanceMatrixBulkhead(1, Duration.ZERO, meterRegistry);
+
+        proveedor = new GoogleMapsDistanceProvider(restTemplate, circuitBreaker, bulkhead);
+        ReflectionTestUtils.setField(proveedor, "apiKey", "test");
+        ReflectionTestUtils.setField(proveedor, "baseUrl", "http://127.0.0.1:" + servidor.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void respuestaOkSeConvierteAKilometrosYHoras() {
+        List<DistanceResult> resultados = proveedor.calcular(PARES, 60);
+
+        assertThat(resultados).containsExactly(new DistanceResult(12.5, 0.25));
+        assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void respuestaLentaCortaPorReadTimeout() {
+        demoraMs = 2000;
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> proveedor.calcular(PARES, 60)).isInstanceOf(ResourceAccessException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(1500));
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void erroresRepetidosAbrenElCircuitoSinLlamarAlServidor() {
+        estadoRespuesta = 503;
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> proveedor.calcular(PARES, 60)).isInstanceOf(RestClientException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        int llamadasAntes = llamadasRecibidas.get();
+        assertThatThrownBy(() -> proveedor.calcular(PARES, 60)).isInstanceOf(CallNotPermittedException.class);
+        assertThat(llamadasRecibidas.get()).isEqualTo(llamadasAntes);
+        assertThat(meterRegistry.find("resilience4j.circuitbreaker.state")
+                .tag("name", DistanceMatrixResilienceConfig.NOMBRE).tag("state", "open").gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void bulkheadRechazaLlamadasPorEncimaDelLimite() throws Exception {
+        demoraMs = 200;
+        CompletableFuture<List<DistanceResult>> primera = CompletableFuture.supplyAsync(
+                () -> proveedor.calcular(PARES, 60));
+        // Espera a que la primera llamada ocupe el único permiso
+        while (bulkhead.getMetrics().getAvailableConcurrentCalls() > 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> proveedor.calcular(PARES, 60)).isInstanceOf(BulkheadFullException.class);
+        assertThat(primera.get(2, TimeUnit.SECONDS)).hasSize(1);
+        assertThat(llamadasRecibidas.get()).isEqualTo(1);
+    }
+
+    @Test
+    void rutaEncadenadaNoFacturaLaMatrizCompletaYConservaElOrden() {
+        matrizPedida = true;
+        // 10 tramos encadenados: (0) -> (-1) -> ... -> (-10)
+        List<ParCoordenadas> tramos = IntStream.range(0, 10)
+                .mapToObj(i -> new ParCoordenadas(-i, -64.0, -(i + 1), -64.0))
+                .toList();
+
+        List<DistanceResult> resultados = proveedor.calcular(tramos, 60);
+
+        assertThat(resultados).extracting(DistanceResult::distanciaKm)
+                .containsExactly(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0);
+        assertThat(resultados).extracting(DistanceResult::duracionHoras)
+                .containsExactly(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0);
+        assertThat(elementosFacturados.get())
+                .isLessThanOrEqualTo(GoogleMapsDistanceProvider.MAX_ELEMENTOS_POR_PAR * tramos.size());
+    }
+
+    @Test
+    void paresConOrigenComunVanEnUnaSolaLlamada() {
+        matrizPedida = true;
+        List<ParCoordenadas> desdeDeposito = IntStream.range(1, 21)
+                .mapToObj(i -> new ParCoordenadas(-0.5, -64.0, -i, -64.0))
+                .toList();
+
+        List<DistanceResult> resultados = proveedor.calcular(desdeDeposito, 60);
+
+        assertThat(resultados).extracting(DistanceResult::distanciaKm)
+                .containsExactlyElementsOf(IntStream.range(1, 21).mapToObj(i -> (double) i).toList());
+        assertThat(llamadasRecibidas).hasValue(1);
+        assertThat(elementosFacturados).hasValue(20);
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        llamadasRecibidas.incrementAndGet();
+        try {
+            if (demoraMs > 0) {
+                Thread.sleep(demoraMs);
+            }
+            String respuesta = matrizPedida ? matriz(exchange.getRequestURI().getQuery()) : RESPUESTA_OK;
+            byte[] cuerpo = (estadoRespuesta == 200 ? respuesta : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(estadoRespuesta, cuerpo.length);
+            exchange.getResponseBody().write(cuerpo);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // El cliente cortó la conexión por timeout
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String matriz(String query) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String parametro : query.split("&")) {
+            String[] partes = parametro.split("=", 2);
+            parametros.put(partes[0], partes[1]);
+        }
+        String[] origenes = parametros.get("origins").split("\\|");
+        String[] destinos = parametros.get("destinations").split("\\|");
+        elementosFacturados.addAndGet(origenes.length * destinos.length);
+
+        StringBuilder json = new StringBuilder("{\"rows\":[");
+        for (int fila = 0; fila < origenes.length; fila++) {
+            json.append(fila > 0 ? "," : "").append("{\"elements\":[");
+            long segundos = Math.round(-Double.parseDouble(origenes[fila].split(",")[0]) * 3600);
+            for (int columna = 0; columna < destinos.length; columna++) {
+                long metros = Math.round(-Double.parseDouble(destinos[columna].split(",")[0]) * 1000);
+                json.append(columna > 0 ? "," : "")
+                        .append("{\"status\":\"OK\",\"distance\":{\"value\":").append(metros)
+                        .append("},\"duration\":{\"value\":").append(segundos).append("}}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+}
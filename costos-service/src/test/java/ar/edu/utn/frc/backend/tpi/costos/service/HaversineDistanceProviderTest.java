@@ -0,0 +1,82 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+
+/**
+ * Verifica la estimación local: distancia de círculo máximo conocida, factor de desvío por ruta,
+ * duración según la velocidad de la tarifa y los casos límite de distancia nula y antípodas.
+ */
+class HaversineDistanceProviderTest {
+
+    private static final ParCoordenadas CORDOBA_BUENOS_AIRES =
+            new ParCoordenadas(-31.4201, -64.1888, -34.6037, -58.3816);
+
+    private HaversineDistanceProvider proveedor;
+
+    @BeforeEach
+    void setUp() {
+        proveedor = new HaversineDistanceProvider();
+        ReflectionTestUtils.setField(proveedor, "factorRuta", 1.3);
+        ReflectionTestUtils.setField(proveedor, "velocidadDefaultKmH", 60.0);
+    }
+
+    @Test
+    void cordobaBuenosAiresConFactorDeRuta() {
+        double lineaRecta = HaversineDistanceProvider.distanciaKm(CORDOBA_BUENOS_AIRES.origenLat(),
+                CORDOBA_BUENOS_AIRES.origenLng(), CORDOBA_BUENOS_AIRES.destinoLat(), CORDOBA_BUENOS_AIRES.destinoLng());
+
+        DistanceResult resultado = proveedor.calcular(List.of(CORDOBA_BUENOS_AIRES), 80.0).get(0);
+
+        assertThat(lineaRecta).isCloseTo(646.0, within(2.0));
+        assertThat(resultado.distanciaKm()).isCloseTo(lineaRecta * 1.3, within(1e-9));
+        assertThat(resultado.duracionHoras()).isCloseTo(lineaRecta * 1.3 / 80.0, within(1e-9));
+    }
+
+    @Test
+    void sinVelocidadDeTarifaUsaLaVelocidadPorDefecto() {
+        DistanceResult conTarifa = proveedor.calcular(List.of(CORDOBA_BUENOS_AIRES), 120.0).get(0);
+        DistanceResult sinTarifa = proveedor.calcular(List.of(CORDOBA_BUENOS_AIRES), 0.0).get(0);
+
+        assertThat(sinTarifa.distanciaKm()).isEqualTo(conTarifa.distanciaKm());
+        assertThat(sinTarifa.duracionHoras()).isCloseTo(conTarifa.duracionHoras() * 2, within(1e-9));
+    }
+
+    @Test
+    void mismoPuntoDaDistanciaYDuracionCero() {
+        DistanceResult resultado = proveedor.calcular(
+                List.of(new ParCoordenadas(-31.4201, -64.1888, -31.4201, -64.1888)), 60.0).get(0);
+
+        assertThat(resultado.distanciaKm()).isZero();
+        assertThat(resultado.duracionHoras()).isZero();
+    }
+
+    @Test
+    void puntosAntipodasDanMediaCircunferencia() {
+        double mediaCircunferencia = Math.PI * 6371.0088;
+
+        assertThat(HaversineDistanceProvider.distanciaKm(0, 0, 0, 180)).isCloseTo(mediaCircunferencia, within(1e-6));
+        assertThat(HaversineDistanceProvider.distanciaKm(-31.4201, -64.1888, 31.4201, 115.8112))
+                .isCloseTo(mediaCircunferencia, within(1e-6));
+    }
+
+    @Test
+    void devuelveLosResultadosEnElOrdenDeLosPares() {
+        ParCoordenadas vuelta = new ParCoordenadas(-34.6037, -58.3816, -31.4201, -64.1888);
+        ParCoordenadas nulo = new ParCoordenadas(0, 0, 0, 0);
+
+        List<DistanceResult> resultados = proveedor.calcular(List.of(nulo, CORDOBA_BUENOS_AIRES, vuelta), 60.0);
+
+        assertThat(resultados.get(0).distanciaKm()).isZero();
+        assertThat(resultados.get(1).distanciaKm()).isCloseTo(resultados.get(2).distanciaKm(), within(1e-9));
+        assertThat(proveedor.isCacheable()).isFalse();
+    }
+}
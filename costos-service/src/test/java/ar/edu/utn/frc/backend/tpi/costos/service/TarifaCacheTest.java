@@ -0,0 +1,140 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ar.edu.utn.frc.backend.tpi.costos.model.Tarifa;
+import ar.edu.utn.frc.backend.tpi.costos.repository.TarifaRepository;
+
+/**
+ * Verifica que las estimaciones se resuelvan desde el snapshot sin consultar la base y que
+ * el snapshot se reemplace al modificarse las tarifas sin que un refresco concurrente lo pise.
+ */
+class TarifaCacheTest {
+
+    private TarifaRepository tarifaRepository;
+    private TarifaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tarifaRepository = mock(TarifaRepository.class);
+        when(tarifaRepository.findAll(any(Sort.class))).thenReturn(List.of(tarifa(1L, 10.0), tarifa(2L, 20.0)));
+        cache = new TarifaCache(tarifaRepository);
+    }
+
+    @Test
+    void resuelveDesdeMemoriaSinConsultarLaBase() {
+        cache.cargarAlIniciar();
+
+        assertThat(cache.obtener(null).getId()).isEqualTo(1L);
+        assertThat(cache.obtener(2L).getCostoBaseKm()).isEqualTo(20.0);
+        assertThat(cache.obtener(2L).getCostoBaseKm()).isEqualTo(20.0);
+
+        verify(tarifaRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void usaLaTarifaPorDefectoConfigurada() {
+        ReflectionTestUtils.setField(cache, "tarifaDefaultId", 2L);
+        cache.cargarAlIniciar();
+
+        assertThat(cache.obtener(null).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void recargaAlModificarseLasTarifas() {
+        cache.cargarAlIniciar();
+        when(tarifaRepository.findAll(any(Sort.class))).thenReturn(List.of(tarifa(1L, 15.0)));
+
+        cache.onTarifasModificadas(new TarifaCache.TarifasModificadasEvent());
+
+        assertThat(cache.obtener(1L).getCostoBaseKm()).isEqualTo(15.0);
+        assertThatThrownBy(() -> cache.obtener(2L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Tarifa no encontrada con id 2");
+    }
+
+    @Test
+    void recargaSiLaTarifaFueCreadaEnOtraReplica() {
+        cache.cargarAlIniciar();
+        when(tarifaRepository.existsById(3L)).thenReturn(true);
+        when(tarifaRepository.findAll(any(Sort.class)))
+                .thenReturn(List.of(tarifa(1L, 10.0), tarifa(2L, 20.0), tarifa(3L, 30.0)));
+
+        assertThat(cache.obtener(3L).getCostoBaseKm()).isEqualTo(30.0);
+    }
+
+    @Test
+    void unIdInexistenteSeConsultaUnaSolaVezHastaLaProximaRecarga() {
+        cache.cargarAlIniciar();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> cache.obtener(9L)).isInstanceOf(IllegalArgumentException.class);
+        }
+        verify(tarifaRepository, times(1)).existsById(9L);
+
+        cache.refrescar();
+        assertThatThrownBy(() -> cache.obtener(9L)).isInstanceOf(IllegalArgumentException.class);
+        verify(tarifaRepository, times(2)).existsById(9L);
+    }
+
+    @Test
+    void unRefrescoLentoNoPisaLaRecargaPosteriorAlCommit() throws Exception {
+        cache.cargarAlIniciar();
+        CountDownLatch refrescoLeyendo = new CountDownLatch(1);
+        CountDownLatch commitHecho = new CountDownLatch(1);
+        // El refresco programado lee el estado previo y queda demorado antes de publicarlo
+        when(tarifaRepository.findAll(any(Sort.class))).thenAnswer(invocacion -> {
+            refrescoLeyendo.countDown();
+            commitHecho.await(5, TimeUnit.SECONDS);
+            return List.of(tarifa(1L, 10.0));
+        }).thenReturn(List.of(tarifa(1L, 15.0)));
+
+        Thread refresco = new Thread(cache::refrescar);
+        refresco.start();
+        refrescoLeyendo.await(5, TimeUnit.SECONDS);
+        Thread despuesDelCommit = new Thread(() -> cache.onTarifasModificadas(new TarifaCache.TarifasModificadasEvent()));
+        despuesDelCommit.start();
+        // Espera a que la recarga posterior al commit quede bloqueada (o termine, si no hubiera exclusión)
+        while (despuesDelCommit.getState() != Thread.State.BLOCKED
+                && despuesDelCommit.getState() != Thread.State.TERMINATED) {
+            Thread.sleep(5);
+        }
+        commitHecho.countDown();
+        refresco.join(5000);
+        despuesDelCommit.join(5000);
+
+        assertThat(cache.obtener(1L).getCostoBaseKm()).isEqualTo(15.0);
+    }
+
+    @Test
+    void sinTarifasNoHayDefault() {
+        when(tarifaRepository.findAll(any(Sort.class))).thenReturn(List.of());
+        cache.cargarAlIniciar();
+
+        assertThatThrownBy(() -> cache.obtener(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No hay tarifas configuradas");
+    }
+
+    private static Tarifa tarifa(Long id, double costoBaseKm) {
+        return Tarifa.builder()
+                .id(id).nombre("Tarifa " + id).costoBaseKm(costoBaseKm).valorCombustibleLitro(2.0)
+                .costoEstadiaDiaria(0.0).velocidadPromedioKmH(60.0).costoGestionFijo(0.0)
+                .build();
+    }
+}
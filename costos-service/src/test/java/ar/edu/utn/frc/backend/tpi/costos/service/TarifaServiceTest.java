@@ -0,0 +1,82 @@
+package ar.edu.utn.frc.backend.tpi.costos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoGeoLoteRequest;
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionCostoResponse;
+import ar.edu.utn.frc.backend.tpi.costos.dto.EstimacionRutaResponse;
+import ar.edu.utn.frc.backend.tpi.costos.dto.TramoGeoRequest;
+import ar.edu.utn.frc.backend.tpi.costos.model.Tarifa;
+import ar.edu.utn.frc.backend.tpi.costos.repository.TarifaRepository;
+import ar.edu.utn.frc.backend.tpi.costos.service.DistanceService.DistanceResult;
+
+/**
+ * Verifica que la estimación de una ruta (POST /api/tarifas/estimacion/geoloc/lote) resuelva
+ * todos los tramos en una sola llamada al servicio de distancias y sume los tramos en el total.
+ */
+class TarifaServiceTest {
+
+    private static final Tarifa TARIFA = Tarifa.builder()
+            .id(1L).nombre("Estandar").costoBaseKm(10.0).valorCombustibleLitro(2.0)
+            .costoEstadiaDiaria(0.0).velocidadPromedioKmH(50.0).costoGestionFijo(100.0)
+            .build();
+
+    private DistanceService distanceService;
+    private TarifaService service;
+
+    @BeforeEach
+    void setUp() {
+        distanceService = mock(DistanceService.class);
+        TarifaCache tarifaCache = mock(TarifaCache.class);
+        when(tarifaCache.obtener(null)).thenReturn(TARIFA);
+        service = new TarifaService(mock(TarifaRepository.class), distanceService, tarifaCache,
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void estimaCadaTramoYLaRutaCompletaConUnaSolaConsultaDeDistancias() {
+        List<ParCoordenadas> pares = List.of(
+                new ParCoordenadas(-31.4, -64.2, -32.9, -68.8),
+                new ParCoordenadas(-32.9, -68.8, -34.6, -58.4));
+        when(distanceService.calcularDistancias(pares, "google", 50.0))
+                .thenReturn(List.of(new DistanceResult(100.0, 2.0), new DistanceResult(200.0, 4.0)));
+
+        EstimacionRutaResponse respuesta = service.estimarRutaConGeolocalizacion(request(pares));
+
+        // Por tramo: km * (10 + 1) + km * 0.5 * 2, sin estadía ni cargo fijo
+        assertThat(respuesta.getTramos()).extracting(EstimacionCostoResponse::getCostoTotal)
+                .containsExactly(1200.0, 2400.0);
+        assertThat(respuesta.getTramos()).extracting(EstimacionCostoResponse::getTiempoEstimadoHoras)
+                .containsExactly(2.0, 4.0);
+        // Total: 300 km, 2 días de estadía a 50 y el cargo fijo una sola vez
+        assertThat(respuesta.getTotal().getDistanciaKm()).isEqualTo(300.0);
+        assertThat(respuesta.getTotal().getCostoTotal()).isEqualTo(3600.0 + 100.0 + 100.0);
+        assertThat(respuesta.getTotal().getTiempoEstimadoHoras()).isEqualTo(6.0);
+    }
+
+    private static EstimacionCostoGeoLoteRequest request(List<ParCoordenadas> pares) {
+        EstimacionCostoGeoLoteRequest request = new EstimacionCostoGeoLoteRequest();
+        request.setTramos(pares.stream().map(par -> {
+            TramoGeoRequest tramo = new TramoGeoRequest();
+            tramo.setOrigenLat(par.origenLat());
+            tramo.setOrigenLng(par.origenLng());
+            tramo.setDestinoLat(par.destinoLat());
+            tramo.setDestinoLng(par.destinoLng());
+            return tramo;
+        }).toList());
+        request.setCostoBaseKmCamion(1.0);
+        request.setConsumoCamionLitrosKm(0.5);
+        request.setDiasEstadia(2.0);
+        request.setCostoEstadiaDiaria(50.0);
+        request.setProveedor("google");
+        return request;
+    }
+}
@@ -0,0 +1,22 @@
+package ar.edu.utn.frc.backend.tpi.flota.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag en el listado de depósitos, que solicitudes-service relee para sus reglas de costo.
+ * Con el If-None-Match de la respuesta anterior y sin cambios se responde 304 sin cuerpo.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registro.addUrlPatterns("/api/depositos");
+        return registro;
+    }
+}
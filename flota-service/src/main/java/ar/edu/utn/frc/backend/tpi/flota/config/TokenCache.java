@@ -0,0 +1,135 @@
+package ar.edu.utn.frc.backend.tpi.flota.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Tokens ya verificados, para que un mismo token reutilizado en muchas llamadas (por ejemplo, el
+ * de un transportista que registra tramos desde el celular) no repita la verificación de la firma
+ * ni la conversión de roles. La clave es el SHA-256 del token; cada entrada vence con el exp del
+ * token (o antes, con ttl-maximo), así que nunca se acepta un token que el decoder ya rechazaría
+ * por vencido.
+ *
+ * Métricas en /actuator/metrics: cache.gets (result=hit|miss), cache.size, cache.evictions y
+ * cache.hit.ratio, todas con cache=tokens.
+ */
+@Component
+public class TokenCache {
+
+    public static final String NOMBRE_CACHE = "tokens";
+
+    private final Cache<String, Entrada> cache;
+    private final Duration ttlMaximo;
+
+    // Las autoridades se calculan una vez, en la primera conversión del Jwt verificado
+    private static final class Entrada {
+        private final Jwt jwt;
+        private volatile Collection<GrantedAuthority> autoridades;
+
+        private Entrada(Jwt jwt) {
+            this.jwt = jwt;
+        }
+    }
+
+    public TokenCache(MeterRegistry meterRegistry,
+            @Value("${tpi.tokens.cache.tamanio-maximo:10000}") long tamanioMaximo,
+            @Value("${tpi.tokens.cache.ttl-maximo:10m}") Duration ttlMaximo) {
+        this.ttlMaximo = ttlMaximo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfter(new Expiry<String, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(String clave, Entrada entrada, long ahora) {
+                        return vigencia(entrada.jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String clave, Entrada entrada, long ahora, long restante) {
+                        return vigencia(entrada.jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String clave, Entrada entrada, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE_CACHE);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", NOMBRE_CACHE)
+                .description("Proporción de tokens resueltos sin verificar la firma")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param token valor del token Bearer
+     * @param decodificar decoder real; solo se llama si el token no está en la cache
+     * @return Jwt verificado
+     */
+    public Jwt decodificar(String token, Function<String, Jwt> decodificar) {
+        // Si el decoder rechaza el token, la excepción se propaga y no se guarda nada
+        return cache.get(clave(token), c -> new Entrada(decodificar.apply(token))).jwt;
+    }
+
+    /**
+     * @param jwt token a convertir
+     * @param convertir conversión de claims a autoridades
+     * @return autoridades del token, reutilizadas si el Jwt es el que devolvió {@link #decodificar}
+     */
+    public Collection<GrantedAuthority> autoridades(Jwt jwt, Converter<Jwt, Collection<GrantedAuthority>> convertir) {
+        // asMap().get no cuenta en las estadísticas: el acierto ya se contó al decodificar
+        Entrada entrada = cache.asMap().get(clave(jwt.getTokenValue()));
+        // Un Jwt armado por otro camino (por ejemplo, la identidad interna) se convierte sin guardar
+        if (entrada == null || entrada.jwt != jwt) {
+            return convertir.convert(jwt);
+        }
+        Collection<GrantedAuthority> autoridades = entrada.autoridades;
+        if (autoridades == null) {
+            autoridades = List.copyOf(convertir.convert(jwt));
+            entrada.autoridades = autoridades;
+        }
+        return autoridades;
+    }
+
+    private Duration vigencia(Jwt jwt) {
+        if (jwt.getExpiresAt() == null) {
+            return ttlMaximo;
+        }
+        Duration restante = Duration.between(Instant.now(), jwt.getExpiresAt());
+        if (restante.isNegative()) {
+            return Duration.ZERO;
+        }
+        return restante.compareTo(ttlMaximo) < 0 ? restante : ttlMaximo;
+    }
+
+    private static String clave(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
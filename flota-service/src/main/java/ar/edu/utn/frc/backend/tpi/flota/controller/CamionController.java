@@ -60,7 +60,7 @@ public class CamionController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'TRANSPORTISTA')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRANSPORTISTA', 'SERVICIO')")
     @Operation(summary = "Obtener camion por id")
     public ResponseEntity<CamionDto> obtener(@PathVariable Long id) {
         return ResponseEntity.ok(camionService.obtener(id));
@@ -37,7 +37,7 @@ public class DepositoController {
     }
 
     @GetMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'TRANSPORTISTA')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRANSPORTISTA', 'SERVICIO')")
     @Operation(summary = "Listar depósitos")
     public ResponseEntity<List<DepositoDto>> listar() {
         return ResponseEntity.ok(depositoService.listarTodos());
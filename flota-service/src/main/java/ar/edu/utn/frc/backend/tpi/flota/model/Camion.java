@@ -1,5 +1,7 @@
 package ar.edu.utn.frc.backend.tpi.flota.model;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -8,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,6 +27,11 @@ public class Camion {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // Control de concurrencia optimista: dos asignaciones simultáneas del mismo camión no pueden confirmarse ambas
+    @Version
+    @ColumnDefault("0") // filas existentes al agregar la columna con ddl-auto
+    @Column(nullable = false)
+    private Long version;
 
     @Column(nullable = false, unique = true)
     private String dominio; // patente o identificador
@@ -18,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 public class CamionService {
 
     private final CamionRepository camionRepository;
+    private final ReintentoConflictos reintentoConflictos;
 
     @Transactional
     public CamionDto crear(CamionDto dto) {
@@ -76,8 +77,17 @@ public class CamionService {
         camionRepository.deleteById(id);
     }
 
-    @Transactional
+    // Sin @Transactional: cada intento corre en su propia transacción dentro de ReintentoConflictos.
+    // Si otro pedido ocupó el camión entre la lectura y el commit, el reintento ve el estado nuevo y rechaza.
     public CamionDto asignar(Long id, AsignacionCamionRequest request) {
+        return reintentoConflictos.ejecutar("asignación del camión " + id, () -> asignarEnTransaccion(id, request));
+    }
+
+    public CamionDto liberar(Long id) {
+        return reintentoConflictos.ejecutar("liberación del camión " + id, () -> liberarEnTransaccion(id));
+    }
+
+    private CamionDto asignarEnTransaccion(Long id, AsignacionCamionRequest request) {
         Camion camion = camionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Camion no encontrado con id " + id));
 
@@ -93,8 +103,7 @@ public class CamionService {
         return CamionMapper.toDto(camionRepository.save(camion));
     }
 
-    @Transactional
-    public CamionDto liberar(Long id) {
+    private CamionDto liberarEnTransaccion(Long id) {
         Camion camion = camionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Camion no encontrado con id " + id));
         camion.setEstado(EstadoCamion.DISPONIBLE);
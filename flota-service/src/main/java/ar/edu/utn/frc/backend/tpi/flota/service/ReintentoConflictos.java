@@ -0,0 +1,74 @@
+package ar.edu.utn.frc.backend.tpi.flota.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Repite en una transacción nueva las operaciones que fallan por versión desactualizada del camión.
+// La espera entre intentos es aleatoria con tope exponencial para que los pedidos que chocaron se dispersen.
+@Component
+@Slf4j
+public class ReintentoConflictos {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxIntentos;
+    private final long backoffInicialMs;
+    private final long backoffMaximoMs;
+
+    public ReintentoConflictos(PlatformTransactionManager transactionManager,
+            @Value("${flota.reintentos.max-intentos:5}") int maxIntentos,
+            @Value("${flota.reintentos.backoff-inicial:20ms}") Duration backoffInicial,
+            @Value("${flota.reintentos.backoff-maximo:500ms}") Duration backoffMaximo) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.backoffInicialMs = Math.max(1, backoffInicial.toMillis());
+        this.backoffMaximoMs = Math.max(backoffInicialMs, backoffMaximo.toMillis());
+    }
+
+    /**
+     * Debe llamarse fuera de una transacción: si hubiera una activa, la operación se uniría a ella
+     * y el reintento no tendría efecto.
+     *
+     * @param operacion descripción para el log
+     * @param accion trabajo a ejecutar en cada intento
+     * @throws ConcurrencyFailureException si el conflicto persiste después del último intento
+     */
+    public <T> T ejecutar(String operacion, Supplier<T> accion) {
+        for (int intento = 1;; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> accion.get());
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= maxIntentos) {
+                    log.warn("Conflicto de concurrencia en {}: se agotaron los {} intentos", operacion, maxIntentos);
+                    throw e;
+                }
+                long espera = esperaAntesDelIntento(intento);
+                log.debug("Conflicto de concurrencia en {} (intento {}), reintentando en {} ms",
+                        operacion, intento, espera);
+                dormir(espera, e);
+            }
+        }
+    }
+
+    private long esperaAntesDelIntento(int intento) {
+        long tope = backoffInicialMs << Math.min(intento - 1, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(tope, backoffMaximoMs) + 1);
+    }
+
+    private static void dormir(long millis, ConcurrencyFailureException conflicto) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflicto;
+        }
+    }
+}
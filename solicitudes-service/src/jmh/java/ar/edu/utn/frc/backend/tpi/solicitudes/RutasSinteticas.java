@@ -0,0 +1,88 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+
+/**
+ * Arma solicitudes en memoria con rutas de N tramos para los benchmarks.
+ * Los tramos intermedios pasan por depósitos y tienen fechas, de modo que se ejerciten
+ * también los cálculos de estadía.
+ */
+public final class RutasSinteticas {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    private RutasSinteticas() {
+    }
+
+    /**
+     * @param cantidadTramos tramos de la ruta (al menos 1)
+     * @param conCostosReales si todos los tramos tienen costo real o solo estimado
+     */
+    public static Solicitud solicitud(int cantidadTramos, boolean conCostosReales) {
+        Cliente cliente = Cliente.builder()
+                .id(1L).nombre("Cliente").email("cliente@tpi.com").telefono("351000000").direccion("Córdoba")
+                .build();
+        Contenedor contenedor = Contenedor.builder()
+                .id(1L).numeroSerie("CONT-1").tipo("20FT").peso(12_000.0).volumen(33.0)
+                .estado(EstadoContenedor.EN_TRASLADO).cliente(cliente)
+                .build();
+        Ruta ruta = Ruta.builder()
+                .id(1L).distanciaTotalKm(cantidadTramos * 120.0).tiempoEstimadoHoras(cantidadTramos * 2.0)
+                .costoEstimado(cantidadTramos * 15_000.0)
+                .build();
+
+        List<Tramo> tramos = new ArrayList<>(cantidadTramos);
+        LocalDateTime momento = INICIO;
+        for (int i = 0; i < cantidadTramos; i++) {
+            LocalDateTime fin = momento.plusHours(2);
+            tramos.add(Tramo.builder()
+                    .id((long) i + 1)
+                    .ruta(ruta)
+                    .origen(i == 0 ? "Origen" : "Depósito " + i)
+                    .destino(i == cantidadTramos - 1 ? "Destino" : "Depósito " + (i + 1))
+                    .tipo(tipo(i, cantidadTramos))
+                    .estado(EstadoTramo.FINALIZADO)
+                    .costoEstimado(15_000.0)
+                    .costoReal(conCostosReales ? 14_500.0 + i : null)
+                    .fechaHoraInicio(momento)
+                    .fechaHoraFin(fin)
+                    .camionId(1L)
+                    .build());
+            // Un día y medio de estadía en cada depósito
+            momento = fin.plusHours(36);
+        }
+        ruta.setTramos(tramos);
+
+        Solicitud solicitud = Solicitud.builder()
+                .id(1L).cliente(cliente).contenedor(contenedor).ruta(ruta)
+                .origenDireccion("Origen").origenLatitud(-31.4).origenLongitud(-64.2)
+                .destinoDireccion("Destino").destinoLatitud(-34.6).destinoLongitud(-58.4)
+                .estado(EstadoSolicitud.EN_TRANSITO).costoEstimado(ruta.getCostoEstimado())
+                .tiempoEstimadoHoras(ruta.getTiempoEstimadoHoras()).fechaCreacion(INICIO.minusDays(1))
+                .build();
+        ruta.setSolicitud(solicitud);
+        return solicitud;
+    }
+
+    private static TipoTramo tipo(int indice, int cantidadTramos) {
+        if (cantidadTramos == 1) {
+            return TipoTramo.ORIGEN_DESTINO;
+        }
+        if (indice == 0) {
+            return TipoTramo.ORIGEN_DEPOSITO;
+        }
+        return indice == cantidadTramos - 1 ? TipoTramo.DEPOSITO_DESTINO : TipoTramo.DEPOSITO_DEPOSITO;
+    }
+}
@@ -0,0 +1,61 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.mapper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.RutasSinteticas;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TramoResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+
+/**
+ * Conversión entidad → DTO de los mappers usados en cada respuesta de solicitudes y rutas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class MapperBenchmark {
+
+    @Param({ "1", "10", "100", "500" })
+    private int cantidadTramos;
+
+    private Solicitud solicitud;
+    private Tramo tramo;
+
+    @Setup
+    public void setUp() {
+        solicitud = RutasSinteticas.solicitud(cantidadTramos, true);
+        tramo = solicitud.getRuta().getTramos().get(0);
+    }
+
+    @Benchmark
+    public SolicitudResponse solicitudToResponse() {
+        return SolicitudMapper.toResponse(solicitud);
+    }
+
+    @Benchmark
+    public RutaResponse rutaToResponse() {
+        return RutaMapper.toResponse(solicitud.getRuta());
+    }
+
+    @Benchmark
+    public TramoResponse tramoToResponse() {
+        return TramoMapper.toResponse(tramo);
+    }
+}
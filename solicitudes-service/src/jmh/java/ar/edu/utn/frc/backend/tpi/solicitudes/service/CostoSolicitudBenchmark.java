@@ -0,0 +1,68 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.RutasSinteticas;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.CostoSolicitudService.DesgloseCostoTotal;
+
+/**
+ * Costo total de una solicitud sobre rutas sintéticas de 1 a 500 tramos, con costos reales
+ * o solo estimados. Se mide el cálculo en memoria, sin la lectura de la base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class CostoSolicitudBenchmark {
+
+    private static final double COSTO_ESTADIA_POR_DIA = 2000.0;
+
+    @Param({ "1", "10", "100", "500" })
+    private int cantidadTramos;
+
+    @Param({ "true", "false" })
+    private boolean conCostosReales;
+
+    private CostoSolicitudService service;
+    private Solicitud solicitud;
+
+    @Setup
+    public void setUp() {
+        service = new CostoSolicitudService(null,
+                new ReglasCostoService(ReglasCosto.de(1000.0, 500.0, COSTO_ESTADIA_POR_DIA)), null);
+        solicitud = RutasSinteticas.solicitud(cantidadTramos, conCostosReales);
+    }
+
+    @Benchmark
+    public DesgloseCostoTotal calcularCostoTotal() {
+        return service.calcularDesglose(solicitud);
+    }
+
+    // Implementación anterior de varias pasadas, para comparar contra calcularCostoTotal
+    @Benchmark
+    public void calcularCostoTotalReferencia(Blackhole blackhole) {
+        List<Tramo> tramos = solicitud.getRuta().getTramos();
+        blackhole.consume(CostoSolicitudReferencia.costoRecorrido(tramos));
+        blackhole.consume(CostoSolicitudReferencia.costoEstadia(tramos, COSTO_ESTADIA_POR_DIA));
+        blackhole.consume(CostoSolicitudReferencia.diasEstadia(tramos));
+        blackhole.consume(CostoSolicitudReferencia.usaCostosReales(tramos));
+    }
+}
@@ -0,0 +1,34 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.RutaRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Las rutas creadas antes de agregar los contadores tienen esas columnas en NULL. Se completan al
+ * iniciar, antes de aceptar pedidos, porque las transiciones de tramo solo los incrementan.
+ */
+@Configuration
+@Slf4j
+public class ContadoresRutaConfig implements InitializingBean {
+
+    private final RutaRepository rutaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ContadoresRutaConfig(RutaRepository rutaRepository, PlatformTransactionManager transactionManager) {
+        this.rutaRepository = rutaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Integer rutas = transactionTemplate.execute(estado -> rutaRepository.inicializarContadoresPendientes());
+        if (rutas != null && rutas > 0) {
+            log.info("Contadores inicializados en {} rutas existentes", rutas);
+        }
+    }
+}
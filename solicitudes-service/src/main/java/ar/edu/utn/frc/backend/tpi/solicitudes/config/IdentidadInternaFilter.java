@@ -0,0 +1,140 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Acepta la identidad firmada por el api-gateway ({@code X-Identidad}) en lugar de volver a
+ * verificar el JWT de Keycloak: comprueba el HMAC con el secreto compartido y el vencimiento, y
+ * arma la autenticación con el mismo convertidor de roles que el Resource Server.
+ *
+ * Sin el encabezado no interviene, de modo que los tokens Bearer (por ejemplo, las llamadas entre
+ * servicios con client credentials) se siguen validando como siempre. No es un bean para que
+ * Spring Boot no lo registre también como filtro del contenedor; lo agrega ResourceServerConfig.
+ */
+@Slf4j
+public class IdentidadInternaFilter extends OncePerRequestFilter {
+
+    public static final String ENCABEZADO = "X-Identidad";
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int LONGITUD_MINIMA_SECRETO = 32;
+
+    private final SecretKeySpec clave;
+    private final ObjectMapper objectMapper;
+    private final JwtAuthenticationConverter jwtAuthenticationConverter;
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    public IdentidadInternaFilter(String secreto, ObjectMapper objectMapper,
+            JwtAuthenticationConverter jwtAuthenticationConverter) {
+        byte[] bytes = secreto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < LONGITUD_MINIMA_SECRETO) {
+            throw new IllegalStateException("tpi.identidad-interna.secreto debe tener al menos "
+                    + LONGITUD_MINIMA_SECRETO + " bytes");
+        }
+        this.clave = new SecretKeySpec(bytes, ALGORITMO);
+        this.objectMapper = objectMapper;
+        this.jwtAuthenticationConverter = jwtAuthenticationConverter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String identidad = request.getHeader(ENCABEZADO);
+        if (identidad == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Jwt jwt;
+        try {
+            jwt = verificar(identidad);
+        } catch (IllegalArgumentException e) {
+            log.debug("Identidad interna rechazada: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+        contexto.setAuthentication(jwtAuthenticationConverter.convert(jwt));
+        SecurityContextHolder.setContext(contexto);
+        securityContextRepository.saveContext(contexto, request, response);
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * @param identidad valor del encabezado
+     * @return claims de la identidad como Jwt, para reutilizar el convertidor de autoridades
+     * @throws IllegalArgumentException si el formato, la firma o el vencimiento no son válidos
+     */
+    Jwt verificar(String identidad) {
+        int separador = identidad.indexOf('.');
+        if (separador <= 0 || separador != identidad.lastIndexOf('.')) {
+            throw new IllegalArgumentException("formato inválido");
+        }
+        String payload = identidad.substring(0, separador);
+        byte[] firma;
+        Map<String, Object> claims;
+        try {
+            firma = Base64.getUrlDecoder().decode(identidad.substring(separador + 1));
+            claims = objectMapper.readValue(Base64.getUrlDecoder().decode(payload),
+                    new TypeReference<Map<String, Object>>() { });
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("formato inválido", e);
+        }
+        // Comparación en tiempo constante
+        if (!MessageDigest.isEqual(firma, firmar(payload))) {
+            throw new IllegalArgumentException("firma inválida");
+        }
+        if (!(claims.get("exp") instanceof Number exp)) {
+            throw new IllegalArgumentException("sin vencimiento");
+        }
+        Instant vencimiento = Instant.ofEpochSecond(exp.longValue());
+        if (!vencimiento.isAfter(Instant.now())) {
+            throw new IllegalArgumentException("identidad vencida");
+        }
+
+        return Jwt.withTokenValue(identidad)
+                .header("alg", "HS256")
+                .claims(c -> {
+                    c.putAll(claims);
+                    c.put("exp", vencimiento);
+                })
+                .build();
+    }
+
+    private byte[] firmar(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo verificar la identidad interna", e);
+        }
+    }
+}
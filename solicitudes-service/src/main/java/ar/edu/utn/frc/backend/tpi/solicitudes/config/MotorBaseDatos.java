@@ -0,0 +1,36 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Motor de la base configurada. Las sentencias nativas propias de PostgreSQL (upserts con
+ * ON CONFLICT ... RETURNING) solo se usan si corresponde; con H2 (pruebas) se sigue por JPA.
+ */
+@Component
+public class MotorBaseDatos {
+
+    private final DataSource dataSource;
+    private volatile Boolean postgres;
+
+    public MotorBaseDatos(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean esPostgres() {
+        Boolean actual = postgres;
+        if (actual == null) {
+            try {
+                String motor = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+                actual = "PostgreSQL".equals(motor);
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("No se pudo determinar el motor de base de datos", e);
+            }
+            postgres = actual;
+        }
+        return actual;
+    }
+}
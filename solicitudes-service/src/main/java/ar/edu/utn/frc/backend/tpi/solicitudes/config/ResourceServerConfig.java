@@ -3,17 +3,24 @@ package ar.edu.utn.frc.backend.tpi.solicitudes.config;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * Configura el servicio como Resource Server protegido por Keycloak.
  * Valida JWT, mapea roles y expone health/info sin autenticacion.
@@ -24,9 +31,24 @@ import org.springframework.security.web.SecurityFilterChain;
 // Config de seguridad para actuar como Resource Server con JWT emitidos por Keycloak.
 public class ResourceServerConfig {
 
+    // Identidad firmada por el api-gateway en lugar del JWT (ver IdentidadInternaFilter)
+    @Value("${tpi.identidad-interna.habilitada:false}")
+    private boolean identidadInternaHabilitada;
+
+    @Value("${tpi.identidad-interna.secreto:}")
+    private String identidadInternaSecreto;
+
+    // Tokens ya verificados y sus autoridades (ver TokenCache)
+    private final TokenCache tokenCache;
+
+    public ResourceServerConfig(TokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
     // Cadena de filtros HTTP: deshabilita CSRF, expone health/info sin auth y exige JWT al resto.
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectMapper objectMapper, JwtDecoder jwtDecoder)
+            throws Exception {
         http
             // Deshabilita CSRF ya que es un API REST.
             .csrf(csrf -> csrf.disable())
@@ -36,7 +58,15 @@ public class ResourceServerConfig {
                 .anyRequest().authenticated())
                 // Configura Resource Server para validar JWT.
             .oauth2ResourceServer(oauth2 -> oauth2
-                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                .jwt(jwt -> jwt
+                    // El decoder que arma Spring Boot solo se usa para tokens que no están en la cache
+                    .decoder(token -> tokenCache.decodificar(token, jwtDecoder::decode))
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter())));
+        // Acepta la identidad firmada por el gateway antes de buscar un token Bearer.
+        if (identidadInternaHabilitada) {
+            http.addFilterBefore(new IdentidadInternaFilter(identidadInternaSecreto, objectMapper,
+                    jwtAuthenticationConverter()), BearerTokenAuthenticationFilter.class);
+        }
         // Construye la cadena de filtros.
         return http.build();
     }
@@ -51,7 +81,7 @@ public class ResourceServerConfig {
         // Convierte roles de realm_access a autoridades ROLE_<ROL>.
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
         // Combina ambas conversiones.
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+        Converter<Jwt, Collection<GrantedAuthority>> autoridades = jwt -> {
             // Incluye scopes y roles del realm en el JWT emitido por Keycloak.
             Collection<GrantedAuthority> authorities = new ArrayList<>(scopesConverter.convert(jwt));
             // Extrae roles del realm_access.
@@ -70,7 +100,8 @@ public class ResourceServerConfig {
             }
             // Devuelve autoridades. 
             return authorities;
-        });
+        };
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> tokenCache.autoridades(jwt, autoridades));
         // Devuelve el convertidor.
         return converter;
     }
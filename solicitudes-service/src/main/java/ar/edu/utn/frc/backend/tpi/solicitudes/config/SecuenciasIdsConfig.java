@@ -0,0 +1,53 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Las entidades pasaron de IDENTITY a secuencias. En bases PostgreSQL que ya tienen datos,
+ * ddl-auto crea cada secuencia empezando en 1 y chocaría con los ids existentes, así que
+ * al iniciar se adelanta cada secuencia hasta el mayor id de su tabla.
+ */
+@Configuration
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class SecuenciasIdsConfig implements InitializingBean {
+
+    private static final List<String> TABLAS = List.of("clientes", "contenedores", "rutas", "tramos", "solicitudes");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SecuenciasIdsConfig(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        String motor = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+        if (!"PostgreSQL".equals(motor)) {
+            return;
+        }
+        for (String tabla : TABLAS) {
+            String secuencia = tabla + "_seq";
+            // El optimizador pooled reparte (valor - 49 .. valor), por eso basta con fijar el máximo actual
+            Long ajustada = jdbcTemplate.query(
+                    "SELECT setval('" + secuencia + "', m.max_id) FROM (SELECT MAX(id) AS max_id FROM " + tabla + ") m "
+                            + "WHERE m.max_id > (SELECT last_value FROM " + secuencia + ")",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            if (ajustada != null) {
+                log.info("Secuencia {} adelantada a {}", secuencia, ajustada);
+            }
+        }
+    }
+}
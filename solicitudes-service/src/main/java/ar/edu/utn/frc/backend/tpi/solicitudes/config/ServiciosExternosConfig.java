@@ -0,0 +1,62 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.client.OAuth2ClientHttpRequestInterceptor;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Clientes HTTP hacia costos-service y flota-service.
+ *
+ * Las llamadas se hacen fuera de cualquier request de usuario (arranque y refresco periódico),
+ * por eso se autentican con client credentials de la cuenta de servicio en Keycloak.
+ */
+@Configuration
+@ConditionalOnProperty(name = "solicitudes.reglas-costo.remoto.habilitado", havingValue = "true")
+public class ServiciosExternosConfig {
+
+    public static final String REGISTRO_CLIENTE = "solicitudes-service";
+
+    @Bean
+    public OAuth2AuthorizedClientManager authorizedClientManager(
+            ClientRegistrationRepository clientRegistrationRepository,
+            OAuth2AuthorizedClientService authorizedClientService) {
+
+        AuthorizedClientServiceOAuth2AuthorizedClientManager manager =
+                new AuthorizedClientServiceOAuth2AuthorizedClientManager(
+                        clientRegistrationRepository, authorizedClientService);
+        manager.setAuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build());
+        return manager;
+    }
+
+    @Bean
+    public RestClient serviciosRestClient(RestClient.Builder builder,
+            OAuth2AuthorizedClientManager authorizedClientManager,
+            @Value("${solicitudes.reglas-costo.remoto.timeout:5s}") Duration timeout) {
+
+        OAuth2ClientHttpRequestInterceptor interceptor =
+                new OAuth2ClientHttpRequestInterceptor(authorizedClientManager);
+        interceptor.setClientRegistrationIdResolver(request -> REGISTRO_CLIENTE);
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+
+        return builder
+                .requestFactory(requestFactory)
+                .requestInterceptor(interceptor)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.controller;
 
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaLoteRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.service.RutaService;
@@ -53,6 +54,17 @@ public class RutaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(rutaCreada);
     }
 
+    @PostMapping("/lote")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Crear rutas tentativas en lote",
+            description = "Crea hasta 500 rutas con sus tramos en una sola transacción. Si alguna ruta es inválida no se crea ninguna.")
+    @ApiResponse(responseCode = "201", description = "Rutas creadas exitosamente")
+    @ApiResponse(responseCode = "400", description = "Datos de alguna ruta inválidos")
+    public ResponseEntity<List<RutaResponse>> crearRutas(@Valid @RequestBody RutaLoteRequest request) {
+        List<RutaResponse> rutasCreadas = rutaService.crearRutas(request.getRutas());
+        return ResponseEntity.status(HttpStatus.CREATED).body(rutasCreadas);
+    }
+
     @PostMapping("/solicitud/{solicitudId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "[CU-04] Crear y asignar ruta a solicitud",
@@ -1,8 +1,11 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.controller;
 
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -11,15 +14,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.PaginaSolicitudesResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.VistaSolicitudResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.service.CostoSolicitudService;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.ImportacionSolicitudesService;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.ReglasCostoService;
 import ar.edu.utn.frc.backend.tpi.solicitudes.service.SolicitudService;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.VistaSolicitudService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -48,8 +58,15 @@ import lombok.extern.slf4j.Slf4j;
 @SecurityRequirement(name = "bearer-jwt")
 public class SolicitudController {
 
+    // Valor de ?include= que pide la lectura por proyección (sin ruta ni tramos)
+    private static final String INCLUDE_SUMMARY = "summary";
+    private static final MediaType FORMATO_CSV = MediaType.parseMediaType("text/csv");
+
     private final SolicitudService solicitudService;
     private final CostoSolicitudService costoSolicitudService;
+    private final ReglasCostoService reglasCostoService;
+    private final VistaSolicitudService vistaSolicitudService;
+    private final ImportacionSolicitudesService importacionSolicitudesService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('CLIENTE', 'ADMIN')")
@@ -96,6 +113,31 @@ public class SolicitudController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * CU-02: Vista completa de un envío en una sola llamada.
+     * Roles: CLIENTE (solo sus solicitudes), ADMIN (todas), TRANSPORTISTA (seguimiento).
+     * Cada parte respeta los roles de su endpoint: CLIENTE no ve progreso ni camiones y
+     * TRANSPORTISTA no ve el costo total.
+     */
+    @GetMapping("/{id}/vista")
+    @PreAuthorize("hasAnyRole('CLIENTE', 'ADMIN', 'TRANSPORTISTA')")
+    @Operation(summary = "Consultar vista completa del envío",
+               description = "Devuelve la solicitud junto con el progreso de la ruta, el costo total y los camiones " +
+                             "asignados, consultados en paralelo. Las partes que no responden a tiempo se omiten " +
+                             "y se listan en 'faltantes'; las que el rol no puede consultar quedan vacías (CU-02)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Vista armada (completa o parcial)",
+                     content = @Content(schema = @Schema(implementation = VistaSolicitudResponse.class))),
+        @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "404", description = "Solicitud no encontrada")
+    })
+    public ResponseEntity<VistaSolicitudResponse> obtenerVista(
+            @Parameter(description = "ID de la solicitud") @PathVariable Long id) {
+
+        log.info("REST: Consultando vista de solicitud {}", id);
+        return ResponseEntity.ok(vistaSolicitudService.obtenerVista(id));
+    }
+
     /**
      * CU-02: Obtener solicitudes de un cliente.
      * Roles: CLIENTE (solo su propio clienteId), ADMIN (cualquier cliente).
@@ -110,10 +152,13 @@ public class SolicitudController {
         @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
     })
     public ResponseEntity<List<SolicitudResponse>> obtenerSolicitudesPorCliente(
-            @Parameter(description = "ID del cliente") @PathVariable Long clienteId) {
+            @Parameter(description = "ID del cliente") @PathVariable Long clienteId,
+            @Parameter(description = "Usar \"summary\" para omitir la ruta y sus tramos")
+            @RequestParam(required = false) String include) {
 
         log.info("REST: Consultando solicitudes del cliente {}", clienteId);
-        List<SolicitudResponse> response = solicitudService.obtenerSolicitudesPorCliente(clienteId);
+        List<SolicitudResponse> response = solicitudService.obtenerSolicitudesPorCliente(
+                clienteId, esResumen(include));
         return ResponseEntity.ok(response);
     }
 
@@ -125,9 +170,11 @@ public class SolicitudController {
         @ApiResponse(responseCode = "200", description = "Solicitudes pendientes obtenidas"),
         @ApiResponse(responseCode = "401", description = "No autorizado")
     })
-    public ResponseEntity<List<SolicitudResponse>> obtenerSolicitudesPendientes() {
+    public ResponseEntity<List<SolicitudResponse>> obtenerSolicitudesPendientes(
+            @Parameter(description = "Usar \"summary\" para omitir la ruta y sus tramos")
+            @RequestParam(required = false) String include) {
         log.info("REST: Consultando solicitudes pendientes");
-        List<SolicitudResponse> response = solicitudService.obtenerSolicitudesPendientes();
+        List<SolicitudResponse> response = solicitudService.obtenerSolicitudesPendientes(esResumen(include));
         return ResponseEntity.ok(response);
     }
 
@@ -142,10 +189,13 @@ public class SolicitudController {
     })
     public ResponseEntity<List<SolicitudResponse>> obtenerSolicitudesPorEstado(
             @Parameter(description = "Estado de la solicitud")
-            @RequestParam EstadoSolicitud estado) {
+            @RequestParam EstadoSolicitud estado,
+            @Parameter(description = "Usar \"summary\" para omitir la ruta y sus tramos")
+            @RequestParam(required = false) String include) {
 
         log.info("REST: Consultando solicitudes con estado {}", estado);
-        List<SolicitudResponse> response = solicitudService.obtenerSolicitudesPorEstado(estado);
+        List<SolicitudResponse> response = solicitudService.obtenerSolicitudesPorEstado(
+                estado, esResumen(include));
         return ResponseEntity.ok(response);
     }
 
@@ -157,12 +207,90 @@ public class SolicitudController {
         @ApiResponse(responseCode = "200", description = "Solicitudes obtenidas"),
         @ApiResponse(responseCode = "401", description = "No autorizado")
     })
-    public ResponseEntity<List<SolicitudResponse>> obtenerTodasLasSolicitudes() {
+    public ResponseEntity<List<SolicitudResponse>> obtenerTodasLasSolicitudes(
+            @Parameter(description = "Usar \"summary\" para omitir la ruta y sus tramos")
+            @RequestParam(required = false) String include) {
         log.info("REST: Consultando todas las solicitudes");
-        List<SolicitudResponse> response = solicitudService.obtenerTodasLasSolicitudes();
+        List<SolicitudResponse> response = solicitudService.obtenerTodasLasSolicitudes(esResumen(include));
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/pagina")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Listar solicitudes paginadas por cursor",
+               description = "Obtiene una página de solicitudes ordenadas por id. " +
+                             "Para la página siguiente se envía el siguienteCursor recibido en despuesDe.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página obtenida",
+                     content = @Content(schema = @Schema(implementation = PaginaSolicitudesResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Estado inválido"),
+        @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    public ResponseEntity<PaginaSolicitudesResponse> obtenerPaginaSolicitudes(
+            @Parameter(description = "Estado de la solicitud (opcional)")
+            @RequestParam(required = false) EstadoSolicitud estado,
+            @Parameter(description = "Solo solicitudes no entregadas")
+            @RequestParam(defaultValue = "false") boolean pendientes,
+            @Parameter(description = "Id de la última solicitud recibida")
+            @RequestParam(required = false) Long despuesDe,
+            @Parameter(description = "Cantidad de solicitudes por página (máximo 500)")
+            @RequestParam(defaultValue = "50") Integer tamanio) {
+
+        log.info("REST: Consultando página de solicitudes después de {}", despuesDe);
+        PaginaSolicitudesResponse response = solicitudService.obtenerPaginaSolicitudes(
+                estado, pendientes, despuesDe, tamanio);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/importacion",
+            consumes = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE, "text/csv" },
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar solicitudes en lote",
+               description = "Recibe órdenes de transporte en NDJSON o CSV con encabezado (cliente y contenedor " +
+                             "aplanados), las registra de a bloques y transmite en NDJSON el resultado de cada " +
+                             "línea en el mismo orden: CREADA con el id, CONFLICTO o ERROR con el motivo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resultados transmitidos"),
+        @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "415", description = "Formato no soportado")
+    })
+    public ResponseEntity<StreamingResponseBody> importarSolicitudes(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream entrada) {
+
+        ImportacionSolicitudesService.Formato formato = FORMATO_CSV.isCompatibleWith(contentType)
+                ? ImportacionSolicitudesService.Formato.CSV
+                : ImportacionSolicitudesService.Formato.NDJSON;
+        log.info("REST: Importando solicitudes en lote ({})", formato);
+        StreamingResponseBody body = salida -> importacionSolicitudesService.importar(entrada, formato, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exportar solicitudes en NDJSON",
+               description = "Transmite las solicitudes como un objeto JSON por línea, leyendo la base de datos " +
+                             "con un cursor para mantener la memoria constante")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Solicitudes transmitidas"),
+        @ApiResponse(responseCode = "400", description = "Estado inválido"),
+        @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarSolicitudes(
+            @Parameter(description = "Estado de la solicitud (opcional)")
+            @RequestParam(required = false) EstadoSolicitud estado,
+            @Parameter(description = "Solo solicitudes no entregadas")
+            @RequestParam(defaultValue = "false") boolean pendientes) {
+
+        log.info("REST: Exportando solicitudes en NDJSON");
+        StreamingResponseBody body = salida -> solicitudService.exportarSolicitudes(estado, pendientes, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PutMapping("/{solicitudId}/ruta/{rutaId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Asignar ruta a solicitud",
@@ -283,4 +411,23 @@ public class SolicitudController {
         CostoSolicitudService.DesgloseCostoTotal desglose = costoSolicitudService.calcularCostoTotal(solicitudId);
         return ResponseEntity.ok(desglose);
     }
+
+    @PostMapping("/reglas-costo/refrescar")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Refrescar reglas de costo",
+               description = "Notifica un cambio de tarifas o depósitos: vuelve a leerlos de costos-service y " +
+                             "flota-service y reemplaza las reglas usadas en el cálculo del costo total")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Reglas refrescadas (o conservadas si los servicios no respondieron)"),
+        @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    public ResponseEntity<Void> refrescarReglasCosto() {
+        log.info("REST: Refrescando reglas de costo");
+        reglasCostoService.refrescar();
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean esResumen(String include) {
+        return INCLUDE_SUMMARY.equalsIgnoreCase(include);
+    }
 }
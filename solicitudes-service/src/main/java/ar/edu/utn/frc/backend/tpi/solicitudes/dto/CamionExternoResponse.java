@@ -0,0 +1,23 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Camión tal como lo expone flota-service (GET /api/camiones/{id}).
+ * Solo se mapean los datos útiles para el seguimiento del envío.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CamionExternoResponse {
+
+    private Long id;
+    private String dominio;
+    private String nombreTransportista;
+    private String telefono;
+    private String estado;
+}
@@ -0,0 +1,22 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Depósito tal como lo expone flota-service (GET /api/depositos).
+ * Solo se mapean los campos usados por las reglas de costo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepositoExternoResponse {
+
+    private Long id;
+    private String nombre;
+    private String direccion;
+    private Double costoEstadiaDiaria;
+}
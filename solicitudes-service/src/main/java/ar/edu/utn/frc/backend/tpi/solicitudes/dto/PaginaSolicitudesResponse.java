@@ -0,0 +1,29 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de respuesta para listados paginados por cursor (keyset).
+ * Para obtener la página siguiente se envía {@code siguienteCursor} como parámetro {@code despuesDe}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaSolicitudesResponse {
+
+    private List<SolicitudResponse> solicitudes;
+
+    // Id de la última solicitud de la página (null si la página está vacía)
+    private Long siguienteCursor;
+
+    // Indica si existen más solicitudes después de esta página
+    private Boolean hayMas;
+
+    private Integer tamanio;
+}
@@ -0,0 +1,26 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para la creación de varias rutas tentativas en una sola operación.
+ * Todas las rutas se crean en la misma transacción: si una es inválida no se crea ninguna.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RutaLoteRequest {
+
+    @NotEmpty(message = "El lote debe contener al menos una ruta")
+    @Size(max = 500, message = "El lote no puede superar las 500 rutas")
+    private List<@Valid RutaRequest> rutas;
+}
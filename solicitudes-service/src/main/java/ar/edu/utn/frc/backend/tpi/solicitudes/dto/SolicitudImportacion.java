@@ -0,0 +1,58 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Una orden de transporte de la importación masiva, con cliente y contenedor aplanados para
+ * que la misma forma sirva como línea NDJSON o como fila CSV (con encabezado).
+ * Se valida convirtiéndola a {@link SolicitudRequest}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudImportacion {
+
+    private String clienteNombre;
+    private String clienteEmail;
+    private String clienteTelefono;
+    private String clienteDireccion;
+
+    private String contenedorNumeroSerie;
+    private String contenedorTipo;
+    private Double contenedorPeso;
+    private Double contenedorVolumen;
+
+    private String origenDireccion;
+    private Double origenLatitud;
+    private Double origenLongitud;
+    private String destinoDireccion;
+    private Double destinoLatitud;
+    private Double destinoLongitud;
+
+    public SolicitudRequest toRequest() {
+        return SolicitudRequest.builder()
+                .cliente(ClienteRequest.builder()
+                        .nombre(clienteNombre)
+                        .email(clienteEmail)
+                        .telefono(clienteTelefono)
+                        .direccion(clienteDireccion)
+                        .build())
+                .contenedor(ContenedorRequest.builder()
+                        .numeroSerie(contenedorNumeroSerie)
+                        .tipo(contenedorTipo)
+                        .peso(contenedorPeso)
+                        .volumen(contenedorVolumen)
+                        .build())
+                .origenDireccion(origenDireccion)
+                .origenLatitud(origenLatitud)
+                .origenLongitud(origenLongitud)
+                .destinoDireccion(destinoDireccion)
+                .destinoLatitud(destinoLatitud)
+                .destinoLongitud(destinoLongitud)
+                .build();
+    }
+}
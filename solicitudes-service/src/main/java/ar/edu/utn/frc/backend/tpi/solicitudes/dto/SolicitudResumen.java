@@ -0,0 +1,34 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import java.time.LocalDateTime;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+
+/**
+ * Proyección de solo lectura con las columnas necesarias para un SolicitudResponse sin ruta.
+ * Se construye directamente desde la consulta JPQL (constructor expression), sin hidratar
+ * entidades ni registrarlas en el contexto de persistencia.
+ */
+public record SolicitudResumen(
+        Long id,
+        EstadoSolicitud estado,
+        LocalDateTime fechaCreacion,
+        Long clienteId,
+        String clienteNombre,
+        String clienteEmail,
+        Long contenedorId,
+        String contenedorNumeroSerie,
+        Double contenedorPeso,
+        Double contenedorVolumen,
+        String origenDireccion,
+        Double origenLatitud,
+        Double origenLongitud,
+        String destinoDireccion,
+        Double destinoLatitud,
+        Double destinoLongitud,
+        Long rutaId,
+        Double costoEstimado,
+        Double tiempoEstimadoHoras,
+        Double costoFinal,
+        Double tiempoRealHoras) {
+}
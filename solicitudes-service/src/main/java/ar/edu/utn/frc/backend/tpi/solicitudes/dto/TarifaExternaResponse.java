@@ -0,0 +1,21 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tarifa tal como la expone costos-service (GET /api/tarifas).
+ * Solo se mapean los campos usados por las reglas de costo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TarifaExternaResponse {
+
+    private Long id;
+    private String nombre;
+    private Double costoEstadiaDiaria;
+}
@@ -0,0 +1,43 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.CostoSolicitudService;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.RutaService;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vista completa de un envío: solicitud, progreso de la ruta, costo total y camiones asignados.
+ * Reemplaza las consultas que el cliente hacía una por una (CU-02).
+ *
+ * Si alguna parte no pudo obtenerse a tiempo queda en null y se informa en {@code faltantes};
+ * el resto de la vista se devuelve igual.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VistaSolicitudResponse {
+
+    private SolicitudResponse solicitud;
+
+    // Null si la solicitud no tiene ruta asignada
+    private RutaService.ProgresoRuta progreso;
+    private CostoSolicitudService.DesgloseCostoTotal costoTotal;
+
+    // Un camión por cada camionId distinto de los tramos
+    @Builder.Default
+    private List<CamionExternoResponse> camiones = new ArrayList<>();
+
+    // Partes que fallaron o vencieron, con el motivo ("costoTotal: timeout")
+    @Builder.Default
+    private List<String> faltantes = new ArrayList<>();
+
+    public boolean isCompleta() {
+        return faltantes.isEmpty();
+    }
+}
@@ -0,0 +1,61 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Desglose de costo total guardado al entregar una solicitud.
+ * Una vez ENTREGADA los valores no cambian, así que se sirven desde esta tabla
+ * sin volver a cargar contenedor, ruta y tramos.
+ */
+@Entity
+@Table(name = "desgloses_costo")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DesgloseCosto {
+
+    // Mismo id que la solicitud: una fila por solicitud entregada
+    @Id
+    @Column(name = "solicitud_id")
+    private Long solicitudId;
+
+    @Column(name = "costo_recorrido", nullable = false)
+    private Double costoRecorrido;
+
+    @Column(name = "distancia_total_km")
+    private Double distanciaTotalKm;
+
+    @Column(name = "costo_peso_volumen", nullable = false)
+    private Double costoPesoVolumen;
+
+    @Column(name = "peso_contenedor_kg")
+    private Double pesoContenedorKg;
+
+    @Column(name = "volumen_contenedor_m3")
+    private Double volumenContenedorM3;
+
+    @Column(name = "costo_estadia", nullable = false)
+    private Double costoEstadia;
+
+    @Column(name = "dias_estadia", nullable = false)
+    private Double diasEstadia;
+
+    @Column(name = "costo_total", nullable = false)
+    private Double costoTotal;
+
+    @Column(name = "usa_costos_reales", nullable = false)
+    private Boolean usaCostosReales;
+
+    @Column(name = "fecha_calculo", nullable = false)
+    private LocalDateTime fechaCalculo; // Momento en que se entregó la solicitud y se fijó el costo
+}
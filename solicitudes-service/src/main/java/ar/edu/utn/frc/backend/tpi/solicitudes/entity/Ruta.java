@@ -1,8 +1,12 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.entity;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -11,11 +15,16 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 // Ruta es el recorrido estimado que se arma para una solicitud, compuesto por uno o mas tramos.
 // Sobre esa ruta se calculan: 
@@ -36,11 +45,22 @@ import lombok.NoArgsConstructor;
 public class Ruta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rutas_seq")
+    @SequenceGenerator(name = "rutas_seq", sequenceName = "rutas_seq", allocationSize = 50)
     private Long id;
+    // Control de concurrencia optimista. Las actualizaciones de contadores también la incrementan,
+    // así un guardado de la entidad con contadores viejos falla en lugar de pisarlos
+    @Version
+    @ColumnDefault("0") // filas existentes al agregar la columna con ddl-auto
+    @Column(nullable = false)
+    private Long version;
+    // Lado inverso: fuera de equals/hashCode/toString para no recorrer Solicitud -> Ruta -> Solicitud
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToOne(mappedBy = "ruta")
     private Solicitud solicitud;
     @Builder.Default
+    @BatchSize(size = 50) // al listar solicitudes, los tramos de hasta 50 rutas se cargan en un solo SELECT
     @OneToMany(mappedBy = "ruta", cascade = CascadeType.ALL, orphanRemoval = true) // si un tramo se elimina de la ruta, se elimina de la BD
     private List<Tramo> tramos = new ArrayList<>();
     @Column(name = "distancia_total_km")
@@ -49,5 +69,51 @@ public class Ruta {
     private Double tiempoEstimadoHoras;
     @Column(name = "costo_estimado")
     private Double costoEstimado;
-    
+
+    // Contadores mantenidos con cada transición de tramo (ver RutaRepository): permiten saber si la
+    // ruta terminó y calcular su progreso sin cargar los tramos. Se calculan a partir de los tramos al persistir.
+    @Column(name = "total_tramos")
+    private Integer totalTramos;
+    @Column(name = "tramos_iniciados")
+    private Integer tramosIniciados; // tramos en estado INICIADO
+    @Column(name = "tramos_finalizados")
+    private Integer tramosFinalizados;
+    @Column(name = "costo_real_acumulado")
+    private Double costoRealAcumulado; // suma del costo real de los tramos finalizados
+    @Column(name = "fecha_fin_ultimo_tramo")
+    private LocalDateTime fechaFinUltimoTramo;
+
+    @PrePersist
+    void inicializarContadores() {
+        int iniciados = 0;
+        int finalizados = 0;
+        double costoReal = 0.0;
+        LocalDateTime ultimoFin = null;
+        for (Tramo tramo : tramos) {
+            if (tramo.getEstado() == EstadoTramo.INICIADO) {
+                iniciados++;
+            } else if (tramo.getEstado() == EstadoTramo.FINALIZADO) {
+                finalizados++;
+                if (tramo.getCostoReal() != null) {
+                    costoReal += tramo.getCostoReal();
+                }
+                if (tramo.getFechaHoraFin() != null
+                        && (ultimoFin == null || tramo.getFechaHoraFin().isAfter(ultimoFin))) {
+                    ultimoFin = tramo.getFechaHoraFin();
+                }
+            }
+        }
+        totalTramos = tramos.size();
+        tramosIniciados = iniciados;
+        tramosFinalizados = finalizados;
+        costoRealAcumulado = costoReal;
+        fechaFinUltimoTramo = ultimoFin;
+    }
+
+    /**
+     * @return true si todos los tramos de la ruta están finalizados
+     */
+    public boolean estaCompleta() {
+        return totalTramos != null && totalTramos > 0 && tramosFinalizados >= totalTramos;
+    }
 }
@@ -2,6 +2,8 @@ package ar.edu.utn.frc.backend.tpi.solicitudes.entity;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -11,8 +13,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,15 +26,29 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "solicitudes")
+// Grafo usado por los listados: trae cliente, contenedor y ruta en el mismo SELECT.
+// Los tramos de las rutas se cargan por lotes (ver Ruta.tramos).
+@NamedEntityGraph(name = Solicitud.GRAFO_LISTADO, attributeNodes = {
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("contenedor"),
+        @NamedAttributeNode("ruta")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Solicitud {
 
+    public static final String GRAFO_LISTADO = "Solicitud.listado";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "solicitudes_seq")
+    @SequenceGenerator(name = "solicitudes_seq", sequenceName = "solicitudes_seq", allocationSize = 50)
     private Long id;
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
     @ManyToOne(optional = false)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Cliente cliente; //Cliente que realiza la solicitud
@@ -2,6 +2,8 @@ package ar.edu.utn.frc.backend.tpi.solicitudes.entity;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -11,7 +13,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,9 +29,16 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Tramo {
 
+    // Secuencia con optimizador pooled (50 ids por llamada): a diferencia de IDENTITY,
+    // permite que Hibernate agrupe los INSERT de los tramos de una ruta en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tramos_seq")
+    @SequenceGenerator(name = "tramos_seq", sequenceName = "tramos_seq", allocationSize = 50)
     private Long id;
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
     @ManyToOne(optional = false)
     @JoinColumn(name = "ruta_id", nullable = false)
     private Ruta ruta;
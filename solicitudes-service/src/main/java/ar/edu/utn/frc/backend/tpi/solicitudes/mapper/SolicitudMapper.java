@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResumen;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
@@ -156,6 +157,42 @@ public class SolicitudMapper {
                 .build();
     }
 
+    /**
+     * Convierte una proyección SolicitudResumen a SolicitudResponse (sin la ruta completa).
+     *
+     * @param resumen proyección leída de la base de datos
+     * @return DTO de respuesta simplificado
+     */
+    public static SolicitudResponse toResponse(SolicitudResumen resumen) {
+        if (resumen == null) {
+            return null;
+        }
+
+        return SolicitudResponse.builder()
+                .id(resumen.id())
+                .estado(resumen.estado() != null ? resumen.estado().name() : null)
+                .fechaCreacion(resumen.fechaCreacion())
+                .clienteId(resumen.clienteId())
+                .clienteNombre(resumen.clienteNombre())
+                .clienteEmail(resumen.clienteEmail())
+                .contenedorId(resumen.contenedorId())
+                .contenedorNumeroSerie(resumen.contenedorNumeroSerie())
+                .contenedorPeso(resumen.contenedorPeso())
+                .contenedorVolumen(resumen.contenedorVolumen())
+                .origenDireccion(resumen.origenDireccion())
+                .origenLatitud(resumen.origenLatitud())
+                .origenLongitud(resumen.origenLongitud())
+                .destinoDireccion(resumen.destinoDireccion())
+                .destinoLatitud(resumen.destinoLatitud())
+                .destinoLongitud(resumen.destinoLongitud())
+                .rutaId(resumen.rutaId())
+                .costoEstimado(resumen.costoEstimado())
+                .tiempoEstimadoHoras(resumen.tiempoEstimadoHoras())
+                .costoFinal(resumen.costoFinal())
+                .tiempoRealHoras(resumen.tiempoRealHoras())
+                .build();
+    }
+
     /**
      * Actualiza una entidad Solicitud existente con datos de un SolicitudRequest.
      * No modifica el ID, cliente, contenedor, estado ni fechas.
@@ -1,10 +1,13 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
 
-import java.util.Optional;
-
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
 
@@ -31,6 +34,34 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      */
     boolean existsByEmail(String email);
 
+    List<Cliente> findByEmailIn(Collection<String> emails);
+
+    /**
+     * Ids de los clientes con ese email sin distinguir mayúsculas, como se compara contra el token.
+     *
+     * @param email email en minúsculas
+     */
+    @Query("select c.id from Cliente c where lower(c.email) = :email order by c.id")
+    List<Long> findIdsByEmailNormalizado(@Param("email") String email);
+
+    /**
+     * Alta o lectura del cliente con ese email en una sola sentencia (solo PostgreSQL).
+     * Si el email ya existe se conserva el registro guardado; el DO UPDATE sin cambios es para que
+     * RETURNING devuelva también la fila existente. Dos altas simultáneas con el mismo email
+     * obtienen el mismo cliente en lugar de chocar con la restricción única.
+     * El id sale directo de la secuencia: el optimizador pooled nunca reparte el valor devuelto
+     * por nextval a otra entidad.
+     *
+     * @return cliente administrado, nuevo o existente
+     */
+    @Transactional
+    @Query(value = "INSERT INTO clientes (id, nombre, email, telefono, direccion) "
+            + "VALUES (nextval('clientes_seq'), :nombre, :email, :telefono, :direccion) "
+            + "ON CONFLICT (email) DO UPDATE SET email = EXCLUDED.email "
+            + "RETURNING *", nativeQuery = true)
+    Cliente upsertPorEmail(@Param("nombre") String nombre, @Param("email") String email,
+            @Param("telefono") String telefono, @Param("direccion") String direccion);
+
     //findByNombre
     List<Cliente> findByNombreContainingIgnoreCase(String nombre);
 
@@ -1,9 +1,13 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
@@ -31,6 +35,24 @@ public interface ContenedorRepository extends JpaRepository<Contenedor, Long> {
      */
     boolean existsByNumeroSerie(String numeroSerie);
 
+    List<Contenedor> findByNumeroSerieIn(Collection<String> numerosSerie);
+
+    /**
+     * Alta o lectura del contenedor con ese número de serie en una sola sentencia (solo PostgreSQL).
+     * Un contenedor existente se devuelve sin modificar. El DO UPDATE bloquea la fila hasta el fin
+     * de la transacción, así que dos solicitudes simultáneas para el mismo contenedor se ordenan y
+     * la segunda ve la solicitud activa de la primera.
+     *
+     * @return contenedor administrado, nuevo o existente
+     */
+    @Transactional
+    @Query(value = "INSERT INTO contenedores (id, numero_serie, tipo, peso, volumen, estado, cliente_id) "
+            + "VALUES (nextval('contenedores_seq'), :numeroSerie, :tipo, :peso, :volumen, 'REGISTRADO', :clienteId) "
+            + "ON CONFLICT (numero_serie) DO UPDATE SET numero_serie = EXCLUDED.numero_serie "
+            + "RETURNING *", nativeQuery = true)
+    Contenedor upsertPorNumeroSerie(@Param("numeroSerie") String numeroSerie, @Param("tipo") String tipo,
+            @Param("peso") Double peso, @Param("volumen") Double volumen, @Param("clienteId") Long clienteId);
+
     /**
      * Busca todos los contenedores de un cliente específico.
      *
@@ -0,0 +1,19 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.DesgloseCosto;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+
+public interface DesgloseCostoRepository extends JpaRepository<DesgloseCosto, Long> {
+
+    // Desglose guardado, solo si la solicitud sigue en el estado indicado (un SELECT, sin cargar la solicitud)
+    @Query("select d from DesgloseCosto d where d.solicitudId = :solicitudId and exists "
+            + "(select 1 from Solicitud s where s.id = d.solicitudId and s.estado = :estado)")
+    Optional<DesgloseCosto> findBySolicitudIdAndEstadoSolicitud(@Param("solicitudId") Long solicitudId,
+            @Param("estado") EstadoSolicitud estado);
+}
@@ -1,9 +1,79 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
 
+/**
+ * Los contadores de la ruta (total, iniciados, finalizados, costo real, último fin) se actualizan con
+ * UPDATE atómicos en la misma transacción que la transición del tramo. Todos incrementan la versión.
+ */
 public interface RutaRepository extends JpaRepository<Ruta, Long> {
-    
+
+    String RUTA_DEL_TRAMO = "(select t.ruta.id from Tramo t where t.id = :tramoId)";
+
+    String CONTADORES_DESDE_TRAMOS = "r.totalTramos = (select count(t) from Tramo t where t.ruta = r), "
+            + "r.tramosIniciados = (select count(t) from Tramo t where t.ruta = r and t.estado = "
+            + TramoRepository.ESTADO + "INICIADO), "
+            + "r.tramosFinalizados = (select count(t) from Tramo t where t.ruta = r and t.estado = "
+            + TramoRepository.ESTADO + "FINALIZADO), "
+            + "r.costoRealAcumulado = (select coalesce(sum(t.costoReal), 0) from Tramo t where t.ruta = r and t.estado = "
+            + TramoRepository.ESTADO + "FINALIZADO), "
+            + "r.fechaFinUltimoTramo = (select max(t.fechaHoraFin) from Tramo t where t.ruta = r and t.estado = "
+            + TramoRepository.ESTADO + "FINALIZADO) ";
+
+    /**
+     * Cuenta un tramo que pasó de ASIGNADO a INICIADO.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ruta r set r.version = r.version + 1, r.tramosIniciados = r.tramosIniciados + 1 "
+            + "where r.id = " + RUTA_DEL_TRAMO)
+    int contarInicioTramo(@Param("tramoId") Long tramoId);
+
+    /**
+     * Cuenta un tramo que pasó de INICIADO a FINALIZADO, sumando su costo real y su fecha de fin.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ruta r set r.version = r.version + 1, "
+            + "r.tramosIniciados = r.tramosIniciados - 1, r.tramosFinalizados = r.tramosFinalizados + 1, "
+            + "r.costoRealAcumulado = r.costoRealAcumulado "
+            + "+ coalesce((select t.costoReal from Tramo t where t.id = :tramoId), 0), "
+            + "r.fechaFinUltimoTramo = case when r.fechaFinUltimoTramo is null or r.fechaFinUltimoTramo < :fechaFin "
+            + "then :fechaFin else r.fechaFinUltimoTramo end "
+            + "where r.id = " + RUTA_DEL_TRAMO)
+    int contarFinTramo(@Param("tramoId") Long tramoId, @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Suma (o resta) tramos al total, al agregar o eliminar tramos de una ruta existente.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ruta r set r.version = r.version + 1, r.totalTramos = r.totalTramos + :cantidad where r.id = :rutaId")
+    int sumarTramos(@Param("rutaId") Long rutaId, @Param("cantidad") int cantidad);
+
+    /**
+     * Ajusta el costo real acumulado cuando cambia el costo real de un tramo finalizado.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ruta r set r.version = r.version + 1, r.costoRealAcumulado = r.costoRealAcumulado + :diferencia "
+            + "where r.id = :rutaId")
+    int sumarCostoReal(@Param("rutaId") Long rutaId, @Param("diferencia") double diferencia);
+
+    /**
+     * Recalcula los contadores recorriendo los tramos; para cambios de estado manuales.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ruta r set r.version = r.version + 1, " + CONTADORES_DESDE_TRAMOS + "where r.id = :rutaId")
+    int recalcularContadores(@Param("rutaId") Long rutaId);
+
+    /**
+     * Calcula los contadores de las rutas creadas antes de que existieran las columnas.
+     */
+    @Modifying
+    @Query("update Ruta r set " + CONTADORES_DESDE_TRAMOS + "where r.totalTramos is null")
+    int inicializarContadoresPendientes();
 }
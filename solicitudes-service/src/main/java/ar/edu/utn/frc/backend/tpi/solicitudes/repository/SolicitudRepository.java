@@ -1,19 +1,128 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResumen;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import jakarta.persistence.QueryHint;
 
+/**
+ * Los métodos de listado usan el grafo {@link Solicitud#GRAFO_LISTADO} para traer cliente,
+ * contenedor y ruta con JOIN y evitar un SELECT por cada solicitud al mapear la respuesta.
+ */
 public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
 
+    /**
+     * SELECT común de las consultas de resumen: solo las columnas de SolicitudResponse (sin tramos),
+     * resueltas en una única sentencia con JOIN a cliente, contenedor y ruta.
+     */
+    String SELECT_RESUMEN = "select new ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResumen("
+            + "s.id, s.estado, s.fechaCreacion, "
+            + "c.id, c.nombre, c.email, "
+            + "ct.id, ct.numeroSerie, ct.peso, ct.volumen, "
+            + "s.origenDireccion, s.origenLatitud, s.origenLongitud, "
+            + "s.destinoDireccion, s.destinoLatitud, s.destinoLongitud, "
+            + "r.id, s.costoEstimado, s.tiempoEstimadoHoras, s.costoFinal, s.tiempoRealHoras) "
+            + "from Solicitud s join s.cliente c join s.contenedor ct left join s.ruta r ";
+
+    @Override
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
+    List<Solicitud> findAll();
+
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
     List<Solicitud> findByClienteId(Long clienteId);
 
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
     List<Solicitud> findByEstado(EstadoSolicitud estado);
 
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
     List<Solicitud> findByEstadoNot(EstadoSolicitud estado);
 
     List<Solicitud> findByContenedorIdAndEstadoNot(Long contenedorId, EstadoSolicitud estado);
+
+    boolean existsByContenedorIdAndEstadoNot(Long contenedorId, EstadoSolicitud estado);
+
+    /**
+     * Contenedores del conjunto que ya tienen una solicitud en un estado distinto del indicado.
+     * Usado por la importación masiva para controlar un bloque entero con una sola consulta.
+     */
+    @Query("select distinct s.contenedor.id from Solicitud s "
+            + "where s.contenedor.id in :contenedorIds and s.estado <> :estado")
+    List<Long> findContenedorIdsConSolicitudEnEstadoNot(@Param("contenedorIds") Collection<Long> contenedorIds,
+            @Param("estado") EstadoSolicitud estado);
+
+    /**
+     * Página keyset: solicitudes con id mayor al cursor, ordenadas por id.
+     * Con varias réplicas el orden de ids no es el cronológico (cada una reserva bloques de la secuencia).
+     */
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
+    List<Solicitud> findByIdGreaterThanOrderByIdAsc(Long despuesDe, Limit limit);
+
+    /**
+     * Página keyset filtrada por estado.
+     */
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
+    List<Solicitud> findByEstadoAndIdGreaterThanOrderByIdAsc(EstadoSolicitud estado, Long despuesDe, Limit limit);
+
+    /**
+     * Página keyset excluyendo un estado (usada para pendientes).
+     */
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
+    List<Solicitud> findByEstadoNotAndIdGreaterThanOrderByIdAsc(EstadoSolicitud estado, Long despuesDe, Limit limit);
+
+    /**
+     * Recorre todas las solicitudes con un cursor del lado de la base de datos.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Solicitud> streamAllByOrderByIdAsc();
+
+    /**
+     * Recorre las solicitudes de un estado con un cursor del lado de la base de datos.
+     */
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Solicitud> streamByEstadoOrderByIdAsc(EstadoSolicitud estado);
+
+    /**
+     * Recorre las solicitudes que no están en el estado indicado con un cursor del lado de la base de datos.
+     */
+    @EntityGraph(Solicitud.GRAFO_LISTADO)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Solicitud> streamByEstadoNotOrderByIdAsc(EstadoSolicitud estado);
+
+    @Query(SELECT_RESUMEN + "order by s.id")
+    List<SolicitudResumen> findAllResumenes();
+
+    @Query(SELECT_RESUMEN + "where c.id = :clienteId order by s.id")
+    List<SolicitudResumen> findResumenesByClienteId(@Param("clienteId") Long clienteId);
+
+    @Query(SELECT_RESUMEN + "where s.estado = :estado order by s.id")
+    List<SolicitudResumen> findResumenesByEstado(@Param("estado") EstadoSolicitud estado);
+
+    @Query(SELECT_RESUMEN + "where s.estado <> :estado order by s.id")
+    List<SolicitudResumen> findResumenesByEstadoNot(@Param("estado") EstadoSolicitud estado);
+
+    /**
+     * PROGRAMADA → EN_TRANSITO en una sola sentencia; no hace nada si la solicitud ya salió de PROGRAMADA.
+     *
+     * @return filas actualizadas (0 o 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Solicitud s set s.version = s.version + 1, s.estado = ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud.EN_TRANSITO "
+            + "where s.id = :id and s.estado = ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud.PROGRAMADA")
+    int marcarEnTransito(@Param("id") Long id);
 }
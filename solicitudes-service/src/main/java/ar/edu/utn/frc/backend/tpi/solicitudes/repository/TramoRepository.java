@@ -1,8 +1,12 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
@@ -10,9 +14,16 @@ import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
 /**
  * Repositorio para la entidad Tramo.
  * Proporciona operaciones CRUD y consultas personalizadas.
+ *
+ * Las transiciones de estado son UPDATE condicionales sobre el estado esperado: cada una se resuelve
+ * en una sola sentencia y, si dos pedidos concurrentes compiten por el mismo tramo, solo uno modifica
+ * la fila. Devuelven la cantidad de filas actualizadas (0 si el tramo no existe o cambió de estado).
+ * Como el UPDATE masivo no pasa por el contexto de persistencia, incrementan la versión a mano.
  */
 public interface TramoRepository extends JpaRepository<Tramo, Long> {
 
+    String ESTADO = "ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo.";
+
     /**
      * Busca todos los tramos de una ruta específica.
      *
@@ -45,4 +56,28 @@ public interface TramoRepository extends JpaRepository<Tramo, Long> {
      * @return lista de tramos que cumplen las condiciones
      */
     List<Tramo> findByRutaIdAndEstado(Long rutaId, EstadoTramo estado);
+
+    /**
+     * ESTIMADO → ASIGNADO, registrando el camión.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Tramo t set t.version = t.version + 1, t.camionId = :camionId, t.estado = " + ESTADO + "ASIGNADO "
+            + "where t.id = :id and t.estado = " + ESTADO + "ESTIMADO")
+    int asignarCamion(@Param("id") Long id, @Param("camionId") Long camionId);
+
+    /**
+     * ASIGNADO → INICIADO, solo si el tramo tiene camión asignado.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Tramo t set t.version = t.version + 1, t.fechaHoraInicio = :fecha, t.estado = " + ESTADO + "INICIADO "
+            + "where t.id = :id and t.estado = " + ESTADO + "ASIGNADO and t.camionId is not null")
+    int iniciar(@Param("id") Long id, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * INICIADO → FINALIZADO.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Tramo t set t.version = t.version + 1, t.fechaHoraFin = :fecha, t.estado = " + ESTADO + "FINALIZADO "
+            + "where t.id = :id and t.estado = " + ESTADO + "INICIADO")
+    int finalizar(@Param("id") Long id, @Param("fecha") LocalDateTime fecha);
 }
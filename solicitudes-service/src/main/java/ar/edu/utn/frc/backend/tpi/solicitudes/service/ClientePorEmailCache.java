@@ -0,0 +1,97 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ClienteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cliente asociado al email del token, para que los controles de propiedad no consulten la base
+ * en cada request. Acotada por tamaño y con TTL: las altas y cambios hechos en otras réplicas se
+ * ven a más tardar al vencer la entrada. En esta réplica, ClienteService la invalida al confirmar
+ * un cambio o baja de cliente.
+ *
+ * Métricas en /actuator/metrics: cache.gets (result=hit|miss), cache.size, cache.evictions y
+ * cache.hit.ratio, todas con cache=clientesPorEmail.
+ */
+@Component
+@Slf4j
+public class ClientePorEmailCache {
+
+    public static final String NOMBRE_CACHE = "clientesPorEmail";
+
+    private final ClienteRepository clienteRepository;
+    private final Cache<String, Long> cache;
+
+    // Publicado por ClienteService con los emails afectados (anterior y nuevo si cambió)
+    public record ClientesModificadosEvent(Collection<String> emails) {
+    }
+
+    // Publicado por SolicitudService con el cliente obtenido o creado en el alta de una solicitud
+    public record ClienteRegistradoEvent(String email, Long clienteId) {
+    }
+
+    public ClientePorEmailCache(ClienteRepository clienteRepository, MeterRegistry meterRegistry,
+            @Value("${solicitudes.clientes.cache.tamanio-maximo:10000}") long tamanioMaximo,
+            @Value("${solicitudes.clientes.cache.ttl:10m}") Duration ttl) {
+        this.clienteRepository = clienteRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE_CACHE);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", NOMBRE_CACHE)
+                .description("Proporción de búsquedas resueltas desde memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param email email del token (se compara sin distinguir mayúsculas)
+     * @return id del cliente con ese email; vacío si no hay ninguno (las ausencias no se guardan)
+     */
+    public Optional<Long> obtenerId(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(normalizar(email),
+                clave -> clienteRepository.findIdsByEmailNormalizado(clave).stream().findFirst().orElse(null)));
+    }
+
+    // Se guarda recién al confirmar: un alta que hace rollback no deja un id inexistente en memoria
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClienteRegistrado(ClienteRegistradoEvent evento) {
+        if (evento.email() != null && evento.clienteId() != null) {
+            cache.put(normalizar(evento.email()), evento.clienteId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClientesModificados(ClientesModificadosEvent evento) {
+        evento.emails().stream()
+                .filter(Objects::nonNull)
+                .map(ClientePorEmailCache::normalizar)
+                .forEach(cache::invalidate);
+        log.debug("Cache de clientes por email invalidada para {}", evento.emails());
+    }
+
+    private static String normalizar(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
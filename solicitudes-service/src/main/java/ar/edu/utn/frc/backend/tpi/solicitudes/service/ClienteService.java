@@ -3,9 +3,11 @@ package ar.edu.utn.frc.backend.tpi.solicitudes.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ar.edu.utn.frc.backend.tpi.solicitudes.config.MotorBaseDatos;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ClienteRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ClienteResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
@@ -28,6 +30,8 @@ import lombok.extern.slf4j.Slf4j;
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final MotorBaseDatos motorBaseDatos;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Crear un nuevo cliente.
@@ -137,6 +141,8 @@ public class ClienteService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Cliente no encontrado con id: " + id));
 
+        String emailAnterior = cliente.getEmail();
+
         // Validar que el nuevo email no esté en uso por otro cliente
         if (!cliente.getEmail().equals(request.getEmail())) {
             clienteRepository.findByEmail(request.getEmail()).ifPresent(c -> {
@@ -147,6 +153,8 @@ public class ClienteService {
 
         ClienteMapper.updateEntity(cliente, request);
         Cliente clienteActualizado = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(new ClientePorEmailCache.ClientesModificadosEvent(
+                List.of(emailAnterior, clienteActualizado.getEmail())));
 
         log.info("Cliente actualizado con id: {}", clienteActualizado.getId());
         return ClienteMapper.toResponse(clienteActualizado);
@@ -175,6 +183,7 @@ public class ClienteService {
         // }
 
         clienteRepository.delete(cliente);
+        eventPublisher.publishEvent(new ClientePorEmailCache.ClientesModificadosEvent(List.of(cliente.getEmail())));
         log.info("Cliente eliminado con id: {}", id);
     }
 
@@ -211,4 +220,21 @@ public class ClienteService {
                     return crearCliente(request);
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * Variante de obtenerOCrearCliente para el alta de solicitudes: devuelve la entidad
+     * administrada para asociarla sin volver a leerla. En PostgreSQL es un único upsert.
+     *
+     * @param request datos del cliente
+     * @return cliente existente o recién creado
+     */
+    @Transactional
+    public Cliente obtenerOCrearEntidad(ClienteRequest request) {
+        if (motorBaseDatos.esPostgres()) {
+            return clienteRepository.upsertPorEmail(
+                    request.getNombre(), request.getEmail(), request.getTelefono(), request.getDireccion());
+        }
+        return clienteRepository.findByEmail(request.getEmail())
+                .orElseGet(() -> clienteRepository.save(ClienteMapper.toEntity(request)));
+    }
+}
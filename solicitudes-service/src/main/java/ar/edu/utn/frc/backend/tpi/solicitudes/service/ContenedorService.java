@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ar.edu.utn.frc.backend.tpi.solicitudes.config.MotorBaseDatos;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ContenedorRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ContenedorResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
@@ -33,6 +34,7 @@ public class ContenedorService {
 
     private final ContenedorRepository contenedorRepository;
     private final ClienteRepository clienteRepository;
+    private final MotorBaseDatos motorBaseDatos;
 
     /**
      * Crear un nuevo contenedor.
@@ -268,6 +270,25 @@ public class ContenedorService {
                 });
     }
 
+    /**
+     * Variante de obtenerOCrearContenedor para el alta de solicitudes: recibe el cliente ya
+     * administrado y devuelve la entidad, sin validaciones que repitan lecturas. En PostgreSQL
+     * es un único upsert.
+     *
+     * @param request datos del contenedor
+     * @param cliente dueño del contenedor si hay que crearlo
+     * @return contenedor existente o recién creado
+     */
+    @Transactional
+    public Contenedor obtenerOCrearEntidad(ContenedorRequest request, Cliente cliente) {
+        if (motorBaseDatos.esPostgres()) {
+            return contenedorRepository.upsertPorNumeroSerie(request.getNumeroSerie(), request.getTipo(),
+                    request.getPeso(), request.getVolumen(), cliente.getId());
+        }
+        return contenedorRepository.findByNumeroSerie(request.getNumeroSerie())
+                .orElseGet(() -> contenedorRepository.save(ContenedorMapper.toEntity(request, cliente)));
+    }
+
     /**
      * Verificar si un contenedor puede ser asignado a una solicitud.
      * Debe estar en estado REGISTRADO o LISTO_PARA_RETIRO.
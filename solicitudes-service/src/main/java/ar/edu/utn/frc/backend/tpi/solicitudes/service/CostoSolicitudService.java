@@ -1,9 +1,12 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.service;
 
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.DesgloseCosto;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.DesgloseCostoRepository;
 import ar.edu.utn.frc.backend.tpi.solicitudes.repository.SolicitudRepository;
 import lombok.Builder;
 import lombok.Data;
@@ -12,8 +15,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
@@ -24,6 +27,8 @@ import java.util.List;
  * 2. Costo por peso y volumen del contenedor
  * 3. Costo por estadía en depósitos (diferencia entre fechas de entrada y salida)
  *
+ * Las tarifas salen de {@link ReglasCostoService}, que las mantiene en memoria.
+ *
  * Implementa requisito: Calcular el costo total de la entrega.
  */
 @Service
@@ -32,12 +37,8 @@ import java.util.List;
 public class CostoSolicitudService {
 
     private final SolicitudRepository solicitudRepository;
-
-    // Constantes para el cálculo de costos
-    private static final Double COSTO_BASE_POR_KM = 50.0; // Pesos por kilómetro
-    private static final Double COSTO_POR_TONELADA = 1000.0; // Pesos por tonelada
-    private static final Double COSTO_POR_M3 = 500.0; // Pesos por metro cúbico
-    private static final Double COSTO_ESTADIA_POR_DIA = 2000.0; // Pesos por día en depósito
+    private final ReglasCostoService reglasCostoService;
+    private final DesgloseCostoRepository desgloseCostoRepository;
 
     /**
      * Calcula el costo total de una solicitud basándose en:
@@ -45,12 +46,23 @@ public class CostoSolicitudService {
      * - Peso y volumen del contenedor
      * - Estadía en depósitos (tiempos reales si están disponibles)
      *
+     * Si la solicitud está ENTREGADA se devuelve el desglose guardado en la entrega sin cargar
+     * contenedor, ruta ni tramos. Un desglose de una solicitud que ya no está ENTREGADA no se usa.
+     *
      * @param solicitudId identificador de la solicitud
      * @return detalle completo de costo total
      * @throws IllegalArgumentException si la solicitud no existe o no tiene ruta asignada
      */
     @Transactional(readOnly = true)
     public DesgloseCostoTotal calcularCostoTotal(Long solicitudId) {
+        DesgloseCosto guardado = desgloseCostoRepository
+                .findBySolicitudIdAndEstadoSolicitud(solicitudId, EstadoSolicitud.ENTREGADA)
+                .orElse(null);
+        if (guardado != null) {
+            log.debug("Usando desglose guardado para solicitud entregada {}", solicitudId);
+            return toDesgloseCostoTotal(guardado);
+        }
+
         log.info("Calculando costo total para solicitud {}", solicitudId);
 
         Solicitud solicitud = solicitudRepository.findById(solicitudId)
@@ -62,17 +74,138 @@ public class CostoSolicitudService {
                     "La solicitud " + solicitudId + " no tiene una ruta asignada");
         }
 
+        return calcularDesglose(solicitud);
+    }
+
+    /**
+     * Calcula y guarda el desglose definitivo de una solicitud que se está entregando.
+     * Debe llamarse dentro de la transacción que la pasa a ENTREGADA.
+     *
+     * @param solicitud solicitud con contenedor, ruta y tramos finalizados
+     * @return desglose guardado
+     */
+    @Transactional
+    public DesgloseCostoTotal materializarCostoTotal(Solicitud solicitud) {
+        DesgloseCostoTotal desglose = calcularDesglose(solicitud);
+        desgloseCostoRepository.save(DesgloseCosto.builder()
+                .solicitudId(desglose.getSolicitudId())
+                .costoRecorrido(desglose.getCostoRecorrido())
+                .distanciaTotalKm(desglose.getDistanciaTotalKm())
+                .costoPesoVolumen(desglose.getCostoPesoVolumen())
+                .pesoContenedorKg(desglose.getPesoContenedorKg())
+                .volumenContenedorM3(desglose.getVolumenContenedorM3())
+                .costoEstadia(desglose.getCostoEstadia())
+                .diasEstadia(desglose.getDiasEstadia())
+                .costoTotal(desglose.getCostoTotal())
+                .usaCostosReales(desglose.getUsaCostosReales())
+                .fechaCalculo(LocalDateTime.now())
+                .build());
+        log.info("Desglose de costo guardado para solicitud {}: ${}", solicitud.getId(), desglose.getCostoTotal());
+        return desglose;
+    }
+
+    /**
+     * Vuelve a calcular y guardar el desglose de una solicitud entregada, por ejemplo después de
+     * corregir el costo real de un tramo. Relee la solicitud porque la actualización de los
+     * contadores de la ruta limpia el contexto de persistencia.
+     *
+     * @param solicitudId identificador de la solicitud entregada
+     * @throws IllegalArgumentException si la solicitud no existe
+     */
+    @Transactional
+    public void rematerializarCostoTotal(Long solicitudId) {
+        Solicitud solicitud = solicitudRepository.findById(solicitudId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Solicitud no encontrada con id: " + solicitudId));
+        materializarCostoTotal(solicitud);
+    }
+
+    /**
+     * Descarta el desglose guardado, por ejemplo cuando la solicitud deja de estar ENTREGADA.
+     * Las consultas siguientes vuelven a calcularlo a partir de los tramos.
+     *
+     * @param solicitudId identificador de la solicitud
+     */
+    @Transactional
+    public void descartarCostoTotal(Long solicitudId) {
+        if (desgloseCostoRepository.existsById(solicitudId)) {
+            desgloseCostoRepository.deleteById(solicitudId);
+            log.info("Desglose de costo descartado para solicitud {}", solicitudId);
+        }
+    }
+
+    /**
+     * Calcula el desglose de costo de una solicitud ya cargada y con ruta asignada.
+     * No accede a la base de datos; lo usan calcularCostoTotal y los benchmarks.
+     *
+     * @param solicitud solicitud con contenedor, ruta y tramos
+     * @return detalle completo de costo total
+     */
+    DesgloseCostoTotal calcularDesglose(Solicitud solicitud) {
+        Long solicitudId = solicitud.getId();
         Contenedor contenedor = solicitud.getContenedor();
         List<Tramo> tramos = solicitud.getRuta().getTramos();
+        ReglasCosto reglas = reglasCostoService.obtener();
+
+        // 1. Recorrido y estadía en depósitos en una sola pasada sobre los tramos
+        boolean todosTienenCostoReal = true;
+        boolean todosTienenCostoEstimado = true;
+        // Sumas compensadas (Kahan), igual que DoubleStream.sum()
+        double sumaReal = 0.0;
+        double compensacionReal = 0.0;
+        double sumaEstimado = 0.0;
+        double compensacionEstimado = 0.0;
+        double diasEstadia = 0.0;
+        double costoEstadia = 0.0;
+
+        Tramo anterior = null;
+        for (int i = 0, cantidad = tramos.size(); i < cantidad; i++) {
+            Tramo tramo = tramos.get(i);
+
+            Double costoReal = tramo.getCostoReal();
+            if (costoReal == null) {
+                todosTienenCostoReal = false;
+            } else if (todosTienenCostoReal) {
+                double y = costoReal - compensacionReal;
+                double t = sumaReal + y;
+                compensacionReal = (t - sumaReal) - y;
+                sumaReal = t;
+            }
 
-        // 1. Calcular costo por recorrido
-        double costoRecorrido = calcularCostoRecorrido(tramos);
+            Double costoEstimado = tramo.getCostoEstimado();
+            if (costoEstimado == null) {
+                todosTienenCostoEstimado = false;
+            } else if (todosTienenCostoEstimado) {
+                double y = costoEstimado - compensacionEstimado;
+                double t = sumaEstimado + y;
+                compensacionEstimado = (t - sumaEstimado) - y;
+                sumaEstimado = t;
+            }
 
-        // 2. Calcular costo por peso y volumen del contenedor
-        double costoPesoVolumen = calcularCostoPesoVolumen(contenedor);
+            // 2. Estadía: el tramo anterior termina en depósito y este sale de depósito
+            if (anterior != null && terminaEnDeposito(anterior.getTipo()) && saleDeDeposito(tramo.getTipo())
+                    && anterior.getFechaHoraFin() != null && tramo.getFechaHoraInicio() != null) {
+                double dias = ChronoUnit.HOURS.between(anterior.getFechaHoraFin(), tramo.getFechaHoraInicio()) / 24.0;
+                diasEstadia += dias;
+                costoEstadia += dias * reglas.costoEstadiaDiaria(anterior.getDestino());
+            }
+            anterior = tramo;
+        }
+
+        double costoRecorrido;
+        if (todosTienenCostoReal) {
+            log.info("Usando costos reales de tramos");
+            costoRecorrido = sumaReal - compensacionReal;
+        } else if (todosTienenCostoEstimado) {
+            log.info("Usando costos estimados de tramos");
+            costoRecorrido = sumaEstimado - compensacionEstimado;
+        } else {
+            log.warn("No hay costos disponibles, usando cálculo básico");
+            costoRecorrido = 0.0; // El cálculo básico requeriría conocer distancias individuales
+        }
 
-        // 3. Calcular costo por estadía en depósitos
-        double costoEstadia = calcularCostoEstadia(tramos);
+        // 3. Calcular costo por peso y volumen del contenedor
+        double costoPesoVolumen = calcularCostoPesoVolumen(contenedor, reglas);
 
         // 4. Costo total
         double costoTotal = costoRecorrido + costoPesoVolumen + costoEstadia;
@@ -87,144 +220,52 @@ public class CostoSolicitudService {
                 .pesoContenedorKg(contenedor.getPeso())
                 .volumenContenedorM3(contenedor.getVolumen())
                 .costoEstadia(costoEstadia)
-                .diasEstadia(calcularDiasEstadia(tramos))
+                .diasEstadia(diasEstadia)
                 .costoTotal(costoTotal)
-                .usaCostosReales(tramos.stream().allMatch(t -> t.getCostoReal() != null))
+                .usaCostosReales(todosTienenCostoReal)
                 .build();
     }
 
-    /**
-     * Calcula el costo del recorrido total.
-     * Usa costos reales de los tramos si están disponibles, o estimados si no.
-     *
-     * @param tramos lista de tramos de la ruta
-     * @return costo total del recorrido
-     */
-    private double calcularCostoRecorrido(List<Tramo> tramos) {
-        // Priorizar costos reales si están disponibles
-        boolean todosTienenCostoReal = tramos.stream()
-                .allMatch(t -> t.getCostoReal() != null);
-
-        if (todosTienenCostoReal) {
-            log.info("Usando costos reales de tramos");
-            return tramos.stream()
-                    .mapToDouble(Tramo::getCostoReal)
-                    .sum();
-        }
-
-        // Si no hay costos reales, usar estimados
-        boolean todosTienenCostoEstimado = tramos.stream()
-                .allMatch(t -> t.getCostoEstimado() != null);
-
-        if (todosTienenCostoEstimado) {
-            log.info("Usando costos estimados de tramos");
-            return tramos.stream()
-                    .mapToDouble(Tramo::getCostoEstimado)
-                    .sum();
-        }
-
-        // Si no hay costos, usar cálculo básico
-        log.warn("No hay costos disponibles, usando cálculo básico");
-        return 0.0; // El cálculo básico requeriría conocer distancias individuales
-    }
-
     /**
      * Calcula el costo basado en peso y volumen del contenedor.
-     * Aplica factores de costo por tonelada y por metro cúbico.
+     * Aplica los factores de costo por tonelada y por metro cúbico de las reglas vigentes.
      *
      * @param contenedor contenedor a transportar
+     * @param reglas reglas de costo vigentes
      * @return costo por características físicas
      */
-    private double calcularCostoPesoVolumen(Contenedor contenedor) {
-        double pesoToneladas = contenedor.getPeso() / 1000.0; // Convertir kg a toneladas
-        double costoPorPeso = pesoToneladas * COSTO_POR_TONELADA;
-        double costoPorVolumen = contenedor.getVolumen() * COSTO_POR_M3;
+    private double calcularCostoPesoVolumen(Contenedor contenedor, ReglasCosto reglas) {
+        double costo = reglas.costoPesoVolumen(contenedor.getPeso(), contenedor.getVolumen());
 
-        log.debug("Costo por peso ({}t): ${}, Costo por volumen ({}m³): ${}",
-                pesoToneladas, costoPorPeso, contenedor.getVolumen(), costoPorVolumen);
+        log.debug("Costo por peso ({}kg) y volumen ({}m³): ${}",
+                contenedor.getPeso(), contenedor.getVolumen(), costo);
 
-        return costoPorPeso + costoPorVolumen;
+        return costo;
     }
 
-    /**
-     * Calcula el costo de estadía en depósitos.
-     *
-     * Se basa en la diferencia de tiempo entre:
-     * - Fin del tramo que llega al depósito (entrada)
-     * - Inicio del tramo que sale del depósito (salida)
-     *
-     * Solo considera tramos de tipo DEPOSITO_* que hayan sido ejecutados.
-     *
-     * @param tramos lista de tramos de la ruta
-     * @return costo total de estadía en depósitos
-     */
-    private double calcularCostoEstadia(List<Tramo> tramos) {
-        double costoTotal = 0.0;
-
-        for (int i = 0; i < tramos.size() - 1; i++) {
-            Tramo tramoActual = tramos.get(i);
-            Tramo tramoSiguiente = tramos.get(i + 1);
-
-            // Verificar si hay estadía en depósito
-            // (el tramo actual termina en depósito y el siguiente sale de depósito)
-            boolean terminaEnDeposito = tramoActual.getTipo() == TipoTramo.ORIGEN_DEPOSITO
-                    || tramoActual.getTipo() == TipoTramo.DEPOSITO_DEPOSITO;
-
-            boolean siguienteSaleDeDeposito = tramoSiguiente.getTipo() == TipoTramo.DEPOSITO_DEPOSITO
-                    || tramoSiguiente.getTipo() == TipoTramo.DEPOSITO_DESTINO;
-
-            if (terminaEnDeposito && siguienteSaleDeDeposito
-                    && tramoActual.getFechaHoraFin() != null
-                    && tramoSiguiente.getFechaHoraInicio() != null) {
-
-                LocalDateTime entrada = tramoActual.getFechaHoraFin();
-                LocalDateTime salida = tramoSiguiente.getFechaHoraInicio();
-
-                Duration duracion = Duration.between(entrada, salida);
-                double dias = duracion.toHours() / 24.0;
-
-                double costoEstadia = dias * COSTO_ESTADIA_POR_DIA;
-                costoTotal += costoEstadia;
-
-                log.debug("Estadía en depósito: {} días, costo: ${}", dias, costoEstadia);
-            }
-        }
-
-        return costoTotal;
+    private static DesgloseCostoTotal toDesgloseCostoTotal(DesgloseCosto desglose) {
+        return DesgloseCostoTotal.builder()
+                .solicitudId(desglose.getSolicitudId())
+                .costoRecorrido(desglose.getCostoRecorrido())
+                .distanciaTotalKm(desglose.getDistanciaTotalKm())
+                .costoPesoVolumen(desglose.getCostoPesoVolumen())
+                .pesoContenedorKg(desglose.getPesoContenedorKg())
+                .volumenContenedorM3(desglose.getVolumenContenedorM3())
+                .costoEstadia(desglose.getCostoEstadia())
+                .diasEstadia(desglose.getDiasEstadia())
+                .costoTotal(desglose.getCostoTotal())
+                .usaCostosReales(desglose.getUsaCostosReales())
+                .build();
     }
 
-    /**
-     * Calcula los días totales de estadía en depósitos.
-     *
-     * @param tramos lista de tramos
-     * @return días totales de estadía
-     */
-    private double calcularDiasEstadia(List<Tramo> tramos) {
-        double diasTotal = 0.0;
-
-        for (int i = 0; i < tramos.size() - 1; i++) {
-            Tramo tramoActual = tramos.get(i);
-            Tramo tramoSiguiente = tramos.get(i + 1);
-
-            boolean terminaEnDeposito = tramoActual.getTipo() == TipoTramo.ORIGEN_DEPOSITO
-                    || tramoActual.getTipo() == TipoTramo.DEPOSITO_DEPOSITO;
-
-            boolean siguienteSaleDeDeposito = tramoSiguiente.getTipo() == TipoTramo.DEPOSITO_DEPOSITO
-                    || tramoSiguiente.getTipo() == TipoTramo.DEPOSITO_DESTINO;
-
-            if (terminaEnDeposito && siguienteSaleDeDeposito
-                    && tramoActual.getFechaHoraFin() != null
-                    && tramoSiguiente.getFechaHoraInicio() != null) {
-
-                LocalDateTime entrada = tramoActual.getFechaHoraFin();
-                LocalDateTime salida = tramoSiguiente.getFechaHoraInicio();
-
-                Duration duracion = Duration.between(entrada, salida);
-                diasTotal += duracion.toHours() / 24.0;
-            }
-        }
+    // Tramos que dejan el contenedor en un depósito
+    private static boolean terminaEnDeposito(TipoTramo tipo) {
+        return tipo == TipoTramo.ORIGEN_DEPOSITO || tipo == TipoTramo.DEPOSITO_DEPOSITO;
+    }
 
-        return diasTotal;
+    // Tramos que retiran el contenedor de un depósito
+    private static boolean saleDeDeposito(TipoTramo tipo) {
+        return tipo == TipoTramo.DEPOSITO_DEPOSITO || tipo == TipoTramo.DEPOSITO_DESTINO;
     }
 
     /**
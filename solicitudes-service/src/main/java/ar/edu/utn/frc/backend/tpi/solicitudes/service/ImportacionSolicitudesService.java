@@ -0,0 +1,269 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudImportacion;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudRequest;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.ClienteMapper;
+import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.ContenedorMapper;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ClienteRepository;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ContenedorRepository;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.SolicitudRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importación masiva de órdenes de transporte (NDJSON o CSV con encabezado).
+ *
+ * La entrada se lee de a bloques sin cargarla entera. Cada bloque se registra en su propia
+ * transacción: una consulta IN para los clientes, otra para los contenedores y otra para las
+ * solicitudes activas, y los INSERT salen en lotes JDBC. Por cada línea se escribe un resultado
+ * NDJSON en el mismo orden de entrada; un bloque rechazado por la base no afecta a los demás.
+ */
+@Service
+@Slf4j
+public class ImportacionSolicitudesService {
+
+    public enum Formato { NDJSON, CSV }
+
+    static final String CREADA = "CREADA";
+    static final String CONFLICTO = "CONFLICTO";
+    static final String ERROR = "ERROR";
+
+    private final ClienteRepository clienteRepository;
+    private final ContenedorRepository contenedorRepository;
+    private final SolicitudRepository solicitudRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${solicitudes.importacion.tamanio-bloque:1000}")
+    private int tamanioBloque;
+
+    public ImportacionSolicitudesService(ClienteRepository clienteRepository,
+            ContenedorRepository contenedorRepository, SolicitudRepository solicitudRepository,
+            ObjectMapper objectMapper, Validator validator, PlatformTransactionManager transactionManager) {
+        this.clienteRepository = clienteRepository;
+        this.contenedorRepository = contenedorRepository;
+        this.solicitudRepository = solicitudRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record Linea(long numero, SolicitudRequest request) {
+    }
+
+    private record Resultado(long linea, String estado, Long solicitudId, String error) {
+    }
+
+    /**
+     * Debe llamarse fuera de una transacción: cada bloque confirma por separado.
+     *
+     * @param entrada órdenes en el formato indicado
+     * @param formato NDJSON (también acepta un arreglo JSON) o CSV con encabezado
+     * @param salida stream donde se escribe un resultado NDJSON por línea
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public void importar(InputStream entrada, Formato formato, OutputStream salida) throws IOException {
+        List<Linea> bloque = new ArrayList<>(Math.max(tamanioBloque, 1));
+        Map<String, Integer> totales = new HashMap<>();
+        long numero = 0;
+
+        try (MappingIterator<SolicitudImportacion> filas = lector(formato).readValues(entrada);
+                JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            while (true) {
+                SolicitudImportacion fila;
+                try {
+                    if (!filas.hasNextValue()) {
+                        break;
+                    }
+                    fila = filas.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Tras un error de formato no se puede ubicar con certeza la línea siguiente: se corta acá
+                    procesar(bloque, generador, totales);
+                    escribir(new Resultado(numero + 1, ERROR, null, "Formato inválido: " + e.getOriginalMessage()),
+                            generador, totales);
+                    break;
+                }
+                bloque.add(new Linea(++numero, fila != null ? fila.toRequest() : null));
+                if (bloque.size() >= tamanioBloque) {
+                    procesar(bloque, generador, totales);
+                }
+            }
+            procesar(bloque, generador, totales);
+        }
+        log.info("Importación de solicitudes finalizada: {} líneas, resultados {}", numero, totales);
+    }
+
+    private ObjectReader lector(Formato formato) {
+        if (formato == Formato.CSV) {
+            return csvMapper.readerFor(SolicitudImportacion.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .with(CsvParser.Feature.TRIM_SPACES)
+                    .with(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+        }
+        // readValues acepta tanto un arreglo JSON como valores sueltos separados por línea
+        return objectMapper.readerFor(SolicitudImportacion.class);
+    }
+
+    private void procesar(List<Linea> bloque, JsonGenerator generador, Map<String, Integer> totales)
+            throws IOException {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        Map<Long, Resultado> resultados = new HashMap<>();
+        List<Linea> validas = new ArrayList<>(bloque.size());
+        for (Linea linea : bloque) {
+            String error = validar(linea.request());
+            if (error != null) {
+                resultados.put(linea.numero(), new Resultado(linea.numero(), ERROR, null, error));
+            } else {
+                validas.add(linea);
+            }
+        }
+
+        if (!validas.isEmpty()) {
+            try {
+                List<Resultado> registrados = transactionTemplate.execute(estado -> registrar(validas));
+                registrados.forEach(r -> resultados.put(r.linea(), r));
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Bloque de importación rechazado (líneas {} a {}): {}", validas.get(0).numero(),
+                        validas.get(validas.size() - 1).numero(), e.getMostSpecificCause().getMessage());
+                String error = "Bloque rechazado por la base de datos: " + e.getMostSpecificCause().getMessage();
+                validas.forEach(l -> resultados.put(l.numero(), new Resultado(l.numero(), ERROR, null, error)));
+            }
+        }
+
+        for (Linea linea : bloque) {
+            escribir(resultados.get(linea.numero()), generador, totales);
+        }
+        generador.flush();
+        bloque.clear();
+    }
+
+    private String validar(SolicitudRequest request) {
+        if (request == null) {
+            return "Línea vacía";
+        }
+        Set<ConstraintViolation<SolicitudRequest>> violaciones = validator.validate(request);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Corre dentro de la transacción del bloque; el contexto de persistencia se descarta al confirmar
+    private List<Resultado> registrar(List<Linea> lineas) {
+        Map<String, Cliente> clientes = new HashMap<>();
+        clienteRepository.findByEmailIn(lineas.stream().map(l -> l.request().getCliente().getEmail()).toList())
+                .forEach(c -> clientes.put(c.getEmail(), c));
+        List<Cliente> clientesNuevos = new ArrayList<>();
+        for (Linea linea : lineas) {
+            clientes.computeIfAbsent(linea.request().getCliente().getEmail(), email -> {
+                Cliente cliente = ClienteMapper.toEntity(linea.request().getCliente());
+                clientesNuevos.add(cliente);
+                return cliente;
+            });
+        }
+        clienteRepository.saveAll(clientesNuevos);
+
+        Map<String, Contenedor> contenedores = new HashMap<>();
+        contenedorRepository.findByNumeroSerieIn(
+                        lineas.stream().map(l -> l.request().getContenedor().getNumeroSerie()).toList())
+                .forEach(c -> contenedores.put(c.getNumeroSerie(), c));
+        // Solo los contenedores que ya existían pueden tener una solicitud activa
+        Set<Long> ocupados = contenedores.isEmpty() ? new HashSet<>()
+                : new HashSet<>(solicitudRepository.findContenedorIdsConSolicitudEnEstadoNot(
+                        contenedores.values().stream().map(Contenedor::getId).toList(), EstadoSolicitud.ENTREGADA));
+        List<Contenedor> contenedoresNuevos = new ArrayList<>();
+        for (Linea linea : lineas) {
+            contenedores.computeIfAbsent(linea.request().getContenedor().getNumeroSerie(), numeroSerie -> {
+                Contenedor contenedor = ContenedorMapper.toEntity(linea.request().getContenedor(),
+                        clientes.get(linea.request().getCliente().getEmail()));
+                contenedoresNuevos.add(contenedor);
+                return contenedor;
+            });
+        }
+        contenedorRepository.saveAll(contenedoresNuevos);
+
+        List<Resultado> resultados = new ArrayList<>(lineas.size());
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Linea linea : lineas) {
+            SolicitudRequest request = linea.request();
+            Contenedor contenedor = contenedores.get(request.getContenedor().getNumeroSerie());
+            // add también evita dos solicitudes para el mismo contenedor dentro del archivo
+            if (!ocupados.add(contenedor.getId())) {
+                resultados.add(new Resultado(linea.numero(), CONFLICTO, null,
+                        "Ya existe una solicitud activa para el contenedor " + contenedor.getNumeroSerie()));
+                continue;
+            }
+            Solicitud solicitud = solicitudRepository.save(Solicitud.builder()
+                    .cliente(clientes.get(request.getCliente().getEmail()))
+                    .contenedor(contenedor)
+                    .origenDireccion(request.getOrigenDireccion())
+                    .origenLatitud(request.getOrigenLatitud())
+                    .origenLongitud(request.getOrigenLongitud())
+                    .destinoDireccion(request.getDestinoDireccion())
+                    .destinoLatitud(request.getDestinoLatitud())
+                    .destinoLongitud(request.getDestinoLongitud())
+                    .estado(EstadoSolicitud.BORRADOR)
+                    .fechaCreacion(ahora)
+                    .build());
+            // El id sale de la secuencia al persistir; el INSERT se agrupa con los demás al confirmar
+            resultados.add(new Resultado(linea.numero(), CREADA, solicitud.getId(), null));
+        }
+        return resultados;
+    }
+
+    private static void escribir(Resultado resultado, JsonGenerator generador, Map<String, Integer> totales)
+            throws IOException {
+        generador.writeStartObject();
+        generador.writeNumberField("linea", resultado.linea());
+        generador.writeStringField("estado", resultado.estado());
+        if (resultado.solicitudId() != null) {
+            generador.writeNumberField("solicitudId", resultado.solicitudId());
+        }
+        if (resultado.error() != null) {
+            generador.writeStringField("error", resultado.error());
+        }
+        generador.writeEndObject();
+        generador.writeRaw('\n');
+        totales.merge(resultado.estado(), 1, Integer::sum);
+    }
+}
@@ -0,0 +1,78 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reglas de precio vigentes, compiladas a partir de la tarifa de costos-service y de los
+ * depósitos de flota-service. Es inmutable: cada refresco arma una instancia nueva.
+ */
+public final class ReglasCosto {
+
+    private final double costoPorTonelada;
+    private final double costoPorM3;
+    private final double costoEstadiaDiariaPorDefecto;
+    // Costo diario de estadía por nombre o dirección de depósito normalizados
+    private final Map<String, Double> costoEstadiaPorDeposito;
+
+    private ReglasCosto(double costoPorTonelada, double costoPorM3, double costoEstadiaDiariaPorDefecto,
+            Map<String, Double> costoEstadiaPorDeposito) {
+        this.costoPorTonelada = costoPorTonelada;
+        this.costoPorM3 = costoPorM3;
+        this.costoEstadiaDiariaPorDefecto = costoEstadiaDiariaPorDefecto;
+        this.costoEstadiaPorDeposito = costoEstadiaPorDeposito;
+    }
+
+    /**
+     * Reglas sin datos de depósitos: toda estadía usa el costo diario por defecto.
+     */
+    public static ReglasCosto de(double costoPorTonelada, double costoPorM3, double costoEstadiaDiaria) {
+        return new ReglasCosto(costoPorTonelada, costoPorM3, costoEstadiaDiaria, Map.of());
+    }
+
+    /**
+     * Devuelve una copia de estas reglas con otro costo diario por defecto y tarifas por depósito.
+     *
+     * @param costoEstadiaDiaria costo diario cuando el depósito no tiene uno propio
+     * @param costoPorDeposito costo diario indexado por nombre o dirección del depósito
+     */
+    public ReglasCosto conEstadias(double costoEstadiaDiaria, Map<String, Double> costoPorDeposito) {
+        Map<String, Double> normalizados = new HashMap<>();
+        costoPorDeposito.forEach((deposito, costo) -> {
+            if (deposito != null && costo != null) {
+                normalizados.put(normalizar(deposito), costo);
+            }
+        });
+        return new ReglasCosto(costoPorTonelada, costoPorM3, costoEstadiaDiaria, Map.copyOf(normalizados));
+    }
+
+    public double costoPesoVolumen(double pesoKg, double volumenM3) {
+        return pesoKg / 1000.0 * costoPorTonelada + volumenM3 * costoPorM3;
+    }
+
+    /**
+     * Costo diario de estadía en el depósito indicado por el destino de un tramo.
+     *
+     * @param deposito nombre o dirección del depósito (puede ser nulo)
+     */
+    public double costoEstadiaDiaria(String deposito) {
+        if (deposito == null || costoEstadiaPorDeposito.isEmpty()) {
+            return costoEstadiaDiariaPorDefecto;
+        }
+        Double costo = costoEstadiaPorDeposito.get(normalizar(deposito));
+        return costo != null ? costo : costoEstadiaDiariaPorDefecto;
+    }
+
+    public double getCostoEstadiaDiariaPorDefecto() {
+        return costoEstadiaDiariaPorDefecto;
+    }
+
+    public int getCantidadDepositos() {
+        return costoEstadiaPorDeposito.size();
+    }
+
+    private static String normalizar(String deposito) {
+        return deposito.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,190 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.DepositoExternoResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TarifaExternaResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mantiene las reglas de costo vigentes para que el cálculo del costo total sea local.
+ *
+ * Toma la tarifa de costos-service y el costo de estadía de cada depósito de flota-service una
+ * sola vez, los compila en un {@link ReglasCosto} inmutable y lo reemplaza de forma atómica al
+ * refrescar: periódicamente o cuando llega una notificación de cambio. Si los servicios no
+ * responden se conservan las últimas reglas conocidas (al inicio, los valores configurados).
+ *
+ * Cada refresco es un GET condicional con el ETag de la respuesta anterior: mientras tarifas y
+ * depósitos no cambien, ambos servicios responden 304 sin cuerpo y las reglas no se recompilan.
+ * Por eso el refresco periódico puede ser frecuente y un cambio de tarifa se ve en segundos.
+ */
+@Service
+@Slf4j
+public class ReglasCostoService {
+
+    private static final ParameterizedTypeReference<List<TarifaExternaResponse>> LISTA_TARIFAS =
+            new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<List<DepositoExternoResponse>> LISTA_DEPOSITOS =
+            new ParameterizedTypeReference<>() { };
+
+    // Nulo cuando las reglas remotas están deshabilitadas
+    private final RestClient serviciosRestClient;
+    private final AtomicReference<ReglasCosto> reglas;
+
+    // Últimas respuestas recibidas con su ETag; se reutilizan cuando el servicio responde 304
+    private Respuesta<List<TarifaExternaResponse>> tarifas = Respuesta.vacia();
+    private Respuesta<List<DepositoExternoResponse>> depositos = Respuesta.vacia();
+
+    private record Respuesta<T>(String etag, T cuerpo) {
+        private static <T> Respuesta<T> vacia() {
+            return new Respuesta<>(null, null);
+        }
+    }
+
+    @Value("${solicitudes.reglas-costo.remoto.costos-url:http://localhost:8083}")
+    private String costosUrl;
+
+    @Value("${solicitudes.reglas-costo.remoto.flota-url:http://localhost:8082}")
+    private String flotaUrl;
+
+    // Tarifa de costos-service a aplicar; vacío = la de menor id
+    @Value("${solicitudes.reglas-costo.tarifa-id:}")
+    private Long tarifaId;
+
+    @Autowired
+    public ReglasCostoService(ObjectProvider<RestClient> serviciosRestClient,
+            @Value("${solicitudes.reglas-costo.costo-por-tonelada:1000}") double costoPorTonelada,
+            @Value("${solicitudes.reglas-costo.costo-por-m3:500}") double costoPorM3,
+            @Value("${solicitudes.reglas-costo.costo-estadia-diaria:2000}") double costoEstadiaDiaria) {
+        this.serviciosRestClient = serviciosRestClient.getIfAvailable();
+        this.reglas = new AtomicReference<>(ReglasCosto.de(costoPorTonelada, costoPorM3, costoEstadiaDiaria));
+    }
+
+    /**
+     * Reglas fijas, sin consultar otros servicios. Usado en pruebas y benchmarks.
+     *
+     * @param reglas reglas a aplicar
+     */
+    public ReglasCostoService(ReglasCosto reglas) {
+        this.serviciosRestClient = null;
+        this.reglas = new AtomicReference<>(reglas);
+    }
+
+    /**
+     * @return reglas vigentes; nunca nulo
+     */
+    public ReglasCosto obtener() {
+        return reglas.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        refrescar();
+    }
+
+    @Scheduled(fixedDelayString = "${solicitudes.reglas-costo.refresco:30s}",
+               initialDelayString = "${solicitudes.reglas-costo.refresco:30s}")
+    public void refrescarPeriodicamente() {
+        refrescar();
+    }
+
+    /**
+     * Vuelve a leer tarifas y depósitos y, si alguno cambió, publica las nuevas reglas.
+     * Sincronizado porque el refresco periódico y el forzado comparten las respuestas guardadas.
+     *
+     * @return reglas vigentes después del refresco (las anteriores si falló o no hubo cambios)
+     */
+    public synchronized ReglasCosto refrescar() {
+        ReglasCosto actuales = reglas.get();
+        if (serviciosRestClient == null) {
+            return actuales;
+        }
+
+        try {
+            Respuesta<List<TarifaExternaResponse>> nuevasTarifas =
+                    obtener(costosUrl + "/api/tarifas", LISTA_TARIFAS, tarifas);
+            Respuesta<List<DepositoExternoResponse>> nuevosDepositos =
+                    obtener(flotaUrl + "/api/depositos", LISTA_DEPOSITOS, depositos);
+            if (nuevasTarifas == tarifas && nuevosDepositos == depositos) {
+                log.debug("Tarifas y depósitos sin cambios; se mantienen las reglas de costo");
+                return actuales;
+            }
+
+            double costoEstadiaDiaria = seleccionarTarifa(nuevasTarifas.cuerpo())
+                    .map(TarifaExternaResponse::getCostoEstadiaDiaria)
+                    .orElse(actuales.getCostoEstadiaDiariaPorDefecto());
+
+            Map<String, Double> costoPorDeposito = new HashMap<>();
+            if (nuevosDepositos.cuerpo() != null) {
+                for (DepositoExternoResponse deposito : nuevosDepositos.cuerpo()) {
+                    // Los tramos identifican al depósito por su nombre o su dirección
+                    costoPorDeposito.put(deposito.getNombre(), deposito.getCostoEstadiaDiaria());
+                    costoPorDeposito.put(deposito.getDireccion(), deposito.getCostoEstadiaDiaria());
+                }
+            }
+
+            ReglasCosto nuevas = actuales.conEstadias(costoEstadiaDiaria, costoPorDeposito);
+            reglas.set(nuevas);
+            tarifas = nuevasTarifas;
+            depositos = nuevosDepositos;
+            log.info("Reglas de costo actualizadas: estadía por defecto ${}/día, {} claves de depósito",
+                    costoEstadiaDiaria, nuevas.getCantidadDepositos());
+            return nuevas;
+        } catch (RestClientException e) {
+            log.warn("No se pudieron refrescar las reglas de costo; se mantienen las anteriores: {}", e.getMessage());
+            return actuales;
+        }
+    }
+
+    // Devuelve la misma instancia anterior si el servicio respondió 304
+    private <T> Respuesta<T> obtener(String url, ParameterizedTypeReference<T> tipo, Respuesta<T> anterior) {
+        ResponseEntity<T> respuesta = serviciosRestClient.get()
+                .uri(url)
+                .headers(h -> {
+                    if (anterior.etag() != null) {
+                        h.setIfNoneMatch(anterior.etag());
+                    }
+                })
+                .retrieve()
+                .toEntity(tipo);
+        if (respuesta.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return anterior;
+        }
+        return new Respuesta<>(respuesta.getHeaders().getETag(), respuesta.getBody());
+    }
+
+    private Optional<TarifaExternaResponse> seleccionarTarifa(List<TarifaExternaResponse> tarifas) {
+        if (tarifas == null || tarifas.isEmpty()) {
+            return Optional.empty();
+        }
+        if (tarifaId != null) {
+            Optional<TarifaExternaResponse> configurada = tarifas.stream()
+                    .filter(t -> tarifaId.equals(t.getId()))
+                    .findFirst();
+            if (configurada.isPresent()) {
+                return configurada.filter(t -> t.getCostoEstadiaDiaria() != null);
+            }
+            log.warn("La tarifa {} no existe en costos-service; se usa la de menor id", tarifaId);
+        }
+        return tarifas.stream()
+                .filter(t -> t.getId() != null && t.getCostoEstadiaDiaria() != null)
+                .min(Comparator.comparing(TarifaExternaResponse::getId));
+    }
+}
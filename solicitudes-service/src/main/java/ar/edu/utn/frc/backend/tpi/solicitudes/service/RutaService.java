@@ -10,7 +10,6 @@ import org.springframework.transaction.annotation.Transactional;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TramoRequest;
-import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
@@ -19,7 +18,6 @@ import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.RutaMapper;
 import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.TramoMapper;
 import ar.edu.utn.frc.backend.tpi.solicitudes.repository.RutaRepository;
 import ar.edu.utn.frc.backend.tpi.solicitudes.repository.SolicitudRepository;
-import ar.edu.utn.frc.backend.tpi.solicitudes.repository.TramoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -38,7 +36,6 @@ public class RutaService {
 
     private final RutaRepository rutaRepository;
     private final SolicitudRepository solicitudRepository;
-    private final TramoRepository tramoRepository;
 
     /**
      * Crear una nueva ruta con sus tramos.
@@ -52,27 +49,51 @@ public class RutaService {
         log.info("Creando ruta con {} tramos",
                 request.getTramos() != null ? request.getTramos().size() : 0);
 
+        Ruta rutaGuardada = rutaRepository.save(armarRuta(request));
+
+        log.info("Ruta creada con id: {} y {} tramos", rutaGuardada.getId(), rutaGuardada.getTramos().size());
+        return RutaMapper.toResponse(rutaGuardada);
+    }
+
+    /**
+     * Crear varias rutas con sus tramos en una sola transacción.
+     * Los INSERT de rutas y tramos se agrupan en lotes JDBC (hibernate.jdbc.batch_size) y los ids
+     * salen de secuencias con allocationSize 50, por lo que no hay un round-trip por fila.
+     *
+     * @param requests datos de cada ruta y sus tramos
+     * @return rutas creadas, en el mismo orden que los requests
+     * @throws IllegalArgumentException si alguna ruta no tiene tramos
+     */
+    @Transactional
+    public List<RutaResponse> crearRutas(List<RutaRequest> requests) {
+        log.info("Creando {} rutas en lote", requests.size());
+
+        List<Ruta> rutas = new ArrayList<>(requests.size());
+        for (RutaRequest request : requests) {
+            rutas.add(armarRuta(request));
+        }
+        List<Ruta> rutasGuardadas = rutaRepository.saveAll(rutas);
+
+        log.info("{} rutas creadas en lote", rutasGuardadas.size());
+        return rutasGuardadas.stream()
+                .map(RutaMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Arma la ruta con sus tramos; el cascade de Ruta.tramos los persiste junto con la ruta
+    private Ruta armarRuta(RutaRequest request) {
         // Validar que tenga al menos un tramo
         if (request.getTramos() == null || request.getTramos().isEmpty()) {
             throw new IllegalArgumentException("La ruta debe tener al menos un tramo");
         }
 
-        // Crear la ruta
         Ruta ruta = RutaMapper.toEntity(request);
-        Ruta rutaGuardada = rutaRepository.save(ruta);
-
-        // Crear los tramos asociados
-        List<Tramo> tramos = new ArrayList<>();
+        List<Tramo> tramos = new ArrayList<>(request.getTramos().size());
         for (TramoRequest tramoRequest : request.getTramos()) {
-            Tramo tramo = TramoMapper.toEntity(tramoRequest, rutaGuardada);
-            tramos.add(tramo);
+            tramos.add(TramoMapper.toEntity(tramoRequest, ruta));
         }
-
-        List<Tramo> tramosGuardados = tramoRepository.saveAll(tramos);
-        rutaGuardada.setTramos(tramosGuardados);
-
-        log.info("Ruta creada con id: {} y {} tramos", rutaGuardada.getId(), tramosGuardados.size());
-        return RutaMapper.toResponse(rutaGuardada);
+        ruta.setTramos(tramos);
+        return ruta;
     }
 
     /**
@@ -174,9 +195,7 @@ public class RutaService {
                         "Ruta no encontrada con id: " + id));
 
         // No permitir actualizar si tiene tramos iniciados o finalizados
-        boolean tieneTramoEnProceso = ruta.getTramos().stream()
-                .anyMatch(t -> t.getEstado() == EstadoTramo.INICIADO
-                        || t.getEstado() == EstadoTramo.FINALIZADO);
+        boolean tieneTramoEnProceso = ruta.getTramosIniciados() > 0 || ruta.getTramosFinalizados() > 0;
 
         if (tieneTramoEnProceso) {
             throw new IllegalStateException(
@@ -266,20 +285,16 @@ public class RutaService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Ruta no encontrada con id: " + id));
 
-        int totalTramos = ruta.getTramos().size();
-        long tramosFinalizados = ruta.getTramos().stream()
-                .filter(t -> t.getEstado() == EstadoTramo.FINALIZADO)
-                .count();
-
-        long tramosEnProceso = ruta.getTramos().stream()
-                .filter(t -> t.getEstado() == EstadoTramo.INICIADO)
-                .count();
+        // Contadores mantenidos por las transiciones de tramo: no hace falta cargar los tramos
+        int totalTramos = ruta.getTotalTramos();
+        int tramosFinalizados = ruta.getTramosFinalizados();
+        int tramosEnProceso = ruta.getTramosIniciados();
 
         return ProgresoRuta.builder()
                 .rutaId(id)
                 .totalTramos(totalTramos)
-                .tramosFinalizados((int) tramosFinalizados)
-                .tramosEnProceso((int) tramosEnProceso)
+                .tramosFinalizados(tramosFinalizados)
+                .tramosEnProceso(tramosEnProceso)
                 .porcentajeCompletado((totalTramos > 0) ? (tramosFinalizados * 100.0 / totalTramos) : 0.0)
                 .build();
     }
@@ -1,10 +1,16 @@
 package ar.edu.utn.frc.backend.tpi.solicitudes.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -13,24 +19,24 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
-import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ClienteResponse;
-import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ContenedorRequest;
-import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ContenedorResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.PaginaSolicitudesResponse;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResumen;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
-import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
 import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.SolicitudMapper;
 import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ClienteRepository;
-import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ContenedorRepository;
 import ar.edu.utn.frc.backend.tpi.solicitudes.repository.RutaRepository;
 import ar.edu.utn.frc.backend.tpi.solicitudes.repository.SolicitudRepository;
-import ar.edu.utn.frc.backend.tpi.solicitudes.repository.TramoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -51,13 +57,23 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SolicitudService {
 
+    // Paginación por cursor y exportación NDJSON
+    private static final int TAMANIO_PAGINA_DEFAULT = 50;
+    private static final int TAMANIO_PAGINA_MAXIMO = 500;
+    private static final int TAMANIO_BLOQUE_EXPORTACION = 500;
+
     private final SolicitudRepository solicitudRepository;
     private final ClienteRepository clienteRepository;
-    private final ContenedorRepository contenedorRepository;
     private final RutaRepository rutaRepository;
-    private final TramoRepository tramoRepository;
     private final ClienteService clienteService;
     private final ContenedorService contenedorService;
+    private final ClientePorEmailCache clientePorEmailCache;
+    private final CostoSolicitudService costoSolicitudService;
+    private final TramoService tramoService;
+    private final ReintentoConflictos reintentoConflictos;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * CU-01: Registrar solicitud de transporte.
@@ -88,32 +104,17 @@ public class SolicitudService {
                     "Cliente no registrado en Keycloak. Vaya a Keycloak y regístrelo.");
         }
 
-        // Obtener o crear cliente usando el patrón find-or-create
-        ClienteResponse clienteResponse = clienteService.obtenerOCrearCliente(solicitudRequest.getCliente());
-        log.info("Cliente obtenido/creado con id: {}", clienteResponse.getId());
-
-        // Obtener el cliente como entidad para asociarlo a la solicitud
-        Cliente cliente = clienteRepository.findById(clienteResponse.getId())
-                .orElseThrow(() -> new IllegalStateException(
-                        "Error al obtener cliente recién creado con id: " + clienteResponse.getId()));
-
-        // Configurar el clienteId en el contenedor request antes de crear/obtener
-        ContenedorRequest contenedorRequest = solicitudRequest.getContenedor();
-        contenedorRequest.setClienteId(clienteResponse.getId());
-
-        // Obtener o crear contenedor usando el patrón find-or-create
-        ContenedorResponse contenedorResponse = contenedorService.obtenerOCrearContenedor(contenedorRequest);
-        log.info("Contenedor obtenido/creado con id: {}", contenedorResponse.getId());
+        // Cliente y contenedor quedan administrados: en PostgreSQL cada uno es un único upsert
+        // y no hace falta volver a leerlos para asociarlos a la solicitud
+        Cliente cliente = clienteService.obtenerOCrearEntidad(solicitudRequest.getCliente());
+        eventPublisher.publishEvent(new ClientePorEmailCache.ClienteRegistradoEvent(emailToken, cliente.getId()));
+        log.info("Cliente obtenido/creado con id: {}", cliente.getId());
 
-        // Obtener el contenedor como entidad para asociarlo a la solicitud
-        Contenedor contenedor = contenedorRepository.findById(contenedorResponse.getId())
-                .orElseThrow(() -> new IllegalStateException(
-                        "Error al obtener contenedor recién creado con id: " + contenedorResponse.getId()));
+        Contenedor contenedor = contenedorService.obtenerOCrearEntidad(solicitudRequest.getContenedor(), cliente);
+        log.info("Contenedor obtenido/creado con id: {}", contenedor.getId());
 
         // Evitar solicitudes duplicadas para un contenedor que aun no fue entregado
-        List<Solicitud> solicitudesActivas = solicitudRepository.findByContenedorIdAndEstadoNot(
-                contenedor.getId(), EstadoSolicitud.ENTREGADA);
-        if (!solicitudesActivas.isEmpty()) {
+        if (solicitudRepository.existsByContenedorIdAndEstadoNot(contenedor.getId(), EstadoSolicitud.ENTREGADA)) {
             throw new ResponseStatusException(
                     HttpStatus.CONFLICT,
                     "Ya existe una solicitud activa para el contenedor " + contenedor.getNumeroSerie());
@@ -166,21 +167,21 @@ public class SolicitudService {
      * CU-02: Consultar todas las solicitudes de un cliente.
      *
      * @param clienteId identificador del cliente
+     * @param resumen si es true, lee una proyección sin ruta ni tramos (ver {@link SolicitudResumen})
      * @return lista de solicitudes del cliente
      */
     @Transactional(readOnly = true) // Solo lectura de datos 
-    public List<SolicitudResponse> obtenerSolicitudesPorCliente(Long clienteId) {
+    public List<SolicitudResponse> obtenerSolicitudesPorCliente(Long clienteId, boolean resumen) {
         log.info("Consultando solicitudes del cliente: {}", clienteId);
 
-        // Validar que el cliente existe
-        if (!clienteRepository.existsById(clienteId)) {
-            throw new IllegalArgumentException("Cliente no encontrado con id: " + clienteId);
-        }
-
-        // Si es rol CLIENTE, solo puede consultar su propio clienteId
+        // Validar que el cliente existe y, si es rol CLIENTE, que sea el propio
         Jwt jwt = getJwt();
         validarClienteId(jwt, clienteId);
 
+        if (resumen) {
+            return mapResumenes(solicitudRepository.findResumenesByClienteId(clienteId));
+        }
+
         List<Solicitud> solicitudes = solicitudRepository.findByClienteId(clienteId);
 
         return solicitudes.stream()
@@ -192,12 +193,17 @@ public class SolicitudService {
      * CU-05: Consultar contenedores pendientes.
      * Retorna todas las solicitudes que no están en estado ENTREGADA.
      *
+     * @param resumen si es true, lee una proyección sin ruta ni tramos
      * @return lista de solicitudes pendientes
      */
     @Transactional(readOnly = true)
-    public List<SolicitudResponse> obtenerSolicitudesPendientes() {
+    public List<SolicitudResponse> obtenerSolicitudesPendientes(boolean resumen) {
         log.info("Consultando solicitudes pendientes");
 
+        if (resumen) {
+            return mapResumenes(solicitudRepository.findResumenesByEstadoNot(EstadoSolicitud.ENTREGADA));
+        }
+
         List<Solicitud> solicitudes = solicitudRepository.findByEstadoNot(EstadoSolicitud.ENTREGADA);
 
         return solicitudes.stream()
@@ -209,12 +215,17 @@ public class SolicitudService {
      * CU-05: Consultar solicitudes por estado.
      *
      * @param estado estado de la solicitud
+     * @param resumen si es true, lee una proyección sin ruta ni tramos
      * @return lista de solicitudes con el estado especificado
      */
     @Transactional(readOnly = true)
-    public List<SolicitudResponse> obtenerSolicitudesPorEstado(EstadoSolicitud estado) {
+    public List<SolicitudResponse> obtenerSolicitudesPorEstado(EstadoSolicitud estado, boolean resumen) {
         log.info("Consultando solicitudes con estado: {}", estado);
 
+        if (resumen) {
+            return mapResumenes(solicitudRepository.findResumenesByEstado(estado));
+        }
+
         List<Solicitud> solicitudes = solicitudRepository.findByEstado(estado);
 
         return solicitudes.stream()
@@ -280,31 +291,20 @@ public class SolicitudService {
      * @throws IllegalArgumentException si el tramo no existe
      * @throws IllegalStateException si el tramo no está en estado ASIGNADO
      */
-    @Transactional
     public SolicitudResponse registrarInicioTramo(Long tramoId) {
         log.info("Registrando inicio de tramo {}", tramoId);
+        return reintentoConflictos.ejecutar("inicio de tramo " + tramoId, () -> iniciarTramo(tramoId));
+    }
 
-        Tramo tramo = tramoRepository.findById(tramoId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Tramo no encontrado con id: " + tramoId));
-
-        // Validar que el tramo está en estado ASIGNADO
-        if (!EstadoTramo.ASIGNADO.equals(tramo.getEstado())) {
-            throw new IllegalStateException(
-                    "Solo se puede iniciar tramos en estado ASIGNADO. Estado actual: "
-                    + tramo.getEstado());
-        }
+    private SolicitudResponse iniciarTramo(Long tramoId) {
 
-        // Registrar inicio
-        tramo.setFechaHoraInicio(LocalDateTime.now());
-        tramo.setEstado(EstadoTramo.INICIADO);
-        tramoRepository.save(tramo);
+        // Registrar inicio (UPDATE condicional: falla si el tramo no está ASIGNADO)
+        Tramo tramo = tramoService.iniciar(tramoId);
 
-        // Actualizar estado de la solicitud a EN_TRANSITO
+        // Actualizar estado de la solicitud a EN_TRANSITO, solo si sigue PROGRAMADA
         Solicitud solicitud = tramo.getRuta().getSolicitud();
-        if (EstadoSolicitud.PROGRAMADA.equals(solicitud.getEstado())) {
-            solicitud.setEstado(EstadoSolicitud.EN_TRANSITO);
-            solicitudRepository.save(solicitud);
+        if (solicitudRepository.marcarEnTransito(solicitud.getId()) > 0) {
+            solicitud = solicitudRepository.findById(solicitud.getId()).orElseThrow();
         }
 
         log.info("Inicio de tramo {} registrado exitosamente", tramoId);
@@ -321,35 +321,21 @@ public class SolicitudService {
      * @throws IllegalArgumentException si el tramo no existe
      * @throws IllegalStateException si el tramo no está en estado INICIADO
      */
-    @Transactional
     public SolicitudResponse registrarFinTramo(Long tramoId) {
         log.info("Registrando fin de tramo {}", tramoId);
+        return reintentoConflictos.ejecutar("fin de tramo " + tramoId, () -> finalizarTramo(tramoId));
+    }
 
-        Tramo tramo = tramoRepository.findById(tramoId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Tramo no encontrado con id: " + tramoId));
-
-        // Validar que el tramo está en estado INICIADO
-        if (!EstadoTramo.INICIADO.equals(tramo.getEstado())) {
-            throw new IllegalStateException(
-                    "Solo se puede finalizar tramos en estado INICIADO. Estado actual: "
-                    + tramo.getEstado());
-        }
-
-        // Registrar fin
-        tramo.setFechaHoraFin(LocalDateTime.now());
-        tramo.setEstado(EstadoTramo.FINALIZADO);
-        tramoRepository.save(tramo);
+    private SolicitudResponse finalizarTramo(Long tramoId) {
+        // Registrar fin (UPDATE condicional: falla si el tramo no está INICIADO)
+        Tramo tramo = tramoService.finalizar(tramoId);
 
         // Obtener la solicitud
         Solicitud solicitud = tramo.getRuta().getSolicitud();
         Ruta ruta = tramo.getRuta();
 
-        // Verificar si todos los tramos están finalizados
-        boolean todosFinalizados = ruta.getTramos().stream()
-                .allMatch(t -> EstadoTramo.FINALIZADO.equals(t.getEstado()));
-
-        if (todosFinalizados) {
+        // Los contadores de la ruta ya incluyen este tramo: se decide sin recorrer los tramos
+        if (ruta.estaCompleta()) {
             // CU-10: Registrar costo y tiempo reales
             finalizarSolicitud(solicitud, ruta);
         }
@@ -360,8 +346,11 @@ public class SolicitudService {
 
     /**
      * CU-10: Registrar costo y tiempo reales al finalizar la solicitud.
-     * Calcula el costo real sumando los costos de todos los tramos.
+     * El costo real y la fecha de fin del último tramo salen de los contadores de la ruta.
      * Calcula el tiempo real desde la fecha de creación hasta el fin del último tramo.
+     * Guarda además el desglose de costo total, que queda fijo desde la entrega. Ese desglose sí
+     * carga los tramos (una vez por solicitud): la estadía en depósitos depende de las fechas de
+     * tramos consecutivos y no se puede obtener de los contadores de la ruta.
      *
      * @param solicitud solicitud a finalizar
      * @param ruta ruta de la solicitud
@@ -369,19 +358,14 @@ public class SolicitudService {
     private void finalizarSolicitud(Solicitud solicitud, Ruta ruta) {
         log.info("Finalizando solicitud {}", solicitud.getId());
 
-        // Calcular costo real (suma de costos reales de todos los tramos)
-        Double costoReal = ruta.getTramos().stream()
-                .map(Tramo::getCostoReal)
-                .filter(costo -> costo != null)
-                .reduce(0.0, Double::sum);
+        // Costo real (suma de costos reales de todos los tramos), acumulado en la ruta
+        Double costoReal = ruta.getCostoRealAcumulado();
 
         // Calcular tiempo real (desde fecha de creación hasta fin del último tramo)
         LocalDateTime fechaCreacion = solicitud.getFechaCreacion();
-        LocalDateTime fechaFinUltimoTramo = ruta.getTramos().stream()
-                .map(Tramo::getFechaHoraFin)
-                .filter(fecha -> fecha != null)
-                .max(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now());
+        LocalDateTime fechaFinUltimoTramo = ruta.getFechaFinUltimoTramo() != null
+                ? ruta.getFechaFinUltimoTramo()
+                : LocalDateTime.now();
 
         long minutosTranscurridos = ChronoUnit.MINUTES.between(fechaCreacion, fechaFinUltimoTramo);
         Double tiempoRealHoras = minutosTranscurridos / 60.0;
@@ -392,6 +376,11 @@ public class SolicitudService {
         solicitud.setEstado(EstadoSolicitud.ENTREGADA);
 
         solicitudRepository.save(solicitud);
+
+        // Único recorrido de los tramos al finalizar: a cambio, las consultas de costo de una
+        // solicitud entregada leen solo el desglose guardado
+        costoSolicitudService.materializarCostoTotal(solicitud);
+
         log.info("Solicitud {} finalizada. Costo real: {}, Tiempo real: {} horas",
                 solicitud.getId(), costoReal, tiempoRealHoras);
     }
@@ -412,9 +401,15 @@ public class SolicitudService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Solicitud no encontrada con id: " + solicitudId));
 
+        EstadoSolicitud estadoAnterior = solicitud.getEstado();
         solicitud.setEstado(nuevoEstado);
         Solicitud solicitudActualizada = solicitudRepository.save(solicitud);
 
+        // El desglose guardado solo vale mientras la solicitud siga entregada
+        if (estadoAnterior == EstadoSolicitud.ENTREGADA && nuevoEstado != EstadoSolicitud.ENTREGADA) {
+            costoSolicitudService.descartarCostoTotal(solicitudId);
+        }
+
         return mapToResponse(solicitudActualizada);
     }
 
@@ -446,17 +441,121 @@ public class SolicitudService {
     /**
      * Obtener todas las solicitudes del sistema.
      *
+     * @param resumen si es true, lee una proyección sin ruta ni tramos
      * @return lista de todas las solicitudes
      */
     @Transactional(readOnly = true)
-    public List<SolicitudResponse> obtenerTodasLasSolicitudes() {
+    public List<SolicitudResponse> obtenerTodasLasSolicitudes(boolean resumen) {
         log.info("Consultando todas las solicitudes");
 
+        if (resumen) {
+            return mapResumenes(solicitudRepository.findAllResumenes());
+        }
+
         return solicitudRepository.findAll().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene una página de solicitudes usando paginación por cursor (keyset).
+     * A diferencia de OFFSET, el costo de cada página no crece con la posición en la tabla.
+     * <p>
+     * El cursor es el id, no la fecha de creación: los ids salen de una secuencia con allocationSize 50
+     * y cada réplica reserva su propio bloque, por lo que el orden de ids no es el de inserción. Una
+     * solicitud que otra réplica inserte después con un id menor al cursor ya entregado no aparece en
+     * las páginas siguientes; para un recorrido completo y consistente usar {@link #exportarSolicitudes}.
+     *
+     * @param estado filtra por estado (opcional)
+     * @param soloPendientes si es true, excluye las solicitudes ENTREGADA (se ignora si hay estado)
+     * @param despuesDe id de la última solicitud recibida (null para la primera página)
+     * @param tamanio cantidad de solicitudes por página
+     * @return página de solicitudes con el cursor para la siguiente
+     */
+    @Transactional(readOnly = true)
+    public PaginaSolicitudesResponse obtenerPaginaSolicitudes(EstadoSolicitud estado, boolean soloPendientes,
+            Long despuesDe, Integer tamanio) {
+        int tamanioPagina = normalizarTamanioPagina(tamanio);
+        long cursor = despuesDe != null ? despuesDe : 0L;
+        log.info("Consultando página de solicitudes después de {} (tamaño {})", cursor, tamanioPagina);
+
+        // Se pide un registro extra para saber si hay más páginas sin hacer un COUNT
+        Limit limit = Limit.of(tamanioPagina + 1);
+        List<Solicitud> solicitudes;
+        if (estado != null) {
+            solicitudes = solicitudRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, cursor, limit);
+        } else if (soloPendientes) {
+            solicitudes = solicitudRepository.findByEstadoNotAndIdGreaterThanOrderByIdAsc(
+                    EstadoSolicitud.ENTREGADA, cursor, limit);
+        } else {
+            solicitudes = solicitudRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit);
+        }
+
+        boolean hayMas = solicitudes.size() > tamanioPagina;
+        List<SolicitudResponse> pagina = solicitudes.stream()
+                .limit(tamanioPagina)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+
+        return PaginaSolicitudesResponse.builder()
+                .solicitudes(pagina)
+                .siguienteCursor(pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId())
+                .hayMas(hayMas)
+                .tamanio(pagina.size())
+                .build();
+    }
+
+    /**
+     * Escribe las solicitudes en formato NDJSON (un objeto JSON por línea) a medida que se leen
+     * de la base de datos. El contexto de persistencia se limpia periódicamente para que la memoria
+     * se mantenga constante sin importar el tamaño de la tabla.
+     *
+     * @param estado filtra por estado (opcional)
+     * @param soloPendientes si es true, excluye las solicitudes ENTREGADA (se ignora si hay estado)
+     * @param salida stream donde se escriben las líneas
+     * @throws IOException si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public void exportarSolicitudes(EstadoSolicitud estado, boolean soloPendientes, OutputStream salida)
+            throws IOException {
+        log.info("Exportando solicitudes en NDJSON (estado: {}, pendientes: {})", estado, soloPendientes);
+
+        ObjectWriter writer = objectMapper.writerFor(SolicitudResponse.class);
+        int procesadas = 0;
+
+        try (Stream<Solicitud> solicitudes = abrirStreamSolicitudes(estado, soloPendientes)) {
+            Iterator<Solicitud> iterator = solicitudes.iterator();
+            while (iterator.hasNext()) {
+                salida.write(writer.writeValueAsBytes(mapToResponse(iterator.next())));
+                salida.write('\n');
+
+                if (++procesadas % TAMANIO_BLOQUE_EXPORTACION == 0) {
+                    entityManager.clear();
+                    salida.flush();
+                }
+            }
+        }
+        salida.flush();
+        log.info("Exportación finalizada: {} solicitudes", procesadas);
+    }
+
+    private Stream<Solicitud> abrirStreamSolicitudes(EstadoSolicitud estado, boolean soloPendientes) {
+        if (estado != null) {
+            return solicitudRepository.streamByEstadoOrderByIdAsc(estado);
+        }
+        if (soloPendientes) {
+            return solicitudRepository.streamByEstadoNotOrderByIdAsc(EstadoSolicitud.ENTREGADA);
+        }
+        return solicitudRepository.streamAllByOrderByIdAsc();
+    }
+
+    private int normalizarTamanioPagina(Integer tamanio) {
+        if (tamanio == null || tamanio <= 0) {
+            return TAMANIO_PAGINA_DEFAULT;
+        }
+        return Math.min(tamanio, TAMANIO_PAGINA_MAXIMO);
+    }
+
     /**
      * Mapea una entidad Solicitud a un DTO SolicitudResponse.
      *
@@ -467,6 +566,12 @@ public class SolicitudService {
         return SolicitudMapper.toResponse(solicitud);
     }
 
+    private List<SolicitudResponse> mapResumenes(List<SolicitudResumen> resumenes) {
+        return resumenes.stream()
+                .map(SolicitudMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Valida que, si el rol es CLIENTE, el recurso pertenece al subject autenticado.
      * Se asume que el claim "email" o "preferred_username" se corresponde con el email del cliente.
@@ -479,8 +584,9 @@ public class SolicitudService {
             return;
         }
         if (tieneRol("CLIENTE")) {
-            String emailToken = obtenerEmail(jwt);
-            if (emailToken == null || !emailToken.equalsIgnoreCase(cliente.getEmail())) {
+            // Se comparan ids: el del proxy no inicializa el cliente y el del token sale de la cache
+            Long clienteIdToken = clientePorEmailCache.obtenerId(obtenerEmail(jwt)).orElse(null);
+            if (clienteIdToken == null || !clienteIdToken.equals(cliente.getId())) {
                 throw new org.springframework.security.access.AccessDeniedException(
                         "No puedes acceder a una solicitud de otro cliente");
             }
@@ -488,23 +594,23 @@ public class SolicitudService {
     }
 
     private void validarClienteId(Jwt jwt, Long clienteId) {
-        if (jwt == null || clienteId == null) {
-            return;
-        }
-        if (tieneRol("ADMIN")) {
-            return;
-        }
-        if (tieneRol("CLIENTE")) {
+        if (jwt != null && !tieneRol("ADMIN") && tieneRol("CLIENTE")) {
             String emailToken = obtenerEmail(jwt);
             if (emailToken == null) {
                 throw new org.springframework.security.access.AccessDeniedException("Token sin email");
             }
-            Cliente cliente = clienteRepository.findById(clienteId)
-                    .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con id: " + clienteId));
-            if (!emailToken.equalsIgnoreCase(cliente.getEmail())) {
-                throw new org.springframework.security.access.AccessDeniedException(
-                        "No puedes acceder a otro cliente");
+            // Si coincide con el cliente del token también queda probado que existe
+            if (clienteId.equals(clientePorEmailCache.obtenerId(emailToken).orElse(null))) {
+                return;
             }
+            if (!clienteRepository.existsById(clienteId)) {
+                throw new IllegalArgumentException("Cliente no encontrado con id: " + clienteId);
+            }
+            throw new org.springframework.security.access.AccessDeniedException(
+                    "No puedes acceder a otro cliente");
+        }
+        if (!clienteRepository.existsById(clienteId)) {
+            throw new IllegalArgumentException("Cliente no encontrado con id: " + clienteId);
         }
     }
 
@@ -9,8 +9,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TramoRequest;
 import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TramoResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
 import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
 import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.TramoMapper;
 import ar.edu.utn.frc.backend.tpi.solicitudes.repository.RutaRepository;
@@ -34,6 +36,7 @@ public class TramoService {
 
     private final TramoRepository tramoRepository;
     private final RutaRepository rutaRepository;
+    private final CostoSolicitudService costoSolicitudService;
 
     /**
      * Crear un nuevo tramo asociado a una ruta.
@@ -53,6 +56,7 @@ public class TramoService {
 
         Tramo tramo = TramoMapper.toEntity(request, ruta);
         Tramo tramoGuardado = tramoRepository.save(tramo);
+        rutaRepository.sumarTramos(ruta.getId(), 1);
 
         log.info("Tramo creado con id: {}", tramoGuardado.getId());
         return TramoMapper.toResponse(tramoGuardado);
@@ -187,24 +191,16 @@ public class TramoService {
     public TramoResponse asignarCamion(Long tramoId, Long camionId) {
         log.info("Asignando camión {} al tramo {}", camionId, tramoId);
 
-        Tramo tramo = tramoRepository.findById(tramoId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Tramo no encontrado con id: " + tramoId));
-
-        // Solo se puede asignar camión si está en estado ESTIMADO
-        if (tramo.getEstado() != EstadoTramo.ESTIMADO) {
-            throw new IllegalStateException(
-                    "Solo se puede asignar camión a tramos en estado ESTIMADO. Estado actual: "
-                            + tramo.getEstado());
-        }
-
         // TODO: Validar que el camión existe y está disponible
         // Esto se hará cuando se integre con el microservicio de Flota
 
-        tramo.setCamionId(camionId);
-        tramo.setEstado(EstadoTramo.ASIGNADO);
+        // Solo se puede asignar camión si está en estado ESTIMADO
+        if (tramoRepository.asignarCamion(tramoId, camionId) == 0) {
+            throw transicionRechazada(tramoId,
+                    "Solo se puede asignar camión a tramos en estado ESTIMADO. Estado actual: ");
+        }
 
-        Tramo tramoActualizado = tramoRepository.save(tramo);
+        Tramo tramoActualizado = recargar(tramoId);
         log.info("Camión {} asignado al tramo {}", camionId, tramoId);
 
         return TramoMapper.toResponse(tramoActualizado);
@@ -224,27 +220,7 @@ public class TramoService {
     public TramoResponse iniciarTramo(Long tramoId) {
         log.info("Iniciando tramo {}", tramoId);
 
-        Tramo tramo = tramoRepository.findById(tramoId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Tramo no encontrado con id: " + tramoId));
-
-        // Solo se puede iniciar si está ASIGNADO
-        if (tramo.getEstado() != EstadoTramo.ASIGNADO) {
-            throw new IllegalStateException(
-                    "Solo se puede iniciar tramos en estado ASIGNADO. Estado actual: "
-                            + tramo.getEstado());
-        }
-
-        // Validar que tiene camión asignado
-        if (tramo.getCamionId() == null) {
-            throw new IllegalStateException(
-                    "No se puede iniciar un tramo sin camión asignado");
-        }
-
-        tramo.setFechaHoraInicio(LocalDateTime.now());
-        tramo.setEstado(EstadoTramo.INICIADO);
-
-        Tramo tramoActualizado = tramoRepository.save(tramo);
+        Tramo tramoActualizado = iniciar(tramoId);
         log.info("Tramo {} iniciado en {}", tramoId, tramoActualizado.getFechaHoraInicio());
 
         return TramoMapper.toResponse(tramoActualizado);
@@ -264,24 +240,67 @@ public class TramoService {
     public TramoResponse finalizarTramo(Long tramoId) {
         log.info("Finalizando tramo {}", tramoId);
 
-        Tramo tramo = tramoRepository.findById(tramoId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Tramo no encontrado con id: " + tramoId));
+        Tramo tramoActualizado = finalizar(tramoId);
+        log.info("Tramo {} finalizado en {}", tramoId, tramoActualizado.getFechaHoraFin());
 
-        // Solo se puede finalizar si está INICIADO
-        if (tramo.getEstado() != EstadoTramo.INICIADO) {
+        return TramoMapper.toResponse(tramoActualizado);
+    }
+
+    /**
+     * Pasa el tramo de ASIGNADO a INICIADO con un único UPDATE condicional.
+     * También lo usa SolicitudService al registrar el inicio desde la solicitud.
+     *
+     * Actualiza en la misma transacción los contadores de la ruta.
+     *
+     * @return el tramo ya iniciado, leído después de la actualización
+     */
+    Tramo iniciar(Long tramoId) {
+        if (tramoRepository.iniciar(tramoId, LocalDateTime.now()) == 0) {
+            Tramo tramo = tramoRepository.findById(tramoId)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Tramo no encontrado con id: " + tramoId));
+            // Validar que tiene camión asignado
+            if (tramo.getEstado() == EstadoTramo.ASIGNADO && tramo.getCamionId() == null) {
+                throw new IllegalStateException(
+                        "No se puede iniciar un tramo sin camión asignado");
+            }
             throw new IllegalStateException(
-                    "Solo se puede finalizar tramos en estado INICIADO. Estado actual: "
-                            + tramo.getEstado());
+                    "Solo se puede iniciar tramos en estado ASIGNADO. Estado actual: " + tramo.getEstado());
         }
+        rutaRepository.contarInicioTramo(tramoId);
+        return recargar(tramoId);
+    }
 
-        tramo.setFechaHoraFin(LocalDateTime.now());
-        tramo.setEstado(EstadoTramo.FINALIZADO);
+    /**
+     * Pasa el tramo de INICIADO a FINALIZADO con un único UPDATE condicional.
+     * También lo usa SolicitudService al registrar el fin desde la solicitud.
+     *
+     * Actualiza en la misma transacción los contadores de la ruta.
+     *
+     * @return el tramo ya finalizado (con su ruta y contadores al día), leído después de la actualización
+     */
+    Tramo finalizar(Long tramoId) {
+        LocalDateTime fechaFin = LocalDateTime.now();
+        if (tramoRepository.finalizar(tramoId, fechaFin) == 0) {
+            throw transicionRechazada(tramoId,
+                    "Solo se puede finalizar tramos en estado INICIADO. Estado actual: ");
+        }
+        // El UPDATE de la ruta bloquea su fila: los fines concurrentes de la misma ruta se cuentan de a uno
+        rutaRepository.contarFinTramo(tramoId, fechaFin);
+        return recargar(tramoId);
+    }
 
-        Tramo tramoActualizado = tramoRepository.save(tramo);
-        log.info("Tramo {} finalizado en {}", tramoId, tramoActualizado.getFechaHoraFin());
+    // El UPDATE no afectó filas: se lee el tramo solo para distinguir inexistente de estado inválido
+    private IllegalStateException transicionRechazada(Long tramoId, String mensaje) {
+        Tramo tramo = tramoRepository.findById(tramoId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Tramo no encontrado con id: " + tramoId));
+        return new IllegalStateException(mensaje + tramo.getEstado());
+    }
 
-        return TramoMapper.toResponse(tramoActualizado);
+    private Tramo recargar(Long tramoId) {
+        return tramoRepository.findById(tramoId)
+                .orElseThrow(() -> new IllegalStateException("Error al leer el tramo " + tramoId));
     }
 
     /**
@@ -308,8 +327,17 @@ public class TramoService {
                     "Solo se puede actualizar el costo real de tramos finalizados");
         }
 
+        double diferencia = (costoReal != null ? costoReal : 0.0)
+                - (tramo.getCostoReal() != null ? tramo.getCostoReal() : 0.0);
         tramo.setCostoReal(costoReal);
         Tramo tramoActualizado = tramoRepository.save(tramo);
+        Solicitud solicitud = tramo.getRuta().getSolicitud();
+        rutaRepository.sumarCostoReal(tramo.getRuta().getId(), diferencia);
+
+        // Si la solicitud ya se entregó, el desglose guardado se recalcula con el costo corregido
+        if (solicitud != null && solicitud.getEstado() == EstadoSolicitud.ENTREGADA) {
+            costoSolicitudService.rematerializarCostoTotal(solicitud.getId());
+        }
 
         log.info("Costo real del tramo {} actualizado", tramoId);
         return TramoMapper.toResponse(tramoActualizado);
@@ -338,7 +366,9 @@ public class TramoService {
                             + tramo.getEstado());
         }
 
+        Long rutaId = tramo.getRuta().getId();
         tramoRepository.delete(tramo);
+        rutaRepository.sumarTramos(rutaId, -1);
         log.info("Tramo eliminado con id: {}", id);
     }
 
@@ -361,6 +391,8 @@ public class TramoService {
 
         tramo.setEstado(nuevoEstado);
         Tramo tramoActualizado = tramoRepository.save(tramo);
+        // Cambio manual, sin transición definida: se recalculan los contadores de la ruta desde sus tramos
+        rutaRepository.recalcularContadores(tramo.getRuta().getId());
 
         log.info("Estado del tramo {} actualizado a {}", tramoId, nuevoEstado);
         return TramoMapper.toResponse(tramoActualizado);
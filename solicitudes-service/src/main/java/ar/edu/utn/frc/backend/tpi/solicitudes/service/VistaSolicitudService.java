@@ -0,0 +1,195 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.CamionExternoResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TramoResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.VistaSolicitudResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Arma la vista completa de un envío en una sola llamada.
+ *
+ * La solicitud se lee primero en el hilo del request (valida el propietario y da los ids de ruta
+ * y camiones); después el progreso, el costo total y cada camión de flota-service se consultan en
+ * paralelo, cada uno con su propio timeout. Lo que falla o vence se informa como faltante y no
+ * impide devolver el resto.
+ *
+ * Cada rama exige los mismos roles que su endpoint individual; las que el usuario no puede ver
+ * no se consultan y quedan vacías (no cuentan como faltantes).
+ */
+@Service
+@Slf4j
+public class VistaSolicitudService {
+
+    // Roles de GET /rutas/{id}/progreso, GET /solicitudes/{id}/costo-total y GET /api/camiones/{id} de flota
+    private static final Set<String> ROLES_PROGRESO = Set.of("ROLE_ADMIN", "ROLE_TRANSPORTISTA");
+    private static final Set<String> ROLES_COSTO_TOTAL = Set.of("ROLE_ADMIN", "ROLE_CLIENTE");
+    private static final Set<String> ROLES_CAMIONES = Set.of("ROLE_ADMIN", "ROLE_TRANSPORTISTA");
+
+    private final SolicitudService solicitudService;
+    private final RutaService rutaService;
+    private final CostoSolicitudService costoSolicitudService;
+    // Nulo cuando los servicios remotos están deshabilitados: la vista sale sin camiones
+    private final RestClient serviciosRestClient;
+    private final String flotaUrl;
+    private final Duration timeout;
+    // Las ramas esperan casi siempre E/S (base o HTTP): un hilo virtual por rama
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public VistaSolicitudService(SolicitudService solicitudService, RutaService rutaService,
+            CostoSolicitudService costoSolicitudService, ObjectProvider<RestClient> serviciosRestClient,
+            @Value("${solicitudes.reglas-costo.remoto.flota-url:http://localhost:8082}") String flotaUrl,
+            @Value("${solicitudes.vista.timeout:2s}") Duration timeout) {
+        this(solicitudService, rutaService, costoSolicitudService, serviciosRestClient.getIfAvailable(),
+                flotaUrl, timeout);
+    }
+
+    VistaSolicitudService(SolicitudService solicitudService, RutaService rutaService,
+            CostoSolicitudService costoSolicitudService, RestClient serviciosRestClient,
+            String flotaUrl, Duration timeout) {
+        this.solicitudService = solicitudService;
+        this.rutaService = rutaService;
+        this.costoSolicitudService = costoSolicitudService;
+        this.serviciosRestClient = serviciosRestClient;
+        this.flotaUrl = flotaUrl;
+        this.timeout = timeout;
+    }
+
+    /**
+     * CU-02: Vista agregada de una solicitud.
+     *
+     * @param id identificador de la solicitud
+     * @return solicitud con progreso, costo total y camiones; las partes que no llegaron quedan en null
+     * @throws IllegalArgumentException si la solicitud no existe
+     */
+    public VistaSolicitudResponse obtenerVista(Long id) {
+        // Fuera de las ramas: la validación del propietario usa el contexto de seguridad del request
+        SolicitudResponse solicitud = solicitudService.obtenerSolicitudPorId(id);
+        Set<String> roles = rolesActuales();
+        boolean veProgreso = tieneAlguno(roles, ROLES_PROGRESO);
+        boolean veCostoTotal = tieneAlguno(roles, ROLES_COSTO_TOTAL);
+        // Los camiones se piden con la cuenta de servicio: el control de roles tiene que hacerse acá
+        boolean veCamiones = tieneAlguno(roles, ROLES_CAMIONES);
+
+        CompletableFuture<RutaService.ProgresoRuta> progreso = null;
+        CompletableFuture<CostoSolicitudService.DesgloseCostoTotal> costoTotal = null;
+        Map<Long, CompletableFuture<CamionExternoResponse>> camiones = new LinkedHashMap<>();
+
+        if (solicitud.getRutaId() != null && veProgreso) {
+            progreso = lanzar(() -> rutaService.obtenerProgresoRuta(solicitud.getRutaId()));
+        }
+        if (solicitud.getRutaId() != null && veCostoTotal) {
+            costoTotal = lanzar(() -> costoSolicitudService.calcularCostoTotal(id));
+        }
+        if (serviciosRestClient != null && veCamiones) {
+            camionIds(solicitud).forEach(camionId -> camiones.put(camionId, lanzar(() -> obtenerCamion(camionId))));
+        }
+
+        List<String> faltantes = new ArrayList<>();
+        VistaSolicitudResponse vista = VistaSolicitudResponse.builder()
+                .solicitud(solicitud)
+                .progreso(esperar("progreso", progreso, faltantes))
+                .costoTotal(esperar("costoTotal", costoTotal, faltantes))
+                .build();
+
+        if (serviciosRestClient == null && veCamiones && !camionIds(solicitud).isEmpty()) {
+            faltantes.add("camiones: flota-service no configurado");
+        }
+        camiones.forEach((camionId, camion) -> {
+            CamionExternoResponse respuesta = esperar("camion " + camionId, camion, faltantes);
+            if (respuesta != null) {
+                vista.getCamiones().add(respuesta);
+            }
+        });
+        vista.setFaltantes(faltantes);
+
+        if (!faltantes.isEmpty()) {
+            log.warn("Vista de solicitud {} incompleta: {}", id, faltantes);
+        }
+        return vista;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> lanzar(Supplier<T> rama) {
+        return CompletableFuture.supplyAsync(rama, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Todas las ramas ya están en curso: esperar una no retrasa a las demás
+    private static <T> T esperar(String rama, CompletableFuture<T> futuro, List<String> faltantes) {
+        if (futuro == null) {
+            return null;
+        }
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            String motivo = causa instanceof TimeoutException ? "timeout" : causa.getMessage();
+            faltantes.add(rama + ": " + motivo);
+            log.debug("Rama {} de la vista sin resultado", rama, causa);
+            return null;
+        }
+    }
+
+    private static Set<String> rolesActuales() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion == null) {
+            return Set.of();
+        }
+        return autenticacion.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+
+    private static boolean tieneAlguno(Set<String> roles, Set<String> requeridos) {
+        return requeridos.stream().anyMatch(roles::contains);
+    }
+
+    private CamionExternoResponse obtenerCamion(Long camionId) {
+        return serviciosRestClient.get()
+                .uri(flotaUrl + "/api/camiones/{id}", camionId)
+                .retrieve()
+                .body(CamionExternoResponse.class);
+    }
+
+    private static List<Long> camionIds(SolicitudResponse solicitud) {
+        if (solicitud.getRuta() == null) {
+            return List.of();
+        }
+        return solicitud.getRuta().getTramos().stream()
+                .map(TramoResponse::getCamionId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+}
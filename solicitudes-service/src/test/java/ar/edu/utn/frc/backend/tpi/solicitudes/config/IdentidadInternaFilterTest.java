@@ -0,0 +1,118 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica que la identidad firmada por el gateway produzca las mismas autoridades que el JWT y
+ * que se rechacen identidades alteradas o vencidas.
+ */
+class IdentidadInternaFilterTest {
+
+    private static final String SECRETO = "secreto-de-prueba-de-al-menos-32-bytes";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResourceServerConfig config = new ResourceServerConfig(
+            new TokenCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)));
+    private final IdentidadInternaFilter filtro = new IdentidadInternaFilter(SECRETO, objectMapper,
+            config.jwtAuthenticationConverter());
+
+    @AfterEach
+    void limpiarContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void autenticaConLaIdentidadDelGateway() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdentidadInternaFilter.ENCABEZADO, identidad(SECRETO, Instant.now().plusSeconds(30)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(autenticacion.getName()).isEqualTo("usuario-1");
+        assertThat(autenticacion.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("SCOPE_openid", "ROLE_CLIENTE");
+    }
+
+    @Test
+    void sinEncabezadoDejaPasarElRequest() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void firmaDeOtroSecretoDevuelve401() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdentidadInternaFilter.ENCABEZADO,
+                identidad("otro-secreto-de-prueba-de-32-bytes-o-mas", Instant.now().plusSeconds(30)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void rechazaIdentidadVencida() throws Exception {
+        String vencida = identidad(SECRETO, Instant.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> filtro.verificar(vencida))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("identidad vencida");
+    }
+
+    @Test
+    void rechazaSecretoCorto() {
+        assertThatThrownBy(() -> new IdentidadInternaFilter("corto", objectMapper,
+                config.jwtAuthenticationConverter()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // Mismo formato que emite el IdentidadInternaFilter del api-gateway
+    private String identidad(String secreto, Instant vencimiento) throws Exception {
+        Map<String, Object> claims = Map.of(
+                "sub", "usuario-1",
+                "email", "cliente@tpi.com",
+                "realm_access", Map.of("roles", List.of("cliente")),
+                "scope", "openid",
+                "exp", vencimiento.getEpochSecond());
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(claims));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secreto.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
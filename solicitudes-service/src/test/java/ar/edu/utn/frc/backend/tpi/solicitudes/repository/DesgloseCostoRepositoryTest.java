@@ -0,0 +1,71 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.DesgloseCosto;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+
+/**
+ * Verifica que el desglose guardado solo se sirva mientras la solicitud siga ENTREGADA.
+ */
+@DataJpaTest
+class DesgloseCostoRepositoryTest {
+
+    @Autowired
+    private DesgloseCostoRepository desgloseCostoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void devuelveElDesgloseDeUnaSolicitudEntregada() {
+        Solicitud solicitud = crearSolicitudConDesglose(EstadoSolicitud.ENTREGADA);
+
+        assertThat(desgloseCostoRepository.findBySolicitudIdAndEstadoSolicitud(
+                solicitud.getId(), EstadoSolicitud.ENTREGADA)).isPresent();
+    }
+
+    @Test
+    void ignoraElDesgloseSiLaSolicitudYaNoEstaEntregada() {
+        Solicitud solicitud = crearSolicitudConDesglose(EstadoSolicitud.ENTREGADA);
+        solicitud.setEstado(EstadoSolicitud.EN_TRANSITO);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(desgloseCostoRepository.findBySolicitudIdAndEstadoSolicitud(
+                solicitud.getId(), EstadoSolicitud.ENTREGADA)).isEmpty();
+    }
+
+    private Solicitud crearSolicitudConDesglose(EstadoSolicitud estado) {
+        Cliente cliente = entityManager.persist(Cliente.builder()
+                .nombre("Cliente").email("desglose@test.com").telefono("351000000").direccion("Calle 1")
+                .build());
+        Contenedor contenedor = entityManager.persist(Contenedor.builder()
+                .numeroSerie("CONT-DESGLOSE").tipo("DRY").peso(1000.0).volumen(20.0)
+                .estado(EstadoContenedor.ENTREGADO).cliente(cliente)
+                .build());
+        Solicitud solicitud = entityManager.persist(Solicitud.builder()
+                .cliente(cliente).contenedor(contenedor)
+                .origenDireccion("Origen").destinoDireccion("Destino")
+                .estado(estado).fechaCreacion(LocalDateTime.now())
+                .build());
+        entityManager.persist(DesgloseCosto.builder()
+                .solicitudId(solicitud.getId())
+                .costoRecorrido(100.0).costoPesoVolumen(50.0).costoEstadia(0.0).diasEstadia(0.0)
+                .costoTotal(150.0).usaCostosReales(true).fechaCalculo(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        return solicitud;
+    }
+}
@@ -0,0 +1,107 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+
+/**
+ * Verifica que los contadores de la ruta acompañen las transiciones de sus tramos.
+ */
+@DataJpaTest
+class RutaRepositoryTest {
+
+    private static final LocalDateTime FIN = LocalDateTime.of(2025, 3, 1, 18, 0);
+
+    @Autowired
+    private RutaRepository rutaRepository;
+
+    @Autowired
+    private TramoRepository tramoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void losContadoresSeCalculanAlPersistir() {
+        Ruta ruta = crearRuta(EstadoTramo.FINALIZADO, EstadoTramo.INICIADO, EstadoTramo.ASIGNADO);
+
+        assertThat(ruta.getTotalTramos()).isEqualTo(3);
+        assertThat(ruta.getTramosIniciados()).isEqualTo(1);
+        assertThat(ruta.getTramosFinalizados()).isEqualTo(1);
+        assertThat(ruta.getCostoRealAcumulado()).isEqualTo(100.0);
+        assertThat(ruta.getFechaFinUltimoTramo()).isEqualTo(FIN);
+        assertThat(ruta.estaCompleta()).isFalse();
+    }
+
+    @Test
+    void inicioYFinDeTramoActualizanLosContadores() {
+        Ruta ruta = crearRuta(EstadoTramo.FINALIZADO, EstadoTramo.ASIGNADO);
+        Long tramoId = ruta.getTramos().get(1).getId();
+
+        tramoRepository.iniciar(tramoId, FIN.plusHours(1));
+        rutaRepository.contarInicioTramo(tramoId);
+        assertThat(recargar(ruta).getTramosIniciados()).isEqualTo(1);
+
+        tramoRepository.finalizar(tramoId, FIN.plusHours(5));
+        rutaRepository.contarFinTramo(tramoId, FIN.plusHours(5));
+
+        Ruta completa = recargar(ruta);
+        assertThat(completa.getTramosIniciados()).isZero();
+        assertThat(completa.getTramosFinalizados()).isEqualTo(2);
+        assertThat(completa.getCostoRealAcumulado()).isEqualTo(200.0);
+        assertThat(completa.getFechaFinUltimoTramo()).isEqualTo(FIN.plusHours(5));
+        assertThat(completa.estaCompleta()).isTrue();
+        assertThat(completa.getVersion()).isEqualTo(ruta.getVersion() + 2);
+    }
+
+    @Test
+    void recalcularContadoresCoincideConLosTramos() {
+        Ruta ruta = crearRuta(EstadoTramo.FINALIZADO, EstadoTramo.INICIADO);
+        rutaRepository.sumarTramos(ruta.getId(), 5);
+        rutaRepository.sumarCostoReal(ruta.getId(), 999.0);
+
+        rutaRepository.recalcularContadores(ruta.getId());
+
+        Ruta recalculada = recargar(ruta);
+        assertThat(recalculada.getTotalTramos()).isEqualTo(2);
+        assertThat(recalculada.getTramosIniciados()).isEqualTo(1);
+        assertThat(recalculada.getTramosFinalizados()).isEqualTo(1);
+        assertThat(recalculada.getCostoRealAcumulado()).isEqualTo(100.0);
+        assertThat(recalculada.getFechaFinUltimoTramo()).isEqualTo(FIN);
+    }
+
+    private Ruta crearRuta(EstadoTramo... estados) {
+        Ruta ruta = Ruta.builder().distanciaTotalKm(100.0).build();
+        for (EstadoTramo estado : estados) {
+            boolean finalizado = estado == EstadoTramo.FINALIZADO;
+            ruta.getTramos().add(Tramo.builder()
+                    .ruta(ruta)
+                    .origen("A")
+                    .destino("B")
+                    .tipo(TipoTramo.DEPOSITO_DEPOSITO)
+                    .estado(estado)
+                    .camionId(1L)
+                    .costoReal(100.0)
+                    .fechaHoraFin(finalizado ? FIN : null)
+                    .build());
+        }
+        entityManager.persist(ruta);
+        entityManager.flush();
+        return ruta;
+    }
+
+    private Ruta recargar(Ruta ruta) {
+        entityManager.clear();
+        return rutaRepository.findById(ruta.getId()).orElseThrow();
+    }
+}
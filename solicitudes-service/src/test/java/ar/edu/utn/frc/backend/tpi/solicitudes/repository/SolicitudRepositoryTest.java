@@ -0,0 +1,153 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.SolicitudMapper;
+
+/**
+ * Verifica que la cantidad de sentencias SQL de los listados no crece con la cantidad de filas.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SolicitudRepositoryTest {
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    private int secuencia;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findAllMantieneCantidadDeSentenciasConstante() {
+        assertSentenciasConstantes(() -> solicitudRepository.findAll());
+    }
+
+    @Test
+    void findByEstadoMantieneCantidadDeSentenciasConstante() {
+        assertSentenciasConstantes(() -> solicitudRepository.findByEstado(EstadoSolicitud.PROGRAMADA));
+    }
+
+    @Test
+    void findByEstadoNotMantieneCantidadDeSentenciasConstante() {
+        assertSentenciasConstantes(() -> solicitudRepository.findByEstadoNot(EstadoSolicitud.ENTREGADA));
+    }
+
+    @Test
+    void findByClienteIdMantieneCantidadDeSentenciasConstante() {
+        Cliente cliente = crearCliente();
+        crearSolicitudes(cliente, 3);
+        long conPocasFilas = contarSentencias(() -> solicitudRepository.findByClienteId(cliente.getId()), 3);
+
+        crearSolicitudes(entityManager.find(Cliente.class, cliente.getId()), 30);
+        long conMuchasFilas = contarSentencias(() -> solicitudRepository.findByClienteId(cliente.getId()), 33);
+
+        assertThat(conMuchasFilas).isEqualTo(conPocasFilas);
+    }
+
+    private void assertSentenciasConstantes(Supplier<List<Solicitud>> consulta) {
+        crearSolicitudes(crearCliente(), 3);
+        long conPocasFilas = contarSentencias(consulta, 3);
+
+        crearSolicitudes(crearCliente(), 30);
+        long conMuchasFilas = contarSentencias(consulta, 33);
+
+        assertThat(conMuchasFilas).isEqualTo(conPocasFilas);
+        // Solicitudes con sus relaciones en un SELECT y los tramos de todas las rutas en otro
+        assertThat(conMuchasFilas).isLessThanOrEqualTo(2);
+    }
+
+    private long contarSentencias(Supplier<List<Solicitud>> consulta, int filasEsperadas) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<SolicitudResponse> respuestas = consulta.get().stream()
+                .map(SolicitudMapper::toResponse)
+                .toList();
+
+        assertThat(respuestas).hasSize(filasEsperadas);
+        assertThat(respuestas).allSatisfy(r -> assertThat(r.getRuta().getTramos()).hasSize(2));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Cliente crearCliente() {
+        secuencia++;
+        return entityManager.persist(Cliente.builder()
+                .nombre("Cliente " + secuencia)
+                .email("cliente" + secuencia + "@test.com")
+                .telefono("351000000")
+                .direccion("Calle " + secuencia)
+                .build());
+    }
+
+    private void crearSolicitudes(Cliente cliente, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            secuencia++;
+            Contenedor contenedor = entityManager.persist(Contenedor.builder()
+                    .numeroSerie("CONT-" + secuencia)
+                    .tipo("DRY")
+                    .peso(1000.0)
+                    .volumen(20.0)
+                    .estado(EstadoContenedor.REGISTRADO)
+                    .cliente(cliente)
+                    .build());
+
+            Ruta ruta = Ruta.builder().distanciaTotalKm(100.0).build();
+            ruta.getTramos().add(crearTramo(ruta, TipoTramo.ORIGEN_DEPOSITO));
+            ruta.getTramos().add(crearTramo(ruta, TipoTramo.DEPOSITO_DESTINO));
+            entityManager.persist(ruta);
+
+            entityManager.persist(Solicitud.builder()
+                    .cliente(cliente)
+                    .contenedor(contenedor)
+                    .ruta(ruta)
+                    .origenDireccion("Origen")
+                    .destinoDireccion("Destino")
+                    .estado(EstadoSolicitud.PROGRAMADA)
+                    .fechaCreacion(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    private Tramo crearTramo(Ruta ruta, TipoTramo tipo) {
+        return Tramo.builder()
+                .ruta(ruta)
+                .origen("A")
+                .destino("B")
+                .tipo(tipo)
+                .estado(EstadoTramo.ASIGNADO)
+                .costoEstimado(100.0)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResumen;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.mapper.SolicitudMapper;
+
+/**
+ * Verifica que las consultas de resumen (?include=summary) devuelvan lo mismo que el mapeo de la
+ * entidad sin ruta, incluyan las solicitudes sin ruta asignada y se resuelvan en una sola sentencia.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SolicitudResumenRepositoryTest {
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Cliente cliente;
+    private Long conRutaId;
+    private Long sinRutaId;
+    private int secuencia;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        cliente = entityManager.persist(Cliente.builder()
+                .nombre("Cliente").email("cliente@test.com").telefono("351000000").direccion("Calle 1")
+                .build());
+        Ruta ruta = entityManager.persist(Ruta.builder().distanciaTotalKm(100.0).build());
+        conRutaId = crearSolicitud(ruta, EstadoSolicitud.PROGRAMADA);
+        sinRutaId = crearSolicitud(null, EstadoSolicitud.BORRADOR);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void elResumenCoincideConElMapeoDeLaEntidadSinRuta() {
+        List<SolicitudResumen> resumenes = unaSentencia(() -> solicitudRepository.findAllResumenes());
+
+        assertThat(resumenes).extracting(SolicitudResumen::id).containsExactly(conRutaId, sinRutaId);
+        for (SolicitudResumen resumen : resumenes) {
+            SolicitudResponse desdeEntidad = SolicitudMapper.toResponseWithoutRuta(
+                    entityManager.find(Solicitud.class, resumen.id()));
+            assertThat(SolicitudMapper.toResponse(resumen)).isEqualTo(desdeEntidad);
+        }
+    }
+
+    @Test
+    void laSolicitudSinRutaSobreviveAlLeftJoin() {
+        List<SolicitudResumen> resumenes = unaSentencia(() -> solicitudRepository.findAllResumenes());
+
+        SolicitudResumen sinRuta = resumenes.get(1);
+        assertThat(sinRuta.id()).isEqualTo(sinRutaId);
+        assertThat(sinRuta.rutaId()).isNull();
+        assertThat(sinRuta.clienteEmail()).isEqualTo("cliente@test.com");
+        assertThat(resumenes.get(0).rutaId()).isNotNull();
+    }
+
+    @Test
+    void losFiltrosUsanUnaSolaSentencia() {
+        assertThat(unaSentencia(() -> solicitudRepository.findResumenesByClienteId(cliente.getId())))
+                .extracting(SolicitudResumen::id).containsExactly(conRutaId, sinRutaId);
+        assertThat(unaSentencia(() -> solicitudRepository.findResumenesByEstado(EstadoSolicitud.BORRADOR)))
+                .extracting(SolicitudResumen::id).containsExactly(sinRutaId);
+        assertThat(unaSentencia(() -> solicitudRepository.findResumenesByEstadoNot(EstadoSolicitud.BORRADOR)))
+                .extracting(SolicitudResumen::id).containsExactly(conRutaId);
+    }
+
+    private List<SolicitudResumen> unaSentencia(Supplier<List<SolicitudResumen>> consulta) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<SolicitudResumen> resumenes = consulta.get();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        // Las proyecciones no se registran en el contexto de persistencia
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        return resumenes;
+    }
+
+    // Todos los campos con valores distintos para detectar columnas cruzadas en el constructor
+    private Long crearSolicitud(Ruta ruta, EstadoSolicitud estado) {
+        secuencia++;
+        Contenedor contenedor = entityManager.persist(Contenedor.builder()
+                .numeroSerie("CONT-" + secuencia)
+                .tipo("DRY")
+                .peso(1000.0 + secuencia)
+                .volumen(20.0 + secuencia)
+                .estado(EstadoContenedor.REGISTRADO)
+                .cliente(cliente)
+                .build());
+        return entityManager.persist(Solicitud.builder()
+                .cliente(cliente)
+                .contenedor(contenedor)
+                .ruta(ruta)
+                .origenDireccion("Origen " + secuencia)
+                .origenLatitud(-31.0 - secuencia)
+                .origenLongitud(-64.0 - secuencia)
+                .destinoDireccion("Destino " + secuencia)
+                .destinoLatitud(-34.0 - secuencia)
+                .destinoLongitud(-58.0 - secuencia)
+                .estado(estado)
+                .fechaCreacion(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(secuencia))
+                .costoEstimado(5000.0 + secuencia)
+                .tiempoEstimadoHoras(10.0 + secuencia)
+                .costoFinal(6000.0 + secuencia)
+                .tiempoRealHoras(12.0 + secuencia)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,82 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+
+/**
+ * Verifica que las transiciones de estado solo modifiquen el tramo cuando está en el estado esperado.
+ */
+@DataJpaTest
+class TramoRepositoryTest {
+
+    @Autowired
+    private TramoRepository tramoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void cicloCompletoDeTransiciones() {
+        Long id = crearTramo(EstadoTramo.ESTIMADO, null);
+
+        assertThat(tramoRepository.asignarCamion(id, 7L)).isEqualTo(1);
+        assertThat(tramoRepository.iniciar(id, LocalDateTime.now())).isEqualTo(1);
+        assertThat(tramoRepository.finalizar(id, LocalDateTime.now())).isEqualTo(1);
+
+        Tramo tramo = tramoRepository.findById(id).orElseThrow();
+        assertThat(tramo.getEstado()).isEqualTo(EstadoTramo.FINALIZADO);
+        assertThat(tramo.getCamionId()).isEqualTo(7L);
+        assertThat(tramo.getFechaHoraInicio()).isNotNull();
+        assertThat(tramo.getFechaHoraFin()).isNotNull();
+    }
+
+    @Test
+    void laSegundaTransicionIgualNoModificaFilas() {
+        Long id = crearTramo(EstadoTramo.ASIGNADO, 1L);
+
+        assertThat(tramoRepository.iniciar(id, LocalDateTime.now())).isEqualTo(1);
+        assertThat(tramoRepository.iniciar(id, LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    void noIniciaTramoSinCamion() {
+        Long id = crearTramo(EstadoTramo.ASIGNADO, null);
+
+        assertThat(tramoRepository.iniciar(id, LocalDateTime.now())).isZero();
+        assertThat(tramoRepository.findById(id).orElseThrow().getEstado()).isEqualTo(EstadoTramo.ASIGNADO);
+    }
+
+    @Test
+    void noFinalizaTramoSinIniciar() {
+        Long id = crearTramo(EstadoTramo.ASIGNADO, 1L);
+
+        assertThat(tramoRepository.finalizar(id, LocalDateTime.now())).isZero();
+        assertThat(tramoRepository.finalizar(-1L, LocalDateTime.now())).isZero();
+    }
+
+    private Long crearTramo(EstadoTramo estado, Long camionId) {
+        Ruta ruta = Ruta.builder().distanciaTotalKm(100.0).build();
+        ruta.getTramos().add(Tramo.builder()
+                .ruta(ruta)
+                .origen("A")
+                .destino("B")
+                .tipo(TipoTramo.ORIGEN_DESTINO)
+                .estado(estado)
+                .camionId(camionId)
+                .build());
+        entityManager.persist(ruta);
+        entityManager.flush();
+        return ruta.getTramos().get(0).getId();
+    }
+}
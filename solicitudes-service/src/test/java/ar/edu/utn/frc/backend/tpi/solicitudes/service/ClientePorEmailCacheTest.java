@@ -0,0 +1,73 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ClienteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica que las búsquedas repetidas se resuelvan en memoria, que la invalidación obligue a
+ * releer y que las métricas reflejen aciertos y fallos.
+ */
+class ClientePorEmailCacheTest {
+
+    private ClienteRepository clienteRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ClientePorEmailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository = mock(ClienteRepository.class);
+        when(clienteRepository.findIdsByEmailNormalizado("cliente@tpi.com")).thenReturn(List.of(7L));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ClientePorEmailCache(clienteRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void resuelveDesdeMemoriaSinDistinguirMayusculas() {
+        assertThat(cache.obtenerId("cliente@tpi.com")).contains(7L);
+        assertThat(cache.obtenerId("Cliente@TPI.com")).contains(7L);
+        assertThat(cache.obtenerId("cliente@tpi.com")).contains(7L);
+
+        verify(clienteRepository, times(1)).findIdsByEmailNormalizado("cliente@tpi.com");
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", ClientePorEmailCache.NOMBRE_CACHE)
+                .gauge().value()).isEqualTo(2.0 / 3.0);
+    }
+
+    @Test
+    void noGuardaAusencias() {
+        assertThat(cache.obtenerId("nuevo@tpi.com")).isEmpty();
+        when(clienteRepository.findIdsByEmailNormalizado("nuevo@tpi.com")).thenReturn(List.of(9L));
+
+        assertThat(cache.obtenerId("nuevo@tpi.com")).contains(9L);
+    }
+
+    @Test
+    void releeDespuesDeUnaModificacion() {
+        cache.obtenerId("cliente@tpi.com");
+        when(clienteRepository.findIdsByEmailNormalizado("cliente@tpi.com")).thenReturn(List.of());
+
+        cache.onClientesModificados(new ClientePorEmailCache.ClientesModificadosEvent(List.of("CLIENTE@tpi.com")));
+
+        assertThat(cache.obtenerId("cliente@tpi.com")).isEmpty();
+        verify(clienteRepository, times(2)).findIdsByEmailNormalizado("cliente@tpi.com");
+    }
+
+    @Test
+    void unAltaConfirmadaEvitaLaConsulta() {
+        cache.onClienteRegistrado(new ClientePorEmailCache.ClienteRegistradoEvent("Otro@tpi.com", 3L));
+
+        assertThat(cache.obtenerId("otro@tpi.com")).contains(3L);
+        verify(clienteRepository, times(0)).findIdsByEmailNormalizado("otro@tpi.com");
+    }
+}
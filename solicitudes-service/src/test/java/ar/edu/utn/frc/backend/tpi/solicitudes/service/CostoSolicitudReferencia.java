@@ -0,0 +1,71 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+
+/**
+ * Implementación anterior del recorrido y la estadía (varias pasadas con streams), conservada
+ * como referencia para las pruebas de equivalencia y el benchmark comparativo.
+ */
+final class CostoSolicitudReferencia {
+
+    private CostoSolicitudReferencia() {
+    }
+
+    static double costoRecorrido(List<Tramo> tramos) {
+        if (tramos.stream().allMatch(t -> t.getCostoReal() != null)) {
+            return tramos.stream().mapToDouble(Tramo::getCostoReal).sum();
+        }
+        if (tramos.stream().allMatch(t -> t.getCostoEstimado() != null)) {
+            return tramos.stream().mapToDouble(Tramo::getCostoEstimado).sum();
+        }
+        return 0.0;
+    }
+
+    static double costoEstadia(List<Tramo> tramos, double costoEstadiaPorDia) {
+        double costoTotal = 0.0;
+        for (int i = 0; i < tramos.size() - 1; i++) {
+            Double dias = diasEntre(tramos.get(i), tramos.get(i + 1));
+            if (dias != null) {
+                costoTotal += dias * costoEstadiaPorDia;
+            }
+        }
+        return costoTotal;
+    }
+
+    static double diasEstadia(List<Tramo> tramos) {
+        double diasTotal = 0.0;
+        for (int i = 0; i < tramos.size() - 1; i++) {
+            Double dias = diasEntre(tramos.get(i), tramos.get(i + 1));
+            if (dias != null) {
+                diasTotal += dias;
+            }
+        }
+        return diasTotal;
+    }
+
+    static boolean usaCostosReales(List<Tramo> tramos) {
+        return tramos.stream().allMatch(t -> t.getCostoReal() != null);
+    }
+
+    private static Double diasEntre(Tramo tramoActual, Tramo tramoSiguiente) {
+        boolean terminaEnDeposito = tramoActual.getTipo() == TipoTramo.ORIGEN_DEPOSITO
+                || tramoActual.getTipo() == TipoTramo.DEPOSITO_DEPOSITO;
+
+        boolean siguienteSaleDeDeposito = tramoSiguiente.getTipo() == TipoTramo.DEPOSITO_DEPOSITO
+                || tramoSiguiente.getTipo() == TipoTramo.DEPOSITO_DESTINO;
+
+        if (terminaEnDeposito && siguienteSaleDeDeposito
+                && tramoActual.getFechaHoraFin() != null
+                && tramoSiguiente.getFechaHoraInicio() != null) {
+            LocalDateTime entrada = tramoActual.getFechaHoraFin();
+            LocalDateTime salida = tramoSiguiente.getFechaHoraInicio();
+            return Duration.between(entrada, salida).toHours() / 24.0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,156 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.DesgloseCosto;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.DesgloseCostoRepository;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.SolicitudRepository;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.CostoSolicitudService.DesgloseCostoTotal;
+
+/**
+ * Compara el cálculo de una sola pasada contra la implementación de referencia sobre rutas
+ * generadas al azar (semilla fija): tipos de tramo mezclados, costos faltantes, fechas
+ * ausentes y estadías negativas. Verifica además que las solicitudes entregadas se sirvan
+ * desde el desglose guardado.
+ */
+class CostoSolicitudServiceTest {
+
+    private static final int CASOS = 2000;
+    private static final double COSTO_ESTADIA_POR_DIA = 2000.0;
+    private static final TipoTramo[] TIPOS = TipoTramo.values();
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final SolicitudRepository solicitudRepository = mock(SolicitudRepository.class);
+    private final DesgloseCostoRepository desgloseCostoRepository = mock(DesgloseCostoRepository.class);
+    private final CostoSolicitudService service = new CostoSolicitudService(solicitudRepository,
+            new ReglasCostoService(ReglasCosto.de(1000.0, 500.0, COSTO_ESTADIA_POR_DIA)), desgloseCostoRepository);
+
+    @Test
+    void unaPasadaCoincideConLaImplementacionDeReferencia() {
+        Random random = new Random(20251016L);
+
+        for (int caso = 0; caso < CASOS; caso++) {
+            List<Tramo> tramos = tramosAleatorios(random);
+            Solicitud solicitud = solicitud(tramos, random);
+
+            DesgloseCostoTotal desglose = service.calcularDesglose(solicitud);
+
+            String descripcion = "caso " + caso + " con " + tramos.size() + " tramos";
+            assertThat(desglose.getCostoRecorrido()).as(descripcion)
+                    .isEqualTo(CostoSolicitudReferencia.costoRecorrido(tramos));
+            assertThat(desglose.getCostoEstadia()).as(descripcion)
+                    .isEqualTo(CostoSolicitudReferencia.costoEstadia(tramos, COSTO_ESTADIA_POR_DIA));
+            assertThat(desglose.getDiasEstadia()).as(descripcion)
+                    .isEqualTo(CostoSolicitudReferencia.diasEstadia(tramos));
+            assertThat(desglose.getUsaCostosReales()).as(descripcion)
+                    .isEqualTo(CostoSolicitudReferencia.usaCostosReales(tramos));
+            assertThat(desglose.getCostoTotal()).as(descripcion)
+                    .isEqualTo(desglose.getCostoRecorrido() + desglose.getCostoPesoVolumen()
+                            + desglose.getCostoEstadia());
+        }
+    }
+
+    @Test
+    void rutaSinTramosNoTieneCostoDeRecorridoNiEstadia() {
+        DesgloseCostoTotal desglose = service.calcularDesglose(solicitud(new ArrayList<>(), new Random(1L)));
+
+        assertThat(desglose.getCostoRecorrido()).isZero();
+        assertThat(desglose.getCostoEstadia()).isZero();
+        assertThat(desglose.getUsaCostosReales()).isTrue();
+    }
+
+    @Test
+    void usaElCostoDeEstadiaDelDepositoDondeQuedaElContenedor() {
+        ReglasCosto reglas = ReglasCosto.de(1000.0, 500.0, COSTO_ESTADIA_POR_DIA)
+                .conEstadias(COSTO_ESTADIA_POR_DIA, Map.of("Depósito Córdoba", 3000.0));
+        CostoSolicitudService conDepositos = new CostoSolicitudService(null, new ReglasCostoService(reglas), null);
+
+        List<Tramo> tramos = new ArrayList<>(List.of(
+                Tramo.builder().tipo(TipoTramo.ORIGEN_DEPOSITO).destino(" depósito córdoba ")
+                        .costoEstimado(100.0).fechaHoraFin(INICIO).build(),
+                Tramo.builder().tipo(TipoTramo.DEPOSITO_DEPOSITO).destino("Depósito Rosario")
+                        .costoEstimado(100.0).fechaHoraInicio(INICIO.plusDays(2)).fechaHoraFin(INICIO.plusDays(3)).build(),
+                Tramo.builder().tipo(TipoTramo.DEPOSITO_DESTINO)
+                        .costoEstimado(100.0).fechaHoraInicio(INICIO.plusDays(4)).build()));
+
+        DesgloseCostoTotal desglose = conDepositos.calcularDesglose(solicitud(tramos, new Random(1L)));
+
+        // Dos días en Córdoba con su tarifa propia y uno en Rosario con la tarifa por defecto
+        assertThat(desglose.getDiasEstadia()).isEqualTo(3.0);
+        assertThat(desglose.getCostoEstadia()).isEqualTo(2 * 3000.0 + COSTO_ESTADIA_POR_DIA);
+    }
+
+    @Test
+    void solicitudEntregadaUsaElDesgloseGuardadoSinCargarLaRuta() {
+        Solicitud solicitud = solicitud(tramosAleatorios(new Random(7L)), new Random(7L));
+        DesgloseCostoTotal calculado = service.materializarCostoTotal(solicitud);
+
+        ArgumentCaptor<DesgloseCosto> guardado = ArgumentCaptor.forClass(DesgloseCosto.class);
+        verify(desgloseCostoRepository).save(guardado.capture());
+        when(desgloseCostoRepository.findBySolicitudIdAndEstadoSolicitud(1L, EstadoSolicitud.ENTREGADA))
+                .thenReturn(Optional.of(guardado.getValue()));
+
+        assertThat(service.calcularCostoTotal(1L)).isEqualTo(calculado);
+        verifyNoInteractions(solicitudRepository);
+    }
+
+    @Test
+    void solicitudEnCursoSeCalculaEnElMomento() {
+        Solicitud solicitud = solicitud(tramosAleatorios(new Random(9L)), new Random(9L));
+        when(desgloseCostoRepository.findBySolicitudIdAndEstadoSolicitud(1L, EstadoSolicitud.ENTREGADA))
+                .thenReturn(Optional.empty());
+        when(solicitudRepository.findById(1L)).thenReturn(Optional.of(solicitud));
+
+        assertThat(service.calcularCostoTotal(1L)).isEqualTo(service.calcularDesglose(solicitud));
+    }
+
+    private static List<Tramo> tramosAleatorios(Random random) {
+        int cantidad = random.nextInt(60);
+        // Algunas rutas con todos los costos presentes para ejercitar ambas sumas
+        double probabilidadNulo = random.nextInt(3) == 0 ? 0.0 : 0.1;
+        List<Tramo> tramos = new ArrayList<>(cantidad);
+        LocalDateTime momento = INICIO;
+        for (int i = 0; i < cantidad; i++) {
+            LocalDateTime inicio = momento;
+            LocalDateTime fin = inicio.plusMinutes(random.nextInt(2000));
+            tramos.add(Tramo.builder()
+                    .tipo(TIPOS[random.nextInt(TIPOS.length)])
+                    .costoEstimado(random.nextDouble() < probabilidadNulo ? null : random.nextDouble() * 100_000)
+                    .costoReal(random.nextDouble() < probabilidadNulo ? null : random.nextDouble() * 100_000)
+                    .fechaHoraInicio(random.nextDouble() < 0.1 ? null : inicio)
+                    .fechaHoraFin(random.nextDouble() < 0.1 ? null : fin)
+                    .build());
+            // Estadía de hasta cinco días; a veces negativa por datos inconsistentes
+            momento = fin.plusMinutes(random.nextInt(7200) - 600);
+        }
+        return tramos;
+    }
+
+    private static Solicitud solicitud(List<Tramo> tramos, Random random) {
+        Ruta ruta = Ruta.builder().id(1L).distanciaTotalKm(500.0).tramos(tramos).build();
+        Contenedor contenedor = Contenedor.builder()
+                .id(1L).peso(random.nextDouble() * 30_000).volumen(random.nextDouble() * 70)
+                .build();
+        return Solicitud.builder().id(1L).contenedor(contenedor).ruta(ruta).build();
+    }
+}
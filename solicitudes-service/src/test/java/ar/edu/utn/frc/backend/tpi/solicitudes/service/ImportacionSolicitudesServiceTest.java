@@ -0,0 +1,137 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ClienteRepository;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.ContenedorRepository;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.SolicitudRepository;
+import jakarta.validation.Validation;
+
+/**
+ * Verifica que la importación masiva devuelva un resultado por línea en el orden de entrada a
+ * través de varios bloques, reutilice clientes existentes y marque errores y conflictos sin
+ * frenar el resto del archivo.
+ */
+@DataJpaTest
+class ImportacionSolicitudesServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContenedorRepository contenedorRepository;
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private ImportacionSolicitudesService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImportacionSolicitudesService(clienteRepository, contenedorRepository, solicitudRepository,
+                objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), transactionManager);
+        // Bloques chicos para que el archivo atraviese varios
+        ReflectionTestUtils.setField(service, "tamanioBloque", 3);
+    }
+
+    @Test
+    void ndjsonDevuelveUnResultadoPorLineaEnOrden() throws IOException {
+        entityManager.persist(Cliente.builder()
+                .nombre("Existente").email("c1@tpi.com").telefono("3510000000").direccion("Córdoba").build());
+
+        String entrada = String.join("\n",
+                orden("c1@tpi.com", "CONT-1"),
+                orden("c2@tpi.com", "CONT-2"),
+                orden("", "CONT-3"),
+                orden("c2@tpi.com", "CONT-4"),
+                orden("c3@tpi.com", "CONT-2"),
+                orden("c1@tpi.com", "CONT-5"),
+                orden("c4@tpi.com", "CONT-6")) + "\n";
+
+        List<JsonNode> resultados = importar(entrada, ImportacionSolicitudesService.Formato.NDJSON);
+
+        assertThat(resultados).extracting(r -> r.get("linea").asLong()).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(resultados).extracting(r -> r.get("estado").asText()).containsExactly(
+                "CREADA", "CREADA", "ERROR", "CREADA", "CONFLICTO", "CREADA", "CREADA");
+        assertThat(resultados.get(2).get("error").asText()).contains("cliente.email");
+        assertThat(resultados.get(4).get("error").asText()).contains("CONT-2");
+        assertThat(resultados.get(0).get("solicitudId").asLong()).isPositive();
+
+        // c1 se reutiliza; c2, c3 (creado aunque su solicitud choque) y c4 son nuevos
+        assertThat(clienteRepository.count()).isEqualTo(4);
+        assertThat(solicitudRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void aceptaCsvConEncabezado() throws IOException {
+        String entrada = "clienteNombre,clienteEmail,clienteTelefono,clienteDireccion,"
+                + "contenedorNumeroSerie,contenedorTipo,contenedorPeso,contenedorVolumen,"
+                + "origenDireccion,origenLatitud,origenLongitud,destinoDireccion,destinoLatitud,destinoLongitud\n"
+                + "Cliente,c1@tpi.com,3510000000,Córdoba,CONT-1,20FT,1000,30,Origen,-31.4,-64.2,Destino,-34.6,-58.4\n"
+                + "Cliente,c1@tpi.com,3510000000,Córdoba,CONT-2,40FT,,30,Origen,-31.4,-64.2,Destino,-34.6,-58.4\n";
+
+        List<JsonNode> resultados = importar(entrada, ImportacionSolicitudesService.Formato.CSV);
+
+        assertThat(resultados).extracting(r -> r.get("estado").asText()).containsExactly("CREADA", "ERROR");
+        assertThat(resultados.get(1).get("error").asText()).contains("contenedor.peso");
+    }
+
+    @Test
+    void formatoInvalidoCortaLaImportacion() throws IOException {
+        String entrada = orden("c1@tpi.com", "CONT-1") + "\n{\"clienteEmail\": \n";
+
+        List<JsonNode> resultados = importar(entrada, ImportacionSolicitudesService.Formato.NDJSON);
+
+        assertThat(resultados).extracting(r -> r.get("estado").asText()).containsExactly("CREADA", "ERROR");
+        assertThat(resultados.get(1).get("error").asText()).startsWith("Formato inválido");
+    }
+
+    private List<JsonNode> importar(String entrada, ImportacionSolicitudesService.Formato formato)
+            throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        service.importar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)), formato, salida);
+
+        List<JsonNode> resultados = new ArrayList<>();
+        for (String linea : salida.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!linea.isBlank()) {
+                resultados.add(objectMapper.readTree(linea));
+            }
+        }
+        return resultados;
+    }
+
+    private static String orden(String email, String numeroSerie) {
+        return "{\"clienteNombre\":\"Cliente\",\"clienteEmail\":\"" + email + "\",\"clienteTelefono\":\"3510000000\","
+                + "\"clienteDireccion\":\"Córdoba\",\"contenedorNumeroSerie\":\"" + numeroSerie + "\","
+                + "\"contenedorTipo\":\"20FT\",\"contenedorPeso\":1000.0,\"contenedorVolumen\":30.0,"
+                + "\"origenDireccion\":\"Origen\",\"origenLatitud\":-31.4,\"origenLongitud\":-64.2,"
+                + "\"destinoDireccion\":\"Destino\",\"destinoLatitud\":-34.6,\"destinoLongitud\":-58.4}";
+    }
+}
@@ -0,0 +1,89 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Verifica que el refresco use GET condicionales: sin cambios no recompila las reglas y, si cambia
+ * solo una de las dos fuentes, reutiliza la respuesta guardada de la otra.
+ */
+class ReglasCostoServiceTest {
+
+    private static final String TARIFAS = "http://costos/api/tarifas";
+    private static final String DEPOSITOS = "http://flota/api/depositos";
+
+    private MockRestServiceServer servidor;
+    private ReglasCostoService servicio;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        servidor = MockRestServiceServer.bindTo(builder).build();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("serviciosRestClient", builder.build()));
+        servicio = new ReglasCostoService(beans.getBeanProvider(RestClient.class), 1000, 500, 2000);
+        ReflectionTestUtils.setField(servicio, "costosUrl", "http://costos");
+        ReflectionTestUtils.setField(servicio, "flotaUrl", "http://flota");
+    }
+
+    @Test
+    void sinCambiosConservaLasMismasReglas() {
+        servidor.expect(requestTo(TARIFAS)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(json("[{\"id\":1,\"costoEstadiaDiaria\":3000}]", "\"t1\""));
+        servidor.expect(requestTo(DEPOSITOS)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(json("[{\"nombre\":\"Norte\",\"direccion\":\"Ruta 9\",\"costoEstadiaDiaria\":1500}]", "\"d1\""));
+        servidor.expect(requestTo(TARIFAS)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"t1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        servidor.expect(requestTo(DEPOSITOS)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"d1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        ReglasCosto primeras = servicio.refrescar();
+        ReglasCosto segundas = servicio.refrescar();
+
+        servidor.verify();
+        assertThat(segundas).isSameAs(primeras);
+        assertThat(primeras.getCostoEstadiaDiariaPorDefecto()).isEqualTo(3000.0);
+        assertThat(primeras.costoEstadiaDiaria("Norte")).isEqualTo(1500.0);
+    }
+
+    @Test
+    void unCambioDeTarifaReutilizaLosDepositosGuardados() {
+        servidor.expect(requestTo(TARIFAS))
+                .andRespond(json("[{\"id\":1,\"costoEstadiaDiaria\":3000}]", "\"t1\""));
+        servidor.expect(requestTo(DEPOSITOS))
+                .andRespond(json("[{\"nombre\":\"Norte\",\"direccion\":\"Ruta 9\",\"costoEstadiaDiaria\":1500}]", "\"d1\""));
+        servidor.expect(requestTo(TARIFAS)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"t1\""))
+                .andRespond(json("[{\"id\":1,\"costoEstadiaDiaria\":4000}]", "\"t2\""));
+        servidor.expect(requestTo(DEPOSITOS)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"d1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        servicio.refrescar();
+        ReglasCosto nuevas = servicio.refrescar();
+
+        servidor.verify();
+        assertThat(nuevas.getCostoEstadiaDiariaPorDefecto()).isEqualTo(4000.0);
+        assertThat(nuevas.costoEstadiaDiaria("Norte")).isEqualTo(1500.0);
+    }
+
+    private static ResponseCreator json(String cuerpo, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return withSuccess(cuerpo, MediaType.APPLICATION_JSON).headers(headers);
+    }
+}
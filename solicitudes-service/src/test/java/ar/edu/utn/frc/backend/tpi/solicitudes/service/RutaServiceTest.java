@@ -0,0 +1,109 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaRequest;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TramoRequest;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+
+/**
+ * Verifica que la creación de rutas agrupe los INSERT en lotes JDBC en lugar de
+ * ejecutar una sentencia por tramo.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import(RutaService.class)
+class RutaServiceTest {
+
+    private static final int RUTAS = 20;
+    private static final int TRAMOS_POR_RUTA = 40;
+
+    @Autowired
+    private RutaService rutaService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void crearRutasAgrupaLosInsertEnLotes() {
+        List<RutaRequest> requests = new ArrayList<>();
+        for (int i = 0; i < RUTAS; i++) {
+            requests.add(ruta(TRAMOS_POR_RUTA));
+        }
+
+        List<RutaResponse> creadas = rutaService.crearRutas(requests);
+        entityManager.flush();
+
+        int filas = RUTAS + RUTAS * TRAMOS_POR_RUTA;
+        assertThat(creadas).hasSize(RUTAS);
+        assertThat(creadas).allSatisfy(r -> {
+            assertThat(r.getId()).isNotNull();
+            assertThat(r.getTramos()).hasSize(TRAMOS_POR_RUTA);
+        });
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(filas);
+        // Un INSERT por lote de 50 filas más la reserva de ids cada 50, en lugar de uno por fila
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(filas / 10);
+    }
+
+    @Test
+    void crearRutaPersisteLosTramosEnCascada() {
+        RutaResponse creada = rutaService.crearRuta(ruta(3));
+        entityManager.flush();
+        entityManager.clear();
+
+        Ruta ruta = entityManager.find(Ruta.class, creada.getId());
+        assertThat(ruta.getTramos()).hasSize(3);
+        assertThat(ruta.getTramos()).allSatisfy(t -> assertThat(t.getRuta().getId()).isEqualTo(ruta.getId()));
+    }
+
+    @Test
+    void crearRutasRechazaRutaSinTramos() {
+        assertThatThrownBy(() -> rutaService.crearRutas(List.of(ruta(2), ruta(0))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("al menos un tramo");
+    }
+
+    private static RutaRequest ruta(int cantidadTramos) {
+        List<TramoRequest> tramos = new ArrayList<>(cantidadTramos);
+        for (int i = 0; i < cantidadTramos; i++) {
+            tramos.add(TramoRequest.builder()
+                    .origen(i == 0 ? "Origen" : "Depósito " + i)
+                    .destino(i == cantidadTramos - 1 ? "Destino" : "Depósito " + (i + 1))
+                    .tipo(i == cantidadTramos - 1 ? "DEPOSITO_DESTINO" : "DEPOSITO_DEPOSITO")
+                    .costoEstimado(1000.0)
+                    .build());
+        }
+        return RutaRequest.builder()
+                .distanciaTotalKm(cantidadTramos * 100.0)
+                .tiempoEstimadoHoras(cantidadTramos * 2.0)
+                .costoEstimado(cantidadTramos * 1000.0)
+                .tramos(tramos)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.config.MotorBaseDatos;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ClienteRequest;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.ContenedorRequest;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudRequest;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
+
+/**
+ * Verifica que el alta de una solicitud trabaje con las entidades administradas sin releer
+ * cliente ni contenedor, y que rechace un segundo alta para un contenedor con solicitud activa.
+ * Corre sobre H2, es decir, por el camino JPA; el upsert nativo es exclusivo de PostgreSQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RecordApplicationEvents
+@Import({ SolicitudService.class, ClienteService.class, ContenedorService.class, MotorBaseDatos.class,
+        TramoService.class, ReintentoConflictos.class })
+class SolicitudServiceAltaTest {
+
+    private static final String EMAIL = "cliente@tpi.com";
+
+    @Autowired
+    private SolicitudService solicitudService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private CostoSolicitudService costoSolicitudService;
+
+    @MockitoBean
+    private ClientePorEmailCache clientePorEmailCache;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").claim("email", EMAIL).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void limpiarContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void reutilizaClienteYContenedorSinReleerlos() {
+        Cliente cliente = entityManager.persist(Cliente.builder()
+                .nombre("Cliente").email(EMAIL).telefono("3510000000").direccion("Córdoba").build());
+        entityManager.persist(Contenedor.builder()
+                .numeroSerie("CONT-1").tipo("20FT").peso(1000.0).volumen(30.0)
+                .estado(EstadoContenedor.REGISTRADO).cliente(cliente).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        SolicitudResponse creada = solicitudService.crearSolicitud(request("CONT-1"));
+        entityManager.flush();
+
+        assertThat(creada.getClienteId()).isEqualTo(cliente.getId());
+        assertThat(creada.getContenedorNumeroSerie()).isEqualTo("CONT-1");
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        // Cliente, contenedor, control de solicitud activa, reserva de ids e INSERT de la solicitud
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void creaClienteYContenedorNuevos() {
+        SolicitudResponse creada = solicitudService.crearSolicitud(request("CONT-2"));
+        entityManager.flush();
+
+        assertThat(creada.getClienteId()).isNotNull();
+        assertThat(creada.getContenedorId()).isNotNull();
+        assertThat(creada.getClienteEmail()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void publicaElClienteParaLaCacheSinGuardarloAntesDelCommit() {
+        SolicitudResponse creada = solicitudService.crearSolicitud(request("CONT-4"));
+
+        assertThat(eventos.stream(ClientePorEmailCache.ClienteRegistradoEvent.class))
+                .containsExactly(new ClientePorEmailCache.ClienteRegistradoEvent(EMAIL, creada.getClienteId()));
+        Mockito.verifyNoInteractions(clientePorEmailCache);
+    }
+
+    @Test
+    void rechazaSegundaSolicitudActivaParaElMismoContenedor() {
+        solicitudService.crearSolicitud(request("CONT-3"));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> solicitudService.crearSolicitud(request("CONT-3")))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    private static SolicitudRequest request(String numeroSerie) {
+        return SolicitudRequest.builder()
+                .cliente(ClienteRequest.builder()
+                        .nombre("Cliente").email(EMAIL).telefono("3510000000").direccion("Córdoba").build())
+                .contenedor(ContenedorRequest.builder()
+                        .numeroSerie(numeroSerie).tipo("20FT").peso(1000.0).volumen(30.0).build())
+                .origenDireccion("Origen").origenLatitud(-31.4).origenLongitud(-64.2)
+                .destinoDireccion("Destino").destinoLatitud(-34.6).destinoLongitud(-58.4)
+                .build();
+    }
+}
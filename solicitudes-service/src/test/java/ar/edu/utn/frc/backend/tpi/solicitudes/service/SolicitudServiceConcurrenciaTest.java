@@ -0,0 +1,157 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Ruta;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.TipoTramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Tramo;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.RutaRepository;
+import ar.edu.utn.frc.backend.tpi.solicitudes.repository.SolicitudRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Muchos hilos virtuales registran a la vez el fin de todos los tramos de una misma ruta.
+ * La solicitud debe quedar ENTREGADA exactamente una vez y ningún incremento de versión debe perderse.
+ */
+@DataJpaTest(properties = {
+        "solicitudes.reintentos.max-intentos=100",
+        "solicitudes.reintentos.backoff-inicial=1ms",
+        "solicitudes.reintentos.backoff-maximo=20ms"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ SolicitudService.class, TramoService.class, ReintentoConflictos.class })
+class SolicitudServiceConcurrenciaTest {
+
+    private static final int TRAMOS = 32;
+
+    @Autowired
+    private SolicitudService solicitudService;
+
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @Autowired
+    private RutaRepository rutaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ClienteService clienteService;
+
+    @MockitoBean
+    private ContenedorService contenedorService;
+
+    @MockitoBean
+    private CostoSolicitudService costoSolicitudService;
+
+    @MockitoBean
+    private ClientePorEmailCache clientePorEmailCache;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @Test
+    void finesConcurrentesDeTodosLosTramosEntreganLaSolicitudUnaSolaVez() throws Exception {
+        Solicitud solicitud = transactionTemplate.execute(estado -> crearSolicitudEnTransito());
+        List<Long> tramoIds = solicitud.getRuta().getTramos().stream().map(Tramo::getId).toList();
+        long versionInicial = solicitud.getRuta().getVersion();
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long tramoId : tramoIds) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return solicitudService.registrarFinTramo(tramoId);
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                // Falla si algún fin se agotó reintentando o si los hilos quedaron encolados
+                resultado.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            Solicitud entregada = solicitudRepository.findById(solicitud.getId()).orElseThrow();
+            assertThat(entregada.getEstado()).isEqualTo(EstadoSolicitud.ENTREGADA);
+            assertThat(entregada.getCostoFinal()).isEqualTo(TRAMOS * 100.0);
+
+            Ruta ruta = rutaRepository.findById(solicitud.getRuta().getId()).orElseThrow();
+            assertThat(ruta.getTramos()).allSatisfy(t -> assertThat(t.getEstado()).isEqualTo(EstadoTramo.FINALIZADO));
+            // Cada fin confirmado incrementó la versión de la ruta exactamente una vez
+            assertThat(ruta.getVersion()).isEqualTo(versionInicial + TRAMOS);
+        });
+        verify(costoSolicitudService, times(1)).materializarCostoTotal(any());
+    }
+
+    private Solicitud crearSolicitudEnTransito() {
+        Cliente cliente = Cliente.builder()
+                .nombre("Cliente").email("concurrencia@test.com").telefono("351000000").direccion("Calle 1")
+                .build();
+        entityManager.persist(cliente);
+        Contenedor contenedor = Contenedor.builder()
+                .numeroSerie("CONT-CONC").tipo("DRY").peso(1000.0).volumen(20.0)
+                .estado(EstadoContenedor.EN_TRASLADO).cliente(cliente)
+                .build();
+        entityManager.persist(contenedor);
+
+        Ruta ruta = Ruta.builder().distanciaTotalKm(TRAMOS * 100.0).build();
+        for (int i = 0; i < TRAMOS; i++) {
+            ruta.getTramos().add(Tramo.builder()
+                    .ruta(ruta)
+                    .origen("Depósito " + i)
+                    .destino("Depósito " + (i + 1))
+                    .tipo(TipoTramo.DEPOSITO_DEPOSITO)
+                    .estado(EstadoTramo.INICIADO)
+                    .costoReal(100.0)
+                    .fechaHoraInicio(LocalDateTime.now().minusHours(2))
+                    .camionId((long) i + 1)
+                    .build());
+        }
+        entityManager.persist(ruta);
+
+        Solicitud solicitud = Solicitud.builder()
+                .cliente(cliente).contenedor(contenedor).ruta(ruta)
+                .origenDireccion("Depósito 0").destinoDireccion("Depósito " + TRAMOS)
+                .estado(EstadoSolicitud.EN_TRANSITO).fechaCreacion(LocalDateTime.now().minusDays(1))
+                .build();
+        entityManager.persist(solicitud);
+        ruta.setSolicitud(solicitud);
+        entityManager.flush();
+        return solicitud;
+    }
+}
@@ -0,0 +1,169 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.PaginaSolicitudesResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Cliente;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Contenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoContenedor;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.EstadoSolicitud;
+import ar.edu.utn.frc.backend.tpi.solicitudes.entity.Solicitud;
+
+/**
+ * Verifica que la paginación por cursor recorra todas las solicitudes sin repetir ni saltear,
+ * que respete los filtros de estado y pendientes, y que la exportación NDJSON escriba una línea por fila.
+ */
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ SolicitudService.class, TramoService.class, ReintentoConflictos.class })
+class SolicitudServicePaginacionTest {
+
+    @Autowired
+    private SolicitudService solicitudService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ClienteService clienteService;
+
+    @MockitoBean
+    private ContenedorService contenedorService;
+
+    @MockitoBean
+    private CostoSolicitudService costoSolicitudService;
+
+    @MockitoBean
+    private ClientePorEmailCache clientePorEmailCache;
+
+    private final List<Long> programadas = new ArrayList<>();
+    private final List<Long> entregadas = new ArrayList<>();
+    private int secuencia;
+
+    @BeforeEach
+    void setUp() {
+        Cliente cliente = entityManager.persist(Cliente.builder()
+                .nombre("Cliente").email("cliente@test.com").telefono("351000000").direccion("Calle 1")
+                .build());
+        // Estados intercalados para que los filtros dejen huecos en la secuencia de ids
+        for (int i = 0; i < 12; i++) {
+            EstadoSolicitud estado = i % 3 == 0 ? EstadoSolicitud.ENTREGADA : EstadoSolicitud.PROGRAMADA;
+            Long id = crearSolicitud(cliente, estado);
+            (estado == EstadoSolicitud.ENTREGADA ? entregadas : programadas).add(id);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void elCursorRecorreTodasLasSolicitudesSinRepetirNiSaltear() {
+        List<Long> recorridas = recorrer(null, false, 5);
+
+        List<Long> todas = new ArrayList<>(programadas);
+        todas.addAll(entregadas);
+        assertThat(recorridas).isSorted().doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(todas);
+    }
+
+    @Test
+    void laUltimaPaginaNoIndicaMasAunqueEsteCompleta() {
+        PaginaSolicitudesResponse primera = solicitudService.obtenerPaginaSolicitudes(null, false, null, 6);
+        PaginaSolicitudesResponse ultima = solicitudService.obtenerPaginaSolicitudes(null, false,
+                primera.getSiguienteCursor(), 6);
+        PaginaSolicitudesResponse vacia = solicitudService.obtenerPaginaSolicitudes(null, false,
+                ultima.getSiguienteCursor(), 6);
+
+        assertThat(primera.getHayMas()).isTrue();
+        assertThat(ultima.getTamanio()).isEqualTo(6);
+        assertThat(ultima.getHayMas()).isFalse();
+        assertThat(vacia.getSolicitudes()).isEmpty();
+        assertThat(vacia.getSiguienteCursor()).isNull();
+        assertThat(vacia.getHayMas()).isFalse();
+    }
+
+    @Test
+    void filtraPorEstadoYPorPendientes() {
+        assertThat(recorrer(EstadoSolicitud.ENTREGADA, false, 2)).containsExactlyElementsOf(entregadas);
+        assertThat(recorrer(null, true, 3)).containsExactlyElementsOf(programadas);
+        // El estado tiene prioridad sobre pendientes
+        assertThat(recorrer(EstadoSolicitud.ENTREGADA, true, 3)).containsExactlyElementsOf(entregadas);
+    }
+
+    @Test
+    void laExportacionEscribeUnaLineaNdjsonPorSolicitud() throws IOException {
+        List<Long> exportadas = exportar(null, false);
+        assertThat(exportadas).hasSize(12).isSorted();
+        assertThat(exportar(null, true)).containsExactlyElementsOf(programadas);
+        assertThat(exportar(EstadoSolicitud.ENTREGADA, false)).containsExactlyElementsOf(entregadas);
+    }
+
+    private List<Long> recorrer(EstadoSolicitud estado, boolean soloPendientes, int tamanio) {
+        List<Long> ids = new ArrayList<>();
+        Long cursor = null;
+        PaginaSolicitudesResponse pagina;
+        do {
+            pagina = solicitudService.obtenerPaginaSolicitudes(estado, soloPendientes, cursor, tamanio);
+            pagina.getSolicitudes().stream().map(SolicitudResponse::getId).forEach(ids::add);
+            cursor = pagina.getSiguienteCursor();
+        } while (pagina.getHayMas());
+        return ids;
+    }
+
+    private List<Long> exportar(EstadoSolicitud estado, boolean soloPendientes) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        solicitudService.exportarSolicitudes(estado, soloPendientes, salida);
+
+        String contenido = salida.toString(StandardCharsets.UTF_8);
+        assertThat(contenido).endsWith("\n");
+        List<Long> ids = new ArrayList<>();
+        for (String linea : contenido.split("\n")) {
+            JsonNode solicitud = objectMapper.readTree(linea);
+            assertThat(solicitud.get("estado")).isNotNull();
+            ids.add(solicitud.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private Long crearSolicitud(Cliente cliente, EstadoSolicitud estado) {
+        secuencia++;
+        Contenedor contenedor = entityManager.persist(Contenedor.builder()
+                .numeroSerie("CONT-" + secuencia)
+                .tipo("DRY")
+                .peso(1000.0)
+                .volumen(20.0)
+                .estado(EstadoContenedor.REGISTRADO)
+                .cliente(cliente)
+                .build());
+        return entityManager.persist(Solicitud.builder()
+                .cliente(cliente)
+                .contenedor(contenedor)
+                .origenDireccion("Origen")
+                .destinoDireccion("Destino")
+                .estado(estado)
+                .fechaCreacion(LocalDateTime.now())
+                .build()).getId();
+    }
+}
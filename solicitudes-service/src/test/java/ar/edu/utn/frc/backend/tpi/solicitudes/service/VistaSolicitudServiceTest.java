@@ -0,0 +1,153 @@
+package ar.edu.utn.frc.backend.tpi.solicitudes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.client.RestClient;
+
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.RutaResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.SolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.TramoResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.dto.VistaSolicitudResponse;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.CostoSolicitudService.DesgloseCostoTotal;
+import ar.edu.utn.frc.backend.tpi.solicitudes.service.RutaService.ProgresoRuta;
+
+/**
+ * Verifica que las ramas de la vista corran en paralelo, que una rama lenta o sin servicio
+ * remoto deje una vista parcial en lugar de un error y que cada rama respete los roles de su
+ * endpoint individual.
+ */
+class VistaSolicitudServiceTest {
+
+    private static final long DEMORA_MS = 300;
+
+    private final SolicitudService solicitudService = mock(SolicitudService.class);
+    private final RutaService rutaService = mock(RutaService.class);
+    private final CostoSolicitudService costoSolicitudService = mock(CostoSolicitudService.class);
+    private VistaSolicitudService service;
+
+    @BeforeEach
+    void autenticar() {
+        autenticarCon("ROLE_ADMIN");
+    }
+
+    @AfterEach
+    void cerrar() {
+        service.cerrar();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void consultaLasRamasEnParalelo() {
+        service = servicio(Duration.ofSeconds(2));
+        when(solicitudService.obtenerSolicitudPorId(1L)).thenReturn(solicitud(10L));
+        when(rutaService.obtenerProgresoRuta(10L)).thenAnswer(i -> demorar(ProgresoRuta.builder().rutaId(10L).build()));
+        when(costoSolicitudService.calcularCostoTotal(1L))
+                .thenAnswer(i -> demorar(DesgloseCostoTotal.builder().costoTotal(1500.0).build()));
+
+        long inicio = System.nanoTime();
+        VistaSolicitudResponse vista = service.obtenerVista(1L);
+        long transcurridoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertThat(vista.getProgreso().getRutaId()).isEqualTo(10L);
+        assertThat(vista.getCostoTotal().getCostoTotal()).isEqualTo(1500.0);
+        // Sin cliente de flota-service los camiones se informan como faltantes
+        assertThat(vista.getCamiones()).isEmpty();
+        assertThat(vista.getFaltantes()).containsExactly("camiones: flota-service no configurado");
+        // En serie serían al menos dos demoras
+        assertThat(transcurridoMs).isLessThan(2 * DEMORA_MS);
+    }
+
+    @Test
+    void unaRamaVencidaDejaLaVistaParcial() {
+        service = servicio(Duration.ofMillis(DEMORA_MS / 3));
+        when(solicitudService.obtenerSolicitudPorId(1L)).thenReturn(solicitud(10L));
+        when(rutaService.obtenerProgresoRuta(10L)).thenReturn(ProgresoRuta.builder().rutaId(10L).build());
+        when(costoSolicitudService.calcularCostoTotal(1L))
+                .thenAnswer(i -> demorar(DesgloseCostoTotal.builder().costoTotal(1500.0).build()));
+
+        VistaSolicitudResponse vista = service.obtenerVista(1L);
+
+        assertThat(vista.getSolicitud().getId()).isEqualTo(1L);
+        assertThat(vista.getProgreso()).isNotNull();
+        assertThat(vista.getCostoTotal()).isNull();
+        assertThat(vista.getFaltantes()).contains("costoTotal: timeout");
+        assertThat(vista.isCompleta()).isFalse();
+    }
+
+    @Test
+    void sinRutaSoloDevuelveLaSolicitud() {
+        service = servicio(Duration.ofSeconds(2));
+        when(solicitudService.obtenerSolicitudPorId(1L)).thenReturn(solicitud(null));
+
+        VistaSolicitudResponse vista = service.obtenerVista(1L);
+
+        assertThat(vista.isCompleta()).isTrue();
+        assertThat(vista.getProgreso()).isNull();
+        assertThat(vista.getCostoTotal()).isNull();
+        verifyNoInteractions(rutaService, costoSolicitudService);
+    }
+
+    @Test
+    void clienteNoVeProgresoNiCamiones() {
+        autenticarCon("ROLE_CLIENTE");
+        service = servicio(Duration.ofSeconds(2));
+        when(solicitudService.obtenerSolicitudPorId(1L)).thenReturn(solicitud(10L));
+        when(costoSolicitudService.calcularCostoTotal(1L))
+                .thenReturn(DesgloseCostoTotal.builder().costoTotal(1500.0).build());
+
+        VistaSolicitudResponse vista = service.obtenerVista(1L);
+
+        assertThat(vista.getCostoTotal().getCostoTotal()).isEqualTo(1500.0);
+        assertThat(vista.getProgreso()).isNull();
+        assertThat(vista.getCamiones()).isEmpty();
+        assertThat(vista.getFaltantes()).isEmpty();
+        verifyNoInteractions(rutaService);
+    }
+
+    @Test
+    void transportistaNoVeElCostoTotal() {
+        autenticarCon("ROLE_TRANSPORTISTA");
+        service = servicio(Duration.ofSeconds(2));
+        when(solicitudService.obtenerSolicitudPorId(1L)).thenReturn(solicitud(10L));
+        when(rutaService.obtenerProgresoRuta(10L)).thenReturn(ProgresoRuta.builder().rutaId(10L).build());
+
+        VistaSolicitudResponse vista = service.obtenerVista(1L);
+
+        assertThat(vista.getProgreso().getRutaId()).isEqualTo(10L);
+        assertThat(vista.getCostoTotal()).isNull();
+        verifyNoInteractions(costoSolicitudService);
+    }
+
+    private static void autenticarCon(String rol) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("usuario", null, rol));
+    }
+
+    private VistaSolicitudService servicio(Duration timeout) {
+        return new VistaSolicitudService(solicitudService, rutaService, costoSolicitudService, (RestClient) null,
+                "http://localhost:8082", timeout);
+    }
+
+    private static SolicitudResponse solicitud(Long rutaId) {
+        RutaResponse ruta = rutaId == null ? null : RutaResponse.builder()
+                .id(rutaId)
+                .tramos(List.of(TramoResponse.builder().id(1L).camionId(7L).build()))
+                .build();
+        return SolicitudResponse.builder().id(1L).rutaId(rutaId).ruta(ruta).build();
+    }
+
+    private static <T> T demorar(T valor) throws InterruptedException {
+        Thread.sleep(DEMORA_MS);
+        return valor;
+    }
+}